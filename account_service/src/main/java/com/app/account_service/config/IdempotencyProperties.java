@@ -0,0 +1,40 @@
+package com.app.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the in-memory front cache of processed event IDs.
+ */
+@Component
+@ConfigurationProperties(prefix = "banking.account.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of processed event IDs kept in memory.
+     */
+    private long cacheSize = 100_000;
+
+    /**
+     * How long a processed event ID is kept in memory after it was recorded.
+     */
+    private Duration cacheTtl = Duration.ofHours(24);
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.account_service.config;
+
+import com.app.account_service.shared.Money;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reads {@link Money} amounts from JSON in banking.account.currency; the amounts carry none.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module moneyModule(@Value("${banking.account.currency}") String currency) {
+        return Money.jacksonModule(currency);
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the in-memory account ledger and its batched write-through
+ * to the accounts table.
+ */
+@Component
+@ConfigurationProperties(prefix = "banking.account.ledger")
+public class LedgerProperties {
+
+    /**
+     * Maximum number of balance writes grouped into one database round trip.
+     */
+    private int batchSize = 256;
+
+    /**
+     * Maximum time a balance write waits for its batch to fill up.
+     */
+    private Duration flushInterval = Duration.ofMillis(5);
+
+    /**
+     * Number of balance writes that may be queued before callers are rejected.
+     */
+    private int queueCapacity = 8192;
+
+    /**
+     * Maximum number of idle accounts kept in memory. Accounts with balance writes
+     * that are not yet persisted are never evicted and do not count towards it.
+     */
+    private long maxEntries = 100_000;
+
+    /**
+     * How long a balance may be served from memory after it was loaded from the
+     * database. Bounds how long changes made by other instances stay invisible.
+     */
+    private Duration entryTtl = Duration.ofMinutes(5);
+
+    /**
+     * How often the balances of accounts with new journal entries are snapshotted.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    /**
+     * Age a journal entry must reach before a snapshot includes it. Must exceed the
+     * longest ledger transaction, so no entry is committed behind a snapshot.
+     */
+    private Duration snapshotDelay = Duration.ofMinutes(1);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getEntryTtl() {
+        return entryTtl;
+    }
+
+    public void setEntryTtl(Duration entryTtl) {
+        this.entryTtl = entryTtl;
+    }
+
+    public Duration getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public void setSnapshotInterval(Duration snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public Duration getSnapshotDelay() {
+        return snapshotDelay;
+    }
+
+    public void setSnapshotDelay(Duration snapshotDelay) {
+        this.snapshotDelay = snapshotDelay;
+    }
+}
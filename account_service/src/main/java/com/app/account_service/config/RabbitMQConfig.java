@@ -1,5 +1,6 @@
 package com.app.account_service.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -22,9 +23,10 @@ public class RabbitMQConfig {
     @Autowired
     private RabbitMQProperties rabbitMQProperties;
 
+    // Spring's ObjectMapper, so messages are read with the Money module
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
     }
 
     @Bean
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 
 @Component
 @ConfigurationProperties(prefix = "rabbitmq")
@@ -11,6 +12,7 @@ public class RabbitMQProperties {
 
     private RabbitConfig loan;
     private RabbitConfig account;
+    private Consumer consumer = new Consumer();
 
     @Data
     public static class RabbitConfig {
@@ -43,6 +45,109 @@ public class RabbitMQProperties {
         }
     }
 
+    /**
+     * Settings of the event consumers.
+     */
+    public static class Consumer {
+        /**
+         * "reactive" consumes with a reactive AMQP receiver, "listener" with @RabbitListener containers.
+         */
+        private String mode = "reactive";
+
+        /**
+         * Maximum number of unacknowledged messages the broker delivers per queue.
+         */
+        private int prefetch = 50;
+
+        /**
+         * Maximum number of messages processed in parallel per queue, 0 to derive it from the core count.
+         * Keep it below the R2DBC pool size.
+         */
+        private int concurrency = 0;
+
+        /**
+         * Number of times processing of a message is retried before it is rejected.
+         */
+        private int retryAttempts = 2;
+
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Number of ordered lanes events are partitioned into by account, 0 to use the concurrency.
+         */
+        private int partitionLanes = 0;
+
+        /**
+         * Maximum number of events waiting in a single lane.
+         */
+        private int partitionQueueDepth = 256;
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getRetryAttempts() {
+            return retryAttempts;
+        }
+
+        public void setRetryAttempts(int retryAttempts) {
+            this.retryAttempts = retryAttempts;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public int getPartitionLanes() {
+            return partitionLanes;
+        }
+
+        public void setPartitionLanes(int partitionLanes) {
+            this.partitionLanes = partitionLanes;
+        }
+
+        public int getPartitionQueueDepth() {
+            return partitionQueueDepth;
+        }
+
+        public void setPartitionQueueDepth(int partitionQueueDepth) {
+            this.partitionQueueDepth = partitionQueueDepth;
+        }
+
+        /**
+         * Effective processing concurrency per queue.
+         *
+         * @return the configured concurrency, or twice the core count capped at 16
+         */
+        public int resolveConcurrency() {
+            return concurrency > 0 ? concurrency : Math.min(2 * Runtime.getRuntime().availableProcessors(), 16);
+        }
+    }
+
     public RabbitConfig getLoan() {
         return loan;
     }
@@ -58,5 +163,12 @@ public class RabbitMQProperties {
     public void setAccount(RabbitConfig account) {
         this.account = account;
     }
-}
 
+    public Consumer getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(Consumer consumer) {
+        this.consumer = consumer;
+    }
+}
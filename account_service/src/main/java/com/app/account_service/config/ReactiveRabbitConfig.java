@@ -0,0 +1,48 @@
+package com.app.account_service.config;
+
+import com.app.account_service.messaging.PartitionedExecutor;
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Receiver;
+import reactor.rabbitmq.ReceiverOptions;
+
+/**
+ * Reactive AMQP receiver and partitioned executor used when rabbitmq.consumer.mode is "reactive".
+ * The receiver connects to the same broker as the Spring AMQP connection factory.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rabbitmq.consumer", name = "mode", havingValue = "reactive", matchIfMissing = true)
+public class ReactiveRabbitConfig {
+
+    @Bean(destroyMethod = "close")
+    public Receiver reactiveReceiver(RabbitProperties rabbitProperties) {
+        ConnectionFactory connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(rabbitProperties.determineHost());
+        connectionFactory.setPort(rabbitProperties.determinePort());
+        connectionFactory.setUsername(rabbitProperties.determineUsername());
+        connectionFactory.setPassword(rabbitProperties.determinePassword());
+        if (rabbitProperties.determineVirtualHost() != null) {
+            connectionFactory.setVirtualHost(rabbitProperties.determineVirtualHost());
+        }
+        connectionFactory.useNio();
+
+        return RabbitFlux.createReceiver(new ReceiverOptions()
+                .connectionFactory(connectionFactory)
+                .connectionSubscriptionScheduler(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Lanes that keep balance updates of one account in order while accounts run in parallel.
+     */
+    @Bean(destroyMethod = "dispose")
+    public PartitionedExecutor accountEventExecutor(RabbitMQProperties rabbitMQProperties) {
+        RabbitMQProperties.Consumer settings = rabbitMQProperties.getConsumer();
+        int lanes = settings.getPartitionLanes() > 0 ? settings.getPartitionLanes() : settings.resolveConcurrency();
+        return new PartitionedExecutor(lanes, settings.getPartitionQueueDepth());
+    }
+}
@@ -1,17 +1,25 @@
 package com.app.account_service.controller;
 
 
+import com.app.account_service.dto.BulkFundResult;
 import com.app.account_service.dto.FundAccountRequest;
+import com.app.account_service.entity.Account;
 import com.app.account_service.service.AccountService;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Set;
@@ -35,6 +43,28 @@ public class AccountController {
                 .map(ResponseEntity::ok);
     }
 
+    @PostMapping(value = "/fund/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkFundResult> fundBulk(@RequestBody Flux<FundAccountRequest> requests) {
+        return accountService.fundAccounts(requests);
+    }
+
+    /**
+     * Stream accounts as NDJSON in account number order. To continue an interrupted or
+     * limited listing, pass the account number of the last account received as after.
+     * Without a limit, all matching accounts are streamed.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Account> list(@RequestParam(required = false) Integer status,
+                              @RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Long limit) {
+        if (limit != null && limit < 1) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return accountService.streamAccounts(status, after, limit != null ? limit : Long.MAX_VALUE);
+    }
+
     private <T> void validate(T dto){
         Set<ConstraintViolation<T>> violations = validator.validate(dto);
         if (!violations.isEmpty()) {
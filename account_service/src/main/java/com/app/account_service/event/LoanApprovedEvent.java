@@ -1,11 +1,13 @@
 package com.app.account_service.event;
 
+import com.app.account_service.shared.Money;
+
 import java.util.UUID;
 
 public class LoanApprovedEvent {
     private UUID loanId;
     private UUID accountId;
-    private double amount;
+    private Money amount;
 
     public UUID getLoanId() {
         return loanId;
@@ -23,11 +25,11 @@ public class LoanApprovedEvent {
         this.accountId = accountId;
     }
 
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
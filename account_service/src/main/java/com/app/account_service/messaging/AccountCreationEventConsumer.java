@@ -1,18 +1,25 @@
 package com.app.account_service.messaging;
 
 import com.app.account_service.entity.Account;
+import com.app.account_service.entity.AccountTransaction;
 import com.app.account_service.event.AccountCreationEvent;
 import com.app.account_service.repository.AccountRepository;
+import com.app.account_service.service.TransactionJournal;
 import com.app.account_service.shared.AccountStatus;
+import com.app.account_service.shared.TransactionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class AccountCreationEventConsumer {
@@ -21,26 +28,50 @@ public class AccountCreationEventConsumer {
     private String accountCurrency;
 
     private final AccountRepository accountRepository;
+    private final TransactionJournal transactionJournal;
+    private final TransactionalOperator transactionalOperator;
 
     private static final Logger log = LoggerFactory
             .getLogger(AccountCreationEventConsumer.class);
 
-    public AccountCreationEventConsumer(AccountRepository accountRepository) {
+    public AccountCreationEventConsumer(AccountRepository accountRepository, TransactionJournal transactionJournal,
+                                        TransactionalOperator transactionalOperator) {
         this.accountRepository = accountRepository;
+        this.transactionJournal = transactionJournal;
+        this.transactionalOperator = transactionalOperator;
     }
 
     /**
-     * Create a new account for a given customer id
-     * @param event the customer for whom the account is created
+     * Listener used when rabbitmq.consumer.mode is "listener".
+     * Blocks the container thread until the account is saved, so the message
+     * is only acknowledged after the insert.
      */
-    @RabbitListener(queues = "${rabbitmq.account.queue}")
+    @RabbitListener(queues = "${rabbitmq.account.queue}",
+            autoStartup = "#{'${rabbitmq.consumer.mode:reactive}' == 'listener'}")
     public void handleAccountCreationEvent(AccountCreationEvent event) {
+        process(event).block();
+    }
+
+    /**
+     * Create a new account for a given customer id.
+     * A customer has at most one account, so a redelivered event returns the existing one.
+     * @param event the customer for whom the account is created
+     * @return Mono of the saved account
+     */
+    public Mono<Account> process(AccountCreationEvent event) {
         log.info("Received AccountCreationEvent: {}", event);
 
         if (event == null || event.getCustomerId() == null) {
-            log.error(String.valueOf(new IllegalArgumentException("Customer must not be null and must have an ID")));
+            return Mono.error(new IllegalArgumentException("Customer must not be null and must have an ID"));
         }
 
+        return accountRepository.findByCustomerId(event.getCustomerId())
+                .doOnNext(existing -> log.info("Account already exists for customer {}: {}",
+                        event.getCustomerId(), existing.getId()))
+                .switchIfEmpty(Mono.defer(() -> createAccount(event)));
+    }
+
+    private Mono<Account> createAccount(AccountCreationEvent event) {
         // Create a new account entity
         Account account = new Account();
         account.setCustomerId(event.getCustomerId());
@@ -51,11 +82,26 @@ public class AccountCreationEventConsumer {
         account.setCreatedAt(LocalDateTime.now());
         account.setUpdatedAt(LocalDateTime.now());
 
-        accountRepository.save(account)
+        // The opening entry lets the balance be derived from the journal alone
+        return accountRepository.save(account)
+                .flatMap(saved -> transactionJournal.append(List.of(openingEntry(saved))).thenReturn(saved))
+                .as(transactionalOperator::transactional)
                 .doOnSuccess(acc -> log.info("Created new account: {}", acc.getId()))
+                // A concurrent delivery of the same event created it first
+                .onErrorResume(DuplicateKeyException.class, error -> accountRepository
+                        .findByCustomerId(event.getCustomerId())
+                        .switchIfEmpty(Mono.error(error)))
                 .doOnError(err -> log.error("Failed to create account for customer {}: {}",
-                        event.getCustomerId(), err.getMessage()))
-                .subscribe();
+                        event.getCustomerId(), err.getMessage()));
+    }
+
+    private static AccountTransaction openingEntry(Account account) {
+        AccountTransaction transaction = new AccountTransaction();
+        transaction.setAccountId(account.getId());
+        transaction.setType(TransactionType.OPENING.name());
+        transaction.setAmount(account.getBalance());
+        transaction.setCreatedAt(account.getCreatedAt());
+        return transaction;
     }
 
     private Long generateRandomAccountNumber(){
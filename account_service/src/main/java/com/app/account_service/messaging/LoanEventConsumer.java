@@ -1,41 +1,87 @@
 package com.app.account_service.messaging;
 
 import com.app.account_service.event.LoanApprovedEvent;
-import com.app.account_service.repository.AccountRepository;
+import com.app.account_service.service.AccountLedger;
+import com.app.account_service.service.IdempotencyGuard;
+import com.app.account_service.service.LedgerEntry;
+import com.app.account_service.shared.Money;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
-
-import java.math.BigDecimal;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Service
 public class LoanEventConsumer {
 
-    private final AccountRepository accountRepository;
+    private final AccountLedger accountLedger;
+    private final IdempotencyGuard idempotencyGuard;
 
     private static final Logger log = LoggerFactory
             .getLogger(LoanEventConsumer.class);
 
-    public LoanEventConsumer(AccountRepository accountRepository) {
-        this.accountRepository = accountRepository;
+    public LoanEventConsumer(AccountLedger accountLedger, IdempotencyGuard idempotencyGuard) {
+        this.accountLedger = accountLedger;
+        this.idempotencyGuard = idempotencyGuard;
     }
 
-    @RabbitListener(queues = "${rabbitmq.loan.queue}")
+    /**
+     * Listener used when rabbitmq.consumer.mode is "listener".
+     * Blocks the container thread until the balance is persisted, so the message
+     * is only acknowledged after the update.
+     */
+    @RabbitListener(queues = "${rabbitmq.loan.queue}",
+            autoStartup = "#{'${rabbitmq.consumer.mode:reactive}' == 'listener'}")
     public void handleLoanApprovedEvent(LoanApprovedEvent event) {
+        process(event).block();
+    }
+
+    /**
+     * Credit the loan amount to the borrower's account.
+     * A loan that has already been credited is skipped, so redeliveries are harmless,
+     * including ones processed concurrently with the first delivery.
+     *
+     * @param event the approved loan
+     * @return Mono that completes once the new balance is persisted
+     */
+    public Mono<Void> process(LoanApprovedEvent event) {
         log.info("Received LoanApprovedEvent: {}", event);
 
-        accountRepository.findByCustomerId(event.getAccountId())
-                .flatMap(account -> {
-                    account.setBalance(account.getBalance().add(BigDecimal.valueOf(event.getAmount())));
-                    return accountRepository.save(account);
+        if (event.getLoanId() == null) {
+            return credit(event).then();
+        }
+        if (idempotencyGuard.isProcessed(event.getLoanId())) {
+            log.info("Skipping already processed LoanApprovedEvent: loanId={}", event.getLoanId());
+            return Mono.empty();
+        }
+        return credit(event)
+                .doOnNext(account -> idempotencyGuard.remember(event.getLoanId()))
+                // The loan was credited before, by an earlier or a concurrent delivery
+                .onErrorResume(AccountLedger.DuplicateEventException.class, duplicate -> {
+                    log.info("Skipping already processed LoanApprovedEvent: loanId={}", event.getLoanId());
+                    idempotencyGuard.remember(event.getLoanId());
+                    return Mono.empty();
                 })
-                .doOnSuccess(account -> log.info("Account balance updated for accountId={}", account.getAccountNumber()))
-                .doOnError(error -> log.error("Failed to update account: {}", error.getMessage()))
-                .subscribe();
+                .then();
     }
 
-}
+    private Mono<LedgerEntry> credit(LoanApprovedEvent event) {
+        return accountLedger.findByCustomerId(event.getAccountId())
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("No account found for LoanApprovedEvent: loanId={}, accountId={}",
+                            event.getLoanId(), event.getAccountId());
+                    return Mono.empty();
+                }))
+                // Loans are granted in the currency of the borrower's account; the event amount carries none
+                .flatMap(account -> accountLedger.credit(account,
+                                Money.ofMinor(event.getAmount().getMinorUnits(), account.getCurrency()),
+                                "LOAN:" + event.getLoanId(), event.getLoanId())
+                        .thenReturn(account))
+                .doOnNext(account -> log.info("Account balance updated for accountId={}", account.getAccountNumber()))
+                .doOnError(error -> !(error instanceof AccountLedger.DuplicateEventException),
+                        error -> log.error("Failed to update account: {}", error.getMessage()));
+    }
 
+}
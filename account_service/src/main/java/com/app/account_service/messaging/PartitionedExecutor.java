@@ -0,0 +1,93 @@
+package com.app.account_service.messaging;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs reactive work in N lanes selected by hashing a partition key.
+ * <p>
+ * Work submitted with the same key always lands in the same lane and runs strictly
+ * one after another in submission order, while different lanes run in parallel. Each
+ * lane buffers at most {@code queueDepth} pending tasks; further submissions fail with a
+ * {@link RejectedExecutionException} instead of growing the buffer, and the lane keeps
+ * running.
+ */
+public class PartitionedExecutor {
+
+    private final List<Sinks.Many<Task<?>>> lanes;
+    private final Disposable.Composite workers = Disposables.composite();
+
+    public PartitionedExecutor(int laneCount, int queueDepth) {
+        if (laneCount < 1 || queueDepth < 1) {
+            throw new IllegalArgumentException("Lane count and queue depth must be positive");
+        }
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            Sinks.Many<Task<?>> lane = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<Task<?>>get(queueDepth).get());
+            workers.add(lane.asFlux().concatMap(Task::run).subscribe());
+            lanes.add(lane);
+        }
+    }
+
+    /**
+     * Queue work in the lane of the given key.
+     *
+     * @param key  the partition key, e.g. an account ID
+     * @param work the work to run once all earlier work of the lane has finished
+     * @return Mono that mirrors the outcome of the work
+     */
+    public <T> Mono<T> submit(Object key, Mono<T> work) {
+        return Mono.create(sink -> {
+            Sinks.Many<Task<?>> lane = laneOf(key);
+            Task<T> task = new Task<>(work, sink);
+            Sinks.EmitResult result;
+            while ((result = lane.tryEmitNext(task)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                // Another caller is emitting to the lane right now; that only takes a few instructions
+                Thread.onSpinWait();
+            }
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                sink.error(new RejectedExecutionException("Partition lane for " + key + " is full"));
+            } else if (result.isFailure()) {
+                sink.error(new RejectedExecutionException("Partitioned executor is shut down"));
+            }
+        });
+    }
+
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    public void dispose() {
+        lanes.forEach(Sinks.Many::tryEmitComplete);
+        workers.dispose();
+    }
+
+    private Sinks.Many<Task<?>> laneOf(Object key) {
+        int hash = key.hashCode();
+        // Spread the high bits, as HashMap does, so keys with similar low bits do not share a lane
+        return lanes.get(Math.floorMod(hash ^ (hash >>> 16), lanes.size()));
+    }
+
+    private record Task<T>(Mono<T> work, MonoSink<T> sink) {
+
+        Mono<Void> run() {
+            return work
+                    .doOnNext(sink::success)
+                    .switchIfEmpty(Mono.fromRunnable(sink::success))
+                    .onErrorResume(error -> {
+                        sink.error(error);
+                        return Mono.empty();
+                    })
+                    .then();
+        }
+    }
+}
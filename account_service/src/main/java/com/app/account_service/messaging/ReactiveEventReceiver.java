@@ -0,0 +1,166 @@
+package com.app.account_service.messaging;
+
+import com.app.account_service.config.RabbitMQProperties;
+import com.app.account_service.event.AccountCreationEvent;
+import com.app.account_service.event.LoanApprovedEvent;
+import com.app.account_service.metrics.FlowMetrics;
+import com.rabbitmq.client.AMQP;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.observation.transport.ReceiverContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.AcknowledgableDelivery;
+import reactor.rabbitmq.ConsumeOptions;
+import reactor.rabbitmq.Receiver;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Consumes account and loan events with a reactive AMQP receiver.
+ * <p>
+ * Each queue is consumed with manual acknowledgements and a prefetch limit, and
+ * messages are processed with bounded concurrency, so backpressure reaches the broker
+ * instead of piling work onto the R2DBC pool. Processing runs on the
+ * {@link PartitionedExecutor}, keyed by account, so events of one account are applied
+ * in delivery order while different accounts are processed in parallel. A message is acknowledged only after its
+ * processing Mono completes; after the configured retries it is rejected without requeue.
+ * <p>
+ * Per queue, the time from publishing to delivery is recorded as rabbitmq.consume.lag
+ * and the time from delivery to acknowledgement as rabbitmq.consume. Processing runs in a
+ * rabbitmq.process observation that continues the trace carried in the message headers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rabbitmq.consumer", name = "mode", havingValue = "reactive", matchIfMissing = true)
+public class ReactiveEventReceiver {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(ReactiveEventReceiver.class);
+
+    private final Receiver receiver;
+    private final PartitionedExecutor accountEventExecutor;
+    private final RabbitAdmin rabbitAdmin;
+    private final ObjectMapper objectMapper;
+    private final RabbitMQProperties properties;
+    private final LoanEventConsumer loanEventConsumer;
+    private final AccountCreationEventConsumer accountCreationEventConsumer;
+    private final FlowMetrics flowMetrics;
+    private final ObservationRegistry observationRegistry;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public ReactiveEventReceiver(Receiver receiver, PartitionedExecutor accountEventExecutor, RabbitAdmin rabbitAdmin, ObjectMapper objectMapper,
+                                 RabbitMQProperties properties, LoanEventConsumer loanEventConsumer,
+                                 AccountCreationEventConsumer accountCreationEventConsumer, FlowMetrics flowMetrics,
+                                 ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.receiver = receiver;
+        this.accountEventExecutor = accountEventExecutor;
+        this.rabbitAdmin = rabbitAdmin;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.loanEventConsumer = loanEventConsumer;
+        this.accountCreationEventConsumer = accountCreationEventConsumer;
+        this.flowMetrics = flowMetrics;
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        // Declare queues, exchanges and bindings before consuming; no listener container does it for us
+        rabbitAdmin.initialize();
+
+        subscriptions.add(consume(properties.getLoan().getQueue(),
+                LoanApprovedEvent.class, LoanApprovedEvent::getAccountId, loanEventConsumer::process));
+        subscriptions.add(consume(properties.getAccount().getQueue(),
+                AccountCreationEvent.class, AccountCreationEvent::getCustomerId, accountCreationEventConsumer::process));
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+    }
+
+    private <T> Disposable consume(String queue, Class<T> type, Function<T, Object> partitionKey,
+                                   Function<T, Mono<?>> handler) {
+        RabbitMQProperties.Consumer settings = properties.getConsumer();
+        int concurrency = settings.resolveConcurrency();
+        log.info("Consuming {} reactively: prefetch={}, concurrency={}, lanes={}",
+                queue, settings.getPrefetch(), concurrency, accountEventExecutor.getLaneCount());
+
+        return receiver.consumeManualAck(queue, new ConsumeOptions().qos(settings.getPrefetch()))
+                .flatMap(delivery -> handle(queue, delivery, type, partitionKey, handler), concurrency)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Consumer of {} failed, reconnecting: {}",
+                                queue, signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    private <T> Mono<Void> handle(String queue, AcknowledgableDelivery delivery, Class<T> type,
+                                  Function<T, Object> partitionKey, Function<T, Mono<?>> handler) {
+        RabbitMQProperties.Consumer settings = properties.getConsumer();
+        recordLag(queue, delivery.getProperties());
+        Mono<Void> processing = Mono.fromCallable(() -> objectMapper.readValue(delivery.getBody(), type))
+                .flatMap(event -> accountEventExecutor.submit(partitionKey.apply(event),
+                        Mono.defer(() -> handler.apply(event))
+                                .retryWhen(Retry.backoff(settings.getRetryAttempts(), settings.getRetryBackoff()))))
+                .then(Mono.fromRunnable(delivery::ack));
+        Observation observation = observation(queue, delivery.getProperties());
+        return flowMetrics.time("rabbitmq.consume", Tags.of("queue", queue), processing)
+                .doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation))
+                .doOnSubscribe(subscription -> observation.start())
+                .onErrorResume(RejectedExecutionException.class, error -> {
+                    // A full lane is back-pressure, not a bad message: hand it back to the broker
+                    log.warn("Requeueing {}: {}", type.getSimpleName(), error.getMessage());
+                    delivery.nack(true);
+                    return Mono.empty();
+                })
+                .onErrorResume(error -> {
+                    log.error("Rejecting {} after failed processing: {}", type.getSimpleName(), error.getMessage());
+                    delivery.nack(false);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Observation observation(String queue, AMQP.BasicProperties messageProperties) {
+        ReceiverContext<AMQP.BasicProperties> context = new ReceiverContext<>((carrier, key) -> {
+            Object value = carrier.getHeaders() == null ? null : carrier.getHeaders().get(key);
+            return value == null ? null : value.toString();
+        });
+        context.setCarrier(messageProperties != null ? messageProperties : new AMQP.BasicProperties());
+        context.setRemoteServiceName("rabbitmq");
+        return Observation.createNotStarted("rabbitmq.process", () -> context, observationRegistry)
+                .contextualName("process " + queue)
+                .lowCardinalityKeyValue("messaging.destination.name", queue);
+    }
+
+    /**
+     * Publishers stamp messages with the time they were sent, in whole seconds.
+     */
+    private void recordLag(String queue, AMQP.BasicProperties messageProperties) {
+        if (messageProperties != null && messageProperties.getTimestamp() != null) {
+            Duration lag = Duration.between(messageProperties.getTimestamp().toInstant(), Instant.now());
+            flowMetrics.record("rabbitmq.consume.lag", Tags.of("queue", queue), lag.isNegative() ? Duration.ZERO : lag);
+        }
+    }
+}
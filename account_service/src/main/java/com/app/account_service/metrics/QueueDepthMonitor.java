@@ -0,0 +1,98 @@
+package com.app.account_service.metrics;
+
+import com.app.account_service.config.RabbitMQProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the broker for the backlog of the queues this service consumes and exposes it
+ * as the gauges rabbitmq.queue.messages and rabbitmq.queue.consumers. A growing backlog
+ * means the consumers no longer keep up with the publishers.
+ */
+@Component
+public class QueueDepthMonitor {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(QueueDepthMonitor.class);
+
+    private final RabbitAdmin rabbitAdmin;
+    private final List<QueueGauges> queues;
+
+    @Value("${banking.metrics.lag-poll-interval:15s}")
+    private Duration pollInterval;
+
+    private Disposable poller;
+
+    public QueueDepthMonitor(RabbitAdmin rabbitAdmin, RabbitMQProperties properties,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.rabbitAdmin = rabbitAdmin;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.queues = List.of(
+                new QueueGauges(properties.getLoan().getQueue(), registry),
+                new QueueGauges(properties.getAccount().getQueue(), registry));
+    }
+
+    @PostConstruct
+    void start() {
+        poller = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::poll)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(error -> {
+                            log.warn("Queue depth poll failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.dispose();
+    }
+
+    private void poll() {
+        for (QueueGauges queue : queues) {
+            QueueInformation information = rabbitAdmin.getQueueInfo(queue.name);
+            if (information != null) {
+                queue.messages.set(information.getMessageCount());
+                queue.consumers.set(information.getConsumerCount());
+            }
+        }
+    }
+
+    private static final class QueueGauges {
+
+        private final String name;
+        private final AtomicLong messages = new AtomicLong();
+        private final AtomicLong consumers = new AtomicLong();
+
+        QueueGauges(String name, MeterRegistry registry) {
+            this.name = name;
+            Gauge.builder("rabbitmq.queue.messages", messages, AtomicLong::get)
+                    .description("Messages ready for delivery in the queue")
+                    .tag("queue", name)
+                    .register(registry);
+            Gauge.builder("rabbitmq.queue.consumers", consumers, AtomicLong::get)
+                    .tag("queue", name)
+                    .register(registry);
+        }
+    }
+}
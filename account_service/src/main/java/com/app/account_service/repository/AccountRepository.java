@@ -1,8 +1,10 @@
 package com.app.account_service.repository;
 
 import com.app.account_service.entity.Account;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -11,4 +13,26 @@ import java.util.UUID;
 public interface AccountRepository extends R2dbcRepository<Account, UUID> {
     Mono<Account> findByCustomerId(UUID customerId);
     Mono<Account> findByAccountNumber(Long accountId);
+
+    /**
+     * Keyset page of accounts in account number order.
+     *
+     * @param after the account number to continue after
+     * @param limit the maximum number of accounts
+     * @return Flux of accounts with a higher account number
+     */
+    @Query("SELECT * FROM accounts WHERE account_number > :after ORDER BY account_number LIMIT :limit")
+    Flux<Account> findPageAfter(long after, int limit);
+
+    /**
+     * Keyset page of accounts with the given status in account number order.
+     *
+     * @param status the account status
+     * @param after  the account number to continue after
+     * @param limit  the maximum number of accounts
+     * @return Flux of accounts with the status and a higher account number
+     */
+    @Query("SELECT * FROM accounts WHERE status = :status AND account_number > :after " +
+            "ORDER BY account_number LIMIT :limit")
+    Flux<Account> findPageByStatusAfter(int status, long after, int limit);
 }
@@ -0,0 +1,39 @@
+package com.app.account_service.repository;
+
+import com.app.account_service.entity.AccountTransaction;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Repository
+public interface AccountTransactionRepository extends R2dbcRepository<AccountTransaction, Long> {
+
+    /**
+     * Journal entries of an account, newest first.
+     *
+     * @param accountId the account ID
+     * @return Flux of journal entries
+     */
+    Flux<AccountTransaction> findByAccountIdOrderByIdDesc(UUID accountId);
+
+    /**
+     * Balance of an account as derived from its journal: the latest balance snapshot
+     * plus the entries written after it, or all entries from the opening entry on if
+     * the account has no snapshot yet.
+     *
+     * @param accountId the account ID
+     * @return Mono of the derived balance
+     */
+    @Query("WITH snapshot AS (SELECT balance, last_transaction_id FROM account_balance_snapshots " +
+            "WHERE account_id = :accountId ORDER BY last_transaction_id DESC LIMIT 1) " +
+            "SELECT COALESCE((SELECT balance FROM snapshot), 0) " +
+            "+ COALESCE((SELECT SUM(CASE WHEN type = 'DEBIT' THEN -amount ELSE amount END) " +
+            "FROM account_transactions WHERE account_id = :accountId " +
+            "AND id > COALESCE((SELECT last_transaction_id FROM snapshot), 0)), 0)")
+    Mono<BigDecimal> deriveBalanceByAccountId(UUID accountId);
+}
@@ -0,0 +1,505 @@
+package com.app.account_service.service;
+
+import com.app.account_service.config.LedgerProperties;
+import com.app.account_service.entity.Account;
+import com.app.account_service.entity.AccountTransaction;
+import com.app.account_service.repository.AccountRepository;
+import com.app.account_service.shared.Money;
+import com.app.account_service.shared.TransactionType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory balance ledger for accounts.
+ * <p>
+ * Recently used accounts are kept as {@link LedgerEntry} objects whose balance is
+ * changed atomically, so concurrent requests against the same account never overwrite
+ * each other. Balance changes are written through to the accounts table by a single
+ * writer that groups them into batches; every batch also appends its credits and debits
+ * to the {@link TransactionJournal} and records the IDs of the events that caused them
+ * with the {@link IdempotencyGuard}, in the same transaction. A caller's Mono only
+ * completes once the batch carrying its change has been persisted.
+ * <p>
+ * The accounts table is updated with the net change of each batch rather than the
+ * in-memory balance, and an update that would overdraw the persisted balance is refused,
+ * failing only the writes of that account, so several instances, or other writers of the
+ * table, never overwrite each other's changes. An instance does not see changes made elsewhere until its copy of the
+ * account is reloaded, at the latest after banking.account.ledger.entry-ttl.
+ * <p>
+ * An account with changes that are not yet persisted stays in memory; idle accounts
+ * are evicted beyond banking.account.ledger.max-entries.
+ */
+@Component
+public class AccountLedger {
+
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE accounts SET balance = balance + $1, updated_at = $2 WHERE id = $3 AND balance + $1 >= 0";
+
+    private static final Logger log = LoggerFactory
+            .getLogger(AccountLedger.class);
+
+    private final AccountRepository accountRepository;
+    private final DatabaseClient databaseClient;
+    private final TransactionJournal transactionJournal;
+    private final IdempotencyGuard idempotencyGuard;
+    private final TransactionalOperator transactionalOperator;
+    private final LedgerProperties properties;
+
+    private final Cache<UUID, LedgerEntry> entries;
+    private final Cache<UUID, UUID> accountIdsByCustomer;
+    private final Cache<Long, UUID> accountIdsByNumber;
+
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private Sinks.Many<PendingWrite> writes;
+    private Disposable writer;
+
+    public AccountLedger(AccountRepository accountRepository, DatabaseClient databaseClient,
+                         TransactionJournal transactionJournal, IdempotencyGuard idempotencyGuard,
+                         TransactionalOperator transactionalOperator, LedgerProperties properties) {
+        this.accountRepository = accountRepository;
+        this.databaseClient = databaseClient;
+        this.transactionJournal = transactionJournal;
+        this.idempotencyGuard = idempotencyGuard;
+        this.transactionalOperator = transactionalOperator;
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxEntries())
+                // Entries with pending writes weigh nothing and never expire, so they are never evicted
+                .weigher((UUID accountId, LedgerEntry entry) -> entry.hasPendingWrites() ? 0 : 1)
+                .expireAfter(new EntryExpiry(properties.getEntryTtl()))
+                .build();
+        this.accountIdsByCustomer = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .build();
+        this.accountIdsByNumber = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        writes = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<PendingWrite>get(properties.getQueueCapacity()).get());
+        writer = writes.asFlux()
+                .bufferTimeout(properties.getBatchSize(), properties.getFlushInterval(), true)
+                .concatMap(this::writeBatch)
+                .doFinally(signal -> drained.countDown())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writes.tryEmitComplete();
+        if (!drained.await(5, TimeUnit.SECONDS)) {
+            log.warn("Ledger writer did not drain in time, disposing");
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Resolve the ledger entry of the account owned by the given customer,
+     * loading it from the database on first access.
+     *
+     * @param customerId the customer ID
+     * @return Mono of LedgerEntry, empty if the customer has no account
+     */
+    public Mono<LedgerEntry> findByCustomerId(UUID customerId) {
+        LedgerEntry cached = lookup(accountIdsByCustomer.getIfPresent(customerId));
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return accountRepository.findByCustomerId(customerId).map(this::register);
+    }
+
+    /**
+     * Resolve the ledger entry of the account with the given account number,
+     * loading it from the database on first access.
+     *
+     * @param accountNumber the account number
+     * @return Mono of LedgerEntry, empty if no such account exists
+     */
+    public Mono<LedgerEntry> findByAccountNumber(Long accountNumber) {
+        LedgerEntry cached = lookup(accountIdsByNumber.getIfPresent(accountNumber));
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return accountRepository.findByAccountNumber(accountNumber).map(this::register);
+    }
+
+    /**
+     * Credit an account and persist the new balance.
+     *
+     * @param entry     the account to credit
+     * @param amount    the amount to add, in the account currency
+     * @param reference journal reference of the credit, may be null
+     * @return Mono of the balance after the credit, emitted once it is persisted
+     */
+    public Mono<Money> credit(LedgerEntry entry, Money amount, String reference) {
+        return credit(entry, amount, reference, null);
+    }
+
+    /**
+     * Credit an account on behalf of an event and persist the new balance together
+     * with the event ID, so the event is known as processed exactly when the credit commits.
+     * Fails with {@link DuplicateEventException}, leaving the balance unchanged, if the
+     * event has already been applied.
+     *
+     * @param entry     the account to credit
+     * @param amount    the amount to add, in the account currency
+     * @param reference journal reference of the credit, may be null
+     * @param eventId   ID of the event causing the credit, may be null
+     * @return Mono of the balance after the credit, emitted once it is persisted
+     */
+    public Mono<Money> credit(LedgerEntry entry, Money amount, String reference, UUID eventId) {
+        return write(entry, TransactionType.CREDIT, amount, reference, eventId);
+    }
+
+    /**
+     * Debit an account if its balance covers the amount and persist the new balance.
+     *
+     * @param entry     the account to debit
+     * @param amount    the amount to subtract, in the account currency
+     * @param reference journal reference of the debit, may be null
+     * @return Mono of the balance after the debit, emitted once it is persisted
+     */
+    public Mono<Money> debit(LedgerEntry entry, Money amount, String reference) {
+        return write(entry, TransactionType.DEBIT, amount, reference, null);
+    }
+
+    private Mono<Money> write(LedgerEntry entry, TransactionType type, Money amount,
+                              String reference, UUID eventId) {
+        return Mono.defer(() -> {
+            Applied applied = apply(entry, type, amount);
+            if (applied == null) {
+                log.warn("Insufficient balance for deduction: AccountID={}, Balance={}, Requested={}",
+                        entry.getAccountId(), entry.getBalance(), amount);
+                return Mono.error(new Exception("Insufficient balance"));
+            }
+            long delta = type == TransactionType.CREDIT ? amount.getMinorUnits() : -amount.getMinorUnits();
+            AccountTransaction transaction = journalEntry(applied.entry(), type, amount, reference);
+            return Mono.<Void>create(sink -> enqueue(new PendingWrite(applied.entry(), delta, transaction, eventId, sink)))
+                    .thenReturn(applied.balance());
+        });
+    }
+
+    /**
+     * Apply a balance change to the entry this ledger holds for the account and pin that
+     * entry in memory until the change is persisted. The caller's entry may have been
+     * evicted since it was resolved: it is put back if no newer copy was loaded meanwhile,
+     * otherwise the change goes to the newer copy, so an account never has two live balances.
+     *
+     * @return the changed entry and its new balance, or null if a debit is not covered
+     */
+    private Applied apply(LedgerEntry entry, TransactionType type, Money amount) {
+        Applied[] applied = new Applied[1];
+        entries.asMap().compute(entry.getAccountId(), (accountId, current) -> {
+            LedgerEntry target = current != null ? current : entry;
+            Money balance = type == TransactionType.CREDIT ? target.credit(amount) : target.tryDebit(amount);
+            if (balance != null) {
+                target.beginWrite();
+                applied[0] = new Applied(target, balance);
+            }
+            return target;
+        });
+        return applied[0];
+    }
+
+    private void enqueue(PendingWrite write) {
+        Sinks.EmitResult result;
+        while ((result = writes.tryEmitNext(write)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            // Another caller is emitting right now; that only takes a few instructions
+            Thread.onSpinWait();
+        }
+        if (result.isFailure()) {
+            log.warn("Ledger write queue rejected update: AccountID={}, Reason={}",
+                    write.entry().getAccountId(), result);
+            revert(write);
+            release(write.entry(), 1);
+            write.sink().error(result == Sinks.EmitResult.FAIL_OVERFLOW
+                    ? new QueueFullException()
+                    : new IllegalStateException("Account ledger is shut down"));
+        }
+    }
+
+    private void revert(PendingWrite write) {
+        write.entry().credit(Money.ofMinor(-write.delta(), write.entry().getCurrency()));
+    }
+
+    /**
+     * Mark writes of an entry as done. Updating the cache mapping re-evaluates the
+     * entry's weight and expiry, which unpins it once nothing is pending.
+     */
+    private void release(LedgerEntry entry, int count) {
+        entries.asMap().compute(entry.getAccountId(), (accountId, current) -> {
+            entry.endWrites(count);
+            return current;
+        });
+    }
+
+    private LedgerEntry lookup(UUID accountId) {
+        return accountId == null ? null : entries.getIfPresent(accountId);
+    }
+
+    private LedgerEntry register(Account account) {
+        // The first load wins: a concurrent load may carry a balance that is already stale
+        LedgerEntry entry = entries.get(account.getId(), accountId -> new LedgerEntry(account));
+        accountIdsByCustomer.put(entry.getCustomerId(), entry.getAccountId());
+        accountIdsByNumber.put(entry.getAccountNumber(), entry.getAccountId());
+        return entry;
+    }
+
+    private AccountTransaction journalEntry(LedgerEntry entry, TransactionType type,
+                                            Money amount, String reference) {
+        AccountTransaction transaction = new AccountTransaction();
+        transaction.setAccountId(entry.getAccountId());
+        transaction.setType(type.name());
+        transaction.setAmount(amount.toBigDecimal());
+        transaction.setReference(reference);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+
+    /**
+     * Apply the net balance change of every account in the batch with a single batched
+     * statement and append the batch to the journal, all in one transaction. Several
+     * writes to one account collapse into one row update.
+     * <p>
+     * The event IDs of the batch are recorded first. A write whose event was already
+     * recorded, by an earlier batch, another instance, or an earlier write of this batch,
+     * is left out, taken back out of memory and fails with {@link DuplicateEventException}.
+     * <p>
+     * An account whose update is refused because the persisted balance does not cover it,
+     * e.g. after another instance debited it, is left out as well: its writes are taken back
+     * out of memory and fail, the account is reloaded once idle, and the rest of the batch
+     * is committed.
+     */
+    private Mono<Void> writeBatch(List<PendingWrite> batch) {
+        return Mono.defer(() -> {
+                    Set<UUID> eventIds = new LinkedHashSet<>();
+                    for (PendingWrite write : batch) {
+                        if (write.eventId() != null) {
+                            eventIds.add(write.eventId());
+                        }
+                    }
+                    return idempotencyGuard.markProcessed(eventIds)
+                            .collect(Collectors.toSet())
+                            .flatMap(recorded -> {
+                                List<PendingWrite> duplicates = new ArrayList<>();
+                                List<PendingWrite> applicable = new ArrayList<>(batch.size());
+                                Map<LedgerEntry, Long> deltas = new LinkedHashMap<>();
+                                for (PendingWrite write : batch) {
+                                    // Removing the ID lets only the first write of a newly recorded event through
+                                    if (write.eventId() != null && !recorded.remove(write.eventId())) {
+                                        duplicates.add(write);
+                                        continue;
+                                    }
+                                    deltas.merge(write.entry(), write.delta(), Math::addExact);
+                                    applicable.add(write);
+                                }
+                                return updateBalances(deltas).flatMap(refused -> {
+                                    List<AccountTransaction> transactions = new ArrayList<>(applicable.size());
+                                    List<UUID> unapplied = new ArrayList<>();
+                                    for (PendingWrite write : applicable) {
+                                        if (!refused.contains(write.entry())) {
+                                            transactions.add(write.transaction());
+                                        } else if (write.eventId() != null) {
+                                            unapplied.add(write.eventId());
+                                        }
+                                    }
+                                    return idempotencyGuard.unmarkProcessed(unapplied)
+                                            .then(transactionJournal.append(transactions))
+                                            .thenReturn(new Flushed(duplicates, refused));
+                                });
+                            })
+                            .as(transactionalOperator::transactional);
+                })
+                .doOnSuccess(flushed -> {
+                    log.debug("Ledger flushed: Writes={}, Duplicates={}, RefusedAccounts={}",
+                            batch.size(), flushed.duplicates().size(), flushed.refused().size());
+                    Set<PendingWrite> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+                    skipped.addAll(flushed.duplicates());
+                    batch.forEach(write -> {
+                        if (skipped.contains(write)) {
+                            revert(write);
+                        } else if (flushed.refused().contains(write.entry())) {
+                            revert(write);
+                            write.entry().markStale();
+                        }
+                    });
+                    release(batch);
+                    batch.forEach(write -> {
+                        if (skipped.contains(write)) {
+                            write.sink().error(new DuplicateEventException(write.eventId()));
+                        } else if (flushed.refused().contains(write.entry())) {
+                            write.sink().error(new IllegalStateException("Balance update refused for account "
+                                    + write.entry().getAccountId() + ": the persisted balance does not cover it"));
+                        } else {
+                            write.sink().success();
+                        }
+                    });
+                })
+                .then()
+                // Never let a failed batch terminate the writer
+                .onErrorResume(error -> {
+                    log.error("Ledger flush failed: Writes={}", batch.size(), error);
+                    // Nothing of the batch was persisted: take its changes back out of memory, and
+                    // reload the accounts once idle in case the database disagrees with them
+                    batch.forEach(write -> {
+                        revert(write);
+                        write.entry().markStale();
+                    });
+                    release(batch);
+                    batch.forEach(write -> write.sink().error(error));
+                    return Mono.empty();
+                });
+    }
+
+    private void release(List<PendingWrite> batch) {
+        Map<LedgerEntry, Integer> counts = new LinkedHashMap<>();
+        batch.forEach(write -> counts.merge(write.entry(), 1, Integer::sum));
+        counts.forEach(this::release);
+    }
+
+    /**
+     * @return Mono of the accounts whose update was refused because the persisted balance
+     * does not cover their change; their rows are left as they were
+     */
+    private Mono<Set<LedgerEntry>> updateBalances(Map<LedgerEntry, Long> deltas) {
+        List<Map.Entry<LedgerEntry, Long>> changes = deltas.entrySet().stream()
+                .filter(change -> change.getValue() != 0)
+                .toList();
+        if (changes.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(UPDATE_BALANCE_SQL);
+                    for (int i = 0; i < changes.size(); i++) {
+                        LedgerEntry entry = changes.get(i).getKey();
+                        statement.bind(0, Money.ofMinor(changes.get(i).getValue(), entry.getCurrency()).toBigDecimal())
+                                .bind(1, now)
+                                .bind(2, entry.getAccountId());
+                        if (i < changes.size() - 1) {
+                            statement.add();
+                        }
+                    }
+                    return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+                })
+                .collectList()
+                .map(rowsUpdated -> {
+                    Set<LedgerEntry> refused = Collections.newSetFromMap(new IdentityHashMap<>());
+                    for (int i = 0; i < changes.size(); i++) {
+                        if (i >= rowsUpdated.size() || rowsUpdated.get(i) == 0) {
+                            LedgerEntry entry = changes.get(i).getKey();
+                            log.warn("Balance update refused, the persisted balance does not cover it: "
+                                    + "AccountID={}, Change={}", entry.getAccountId(), changes.get(i).getValue());
+                            refused.add(entry);
+                        }
+                    }
+                    return refused;
+                });
+    }
+
+    private record PendingWrite(LedgerEntry entry, long delta, AccountTransaction transaction, UUID eventId,
+                                MonoSink<Void> sink) {
+    }
+
+    private record Applied(LedgerEntry entry, Money balance) {
+    }
+
+    private record Flushed(List<PendingWrite> duplicates, Set<LedgerEntry> refused) {
+    }
+
+    /**
+     * Keeps an entry for at most the configured TTL after it was loaded, never while it has
+     * pending writes, and drops it as soon as it is idle once marked stale.
+     */
+    private static final class EntryExpiry implements Expiry<UUID, LedgerEntry> {
+
+        private final long ttlNanos;
+
+        EntryExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(UUID accountId, LedgerEntry entry, long currentTime) {
+            return remaining(entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID accountId, LedgerEntry entry, long currentTime, long currentDuration) {
+            return remaining(entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID accountId, LedgerEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remaining(LedgerEntry entry, long now) {
+            if (entry.hasPendingWrites()) {
+                return Long.MAX_VALUE;
+            }
+            if (entry.isStale()) {
+                return 0;
+            }
+            return Math.max(ttlNanos - (now - entry.getLoadedAt()), 0);
+        }
+    }
+
+    /**
+     * Signals that a change was not applied because the event causing it has already been applied.
+     */
+    public static class DuplicateEventException extends Exception {
+
+        private final UUID eventId;
+
+        DuplicateEventException(UUID eventId) {
+            super("Event " + eventId + " has already been applied");
+            this.eventId = eventId;
+        }
+
+        public UUID getEventId() {
+            return eventId;
+        }
+    }
+
+    private static class QueueFullException extends Exception {
+        QueueFullException() {
+            super("Account ledger is overloaded, please retry");
+        }
+    }
+}
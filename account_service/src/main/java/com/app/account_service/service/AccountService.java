@@ -1,41 +1,71 @@
 package com.app.account_service.service;
 
 
+import com.app.account_service.dto.BulkFundResult;
 import com.app.account_service.dto.FundAccountRequest;
 import com.app.account_service.dto.FundAccountResponse;
 import com.app.account_service.entity.Account;
-import com.app.account_service.event.AccountCreationEvent;
+import com.app.account_service.metrics.FlowMetrics;
 import com.app.account_service.repository.AccountRepository;
 import com.app.account_service.shared.AccountStatus;
+import com.app.account_service.shared.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing account operations.
  * Handles account funding and balance management.
+ * Balances are read and changed through the {@link AccountLedger}.
  */
 @Service
 public class AccountService {
 
+    private static final String FUNDING_REFERENCE = "FUNDING";
+    private static final String DEDUCTION_REFERENCE = "DEDUCTION";
+
+    private final AccountLedger accountLedger;
     private final AccountRepository accountRepository;
+    private final TransactionJournal transactionJournal;
+    private final Validator validator;
+    private final FlowMetrics flowMetrics;
     private static final Logger log = LoggerFactory
             .getLogger(AccountService.class);
 
     @Value("${banking.account.currency}")
     private String accountCurrency;
 
-    public AccountService(AccountRepository accountRepository) {
+    @Value("${banking.account.bulk-chunk-size:256}")
+    private int bulkChunkSize;
+
+    @Value("${banking.account.listing-page-size:500}")
+    private int listingPageSize;
+
+    public AccountService(AccountLedger accountLedger, AccountRepository accountRepository,
+                          TransactionJournal transactionJournal, Validator validator, FlowMetrics flowMetrics) {
+        this.accountLedger = accountLedger;
         this.accountRepository = accountRepository;
+        this.transactionJournal = transactionJournal;
+        this.validator = validator;
+        this.flowMetrics = flowMetrics;
     }
 
     /**
@@ -45,18 +75,95 @@ public class AccountService {
      * @return Mono of FundAccountResponse with updated balance
      * @throws Exception if account not found or amount is invalid
      */
-    @Transactional
     public Mono<FundAccountResponse> fundAccount(FundAccountRequest request) {
         log.info("Starting account funding: AccountID={}, Amount={}",
                 request.getAccountId(), request.getAmount());
 
-        return accountRepository.findByCustomerId(request.getAccountId())
+        return accountLedger.findByCustomerId(request.getAccountId())
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("Account funding failed: Account not found - ID={}",
                             request.getAccountId());
                     return Mono.error(new Exception("Account not found"));
                 }))
-                .flatMap(account -> validateAndFundAccount(account, request.getAmount()));
+                .flatMap(account -> validateAndFundAccount(account, request.getAmount()))
+                .transform(flowMetrics.timed("fund_account"));
+    }
+
+    /**
+     * Fund many accounts from a stream of requests.
+     * <p>
+     * Requests are read in chunks of banking.account.bulk-chunk-size, and a chunk is only
+     * requested from the input once the previous one is done, so memory stays bounded for
+     * any stream length. Within a chunk every account is resolved once and all its credits
+     * are queued together, so they are persisted by the {@link AccountLedger} in the same
+     * batch transactions. An invalid or failed request only fails its own result.
+     *
+     * @param requests the funding requests
+     * @return Flux of one BulkFundResult per request, in input order
+     */
+    public Flux<BulkFundResult> fundAccounts(Flux<FundAccountRequest> requests) {
+        return requests.index()
+                .buffer(bulkChunkSize)
+                .concatMap(this::fundChunk, 1);
+    }
+
+    private Flux<BulkFundResult> fundChunk(List<Tuple2<Long, FundAccountRequest>> chunk) {
+        List<BulkFundResult> rejected = new ArrayList<>();
+        Map<UUID, List<Tuple2<Long, FundAccountRequest>>> byAccount = new LinkedHashMap<>();
+        for (Tuple2<Long, FundAccountRequest> item : chunk) {
+            String violations = violations(item.getT2());
+            if (violations != null) {
+                rejected.add(failure(item, violations));
+            } else {
+                byAccount.computeIfAbsent(item.getT2().getAccountId(), id -> new ArrayList<>()).add(item);
+            }
+        }
+
+        Flux<BulkFundResult> funded = Flux.fromIterable(byAccount.entrySet())
+                .flatMap(group -> accountLedger.findByCustomerId(group.getKey())
+                        .map(account -> Flux.fromIterable(group.getValue())
+                                .flatMap(item -> validateAndFundAccount(account, item.getT2().getAmount())
+                                        .map(response -> success(item, response))
+                                        .onErrorResume(error -> Mono.just(failure(item, error.getMessage())))))
+                        .defaultIfEmpty(Flux.fromIterable(group.getValue())
+                                .map(item -> failure(item, "Account not found")))
+                        .flatMapMany(results -> results)
+                        .onErrorResume(error -> Flux.fromIterable(group.getValue())
+                                .map(item -> failure(item, error.getMessage()))));
+
+        return Flux.fromIterable(rejected)
+                .concatWith(funded)
+                .sort(Comparator.comparingLong(BulkFundResult::getIndex));
+    }
+
+    private String violations(FundAccountRequest request) {
+        Set<ConstraintViolation<FundAccountRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+
+    private BulkFundResult success(Tuple2<Long, FundAccountRequest> item, FundAccountResponse response) {
+        return BulkFundResult.builder()
+                .index(item.getT1())
+                .accountId(item.getT2().getAccountId())
+                .amount(item.getT2().getAmount())
+                .success(true)
+                .newBalance(response.getNewBalance())
+                .build();
+    }
+
+    private BulkFundResult failure(Tuple2<Long, FundAccountRequest> item, String error) {
+        return BulkFundResult.builder()
+                .index(item.getT1())
+                .accountId(item.getT2().getAccountId())
+                .amount(item.getT2().getAmount())
+                .success(false)
+                .error(error)
+                .build();
     }
 
     /**
@@ -66,52 +173,75 @@ public class AccountService {
      * @param amount  the amount to add
      * @return Mono of FundAccountResponse
      */
-    private Mono<FundAccountResponse> validateAndFundAccount(Account account, BigDecimal amount) {
+    private Mono<FundAccountResponse> validateAndFundAccount(LedgerEntry account, BigDecimal amount) {
         // Validate amount is positive
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount.signum() <= 0) {
             log.warn("Invalid funding amount: Amount={}, AccountID={}",
-                    amount, account.getId());
+                    amount, account.getAccountId());
             return Mono.error(new Exception("Amount must be greater than zero"));
         }
 
         // Validate account is active
         if (account.getStatus() != AccountStatus.ACTIVE.getValue()) {
             log.warn("Funding failed: Account is not active - AccountID={}, Status={}",
-                    account.getId(), account.getStatus());
+                    account.getAccountId(), account.getStatus());
             return Mono.error(new Exception(
                     "Account is not active. Cannot fund inactive or frozen accounts."));
         }
 
-        // Calculate new balance
-        BigDecimal currentBalance = account.getBalance();
-        BigDecimal newBalance = currentBalance.add(amount);
-
-        log.debug("Updating account balance: AccountID={}, CurrentBalance={}, Amount={}, NewBalance={}",
-                account.getId(), currentBalance, amount, newBalance);
-
-        // Update account
-        account.setBalance(newBalance);
-        account.setUpdatedAt(LocalDateTime.now());
-
-        return accountRepository.save(account)
-                .doOnSuccess(savedAccount ->
+        Money funding = Money.of(amount, account.getCurrency());
+        return accountLedger.credit(account, funding, FUNDING_REFERENCE)
+                .doOnSuccess(newBalance ->
                         log.info("Account funded successfully: AccountID={}, PreviousBalance={}, FundedAmount={}, NewBalance={}",
-                                savedAccount.getId(), currentBalance, amount, savedAccount.getBalance()))
+                                account.getAccountId(), newBalance.minus(funding), funding, newBalance))
                 .doOnError(error ->
                         log.error("Error funding account: AccountID={}, Amount={}",
-                                account.getId(), amount, error))
-                .map(savedAccount -> {
+                                account.getAccountId(), amount, error))
+                .map(newBalance -> {
                     FundAccountResponse response = new FundAccountResponse();
-                    response.setAccountId(savedAccount.getId());
-                    response.setAccountNumber(savedAccount.getAccountNumber());
-                    response.setNewBalance(savedAccount.getBalance());
-                    response.setCurrency(savedAccount.getCurrency());
+                    response.setAccountId(account.getAccountId());
+                    response.setAccountNumber(account.getAccountNumber());
+                    response.setNewBalance(newBalance.toBigDecimal());
+                    response.setCurrency(account.getCurrency());
                     response.setMessage(String.format("Account funded successfully with %s %s. New balance: %s %s",
-                            accountCurrency, amount, accountCurrency, savedAccount.getBalance()));
+                            accountCurrency, funding.toBigDecimal(), accountCurrency, newBalance.toBigDecimal()));
                     return response;
                 });
     }
 
+    /**
+     * Stream accounts in account number order, e.g. for a back-office export.
+     * <p>
+     * Accounts are read with keyset pagination in pages of banking.account.listing-page-size:
+     * each page continues after the last account number of the previous one, and the next
+     * page is only queried once the previous one has been consumed, so memory stays bounded
+     * by one page however many accounts are exported. Balances are as last persisted by the
+     * {@link AccountLedger}.
+     *
+     * @param status only accounts with this status, or null for all
+     * @param after  continue after this account number, or null to start at the first account
+     * @param limit  the maximum number of accounts to return
+     * @return Flux of accounts
+     */
+    public Flux<Account> streamAccounts(Integer status, Long after, long limit) {
+        return accountPages(status, after != null ? after : Long.MIN_VALUE, limit);
+    }
+
+    private Flux<Account> accountPages(Integer status, long after, long remaining) {
+        int size = (int) Math.min(listingPageSize, remaining);
+        Flux<Account> page = status == null
+                ? accountRepository.findPageAfter(after, size)
+                : accountRepository.findPageByStatusAfter(status, after, size);
+        return page.collectList().flatMapMany(accounts -> {
+            Flux<Account> rows = Flux.fromIterable(accounts);
+            if (accounts.size() < size || accounts.size() == remaining) {
+                return rows;
+            }
+            long last = accounts.get(accounts.size() - 1).getAccountNumber();
+            return rows.concatWith(Flux.defer(() -> accountPages(status, last, remaining - accounts.size())));
+        });
+    }
+
     /**
      * Get account by ID.
      *
@@ -121,7 +251,8 @@ public class AccountService {
     public Mono<Account> getAccountById(Long accountId) {
         log.debug("Fetching account by ID: {}", accountId);
 
-        return accountRepository.findByAccountNumber(accountId)
+        return accountLedger.findByAccountNumber(accountId)
+                .map(LedgerEntry::toAccount)
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("Account not found: ID={}", accountId);
                     return Mono.error(new Exception("Account not found"));
@@ -140,7 +271,8 @@ public class AccountService {
     public Mono<Account> getAccountByCustomerId(UUID customerId) {
         log.debug("Fetching account by customer ID: {}", customerId);
 
-        return accountRepository.findByCustomerId(customerId)
+        return accountLedger.findByCustomerId(customerId)
+                .map(LedgerEntry::toAccount)
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("Account not found for customer: CustomerID={}", customerId);
                     return Mono.error(new Exception("Account not found for customer"));
@@ -150,6 +282,19 @@ public class AccountService {
                                 customerId, account.getId(), account.getBalance()));
     }
 
+    /**
+     * Derive the balance of a customer's account from the transaction journal.
+     * Used to reconcile the stored balance against its history.
+     *
+     * @param customerId the customer ID
+     * @return Mono of the journal balance
+     */
+    public Mono<BigDecimal> getJournalBalance(UUID customerId) {
+        return accountLedger.findByCustomerId(customerId)
+                .switchIfEmpty(Mono.error(new Exception("Account not found for customer")))
+                .flatMap(account -> transactionJournal.deriveBalance(account.getAccountId()));
+    }
+
     /**
      * Check if account has sufficient balance.
      *
@@ -160,9 +305,9 @@ public class AccountService {
     public Mono<Boolean> hasSufficientBalance(Long accountId, BigDecimal requiredAmount) {
         log.debug("Checking sufficient balance: AccountID={}, RequiredAmount={}", accountId, requiredAmount);
 
-        return accountRepository.findByAccountNumber(accountId)
+        return accountLedger.findByAccountNumber(accountId)
                 .map(account -> {
-                    boolean sufficient = account.getBalance().compareTo(requiredAmount) >= 0;
+                    boolean sufficient = account.covers(Money.of(requiredAmount, account.getCurrency()));
                     log.debug("Balance check result: AccountID={}, Balance={}, Required={}, Sufficient={}",
                             accountId, account.getBalance(), requiredAmount, sufficient);
                     return sufficient;
@@ -178,27 +323,19 @@ public class AccountService {
      * @param amount    the amount to deduct
      * @return Mono of updated Account
      */
-    @Transactional
     public Mono<Account> deductFromAccount(Long accountId, BigDecimal amount) {
         log.info("Deducting from account: AccountID={}, Amount={}", accountId, amount);
 
-        return accountRepository.findByAccountNumber(accountId)
+        return accountLedger.findByAccountNumber(accountId)
                 .switchIfEmpty(Mono.error(new Exception("Account not found")))
-                .flatMap(account -> {
-                    if (account.getBalance().compareTo(amount) < 0) {
-                        log.warn("Insufficient balance for deduction: AccountID={}, Balance={}, Requested={}",
-                                accountId, account.getBalance(), amount);
-                        return Mono.error(new Exception("Insufficient balance"));
-                    }
-
-                    BigDecimal newBalance = account.getBalance().subtract(amount);
-                    account.setBalance(newBalance);
-                    account.setUpdatedAt(LocalDateTime.now());
-
-                    return accountRepository.save(account)
-                            .doOnSuccess(saved ->
-                                    log.info("Amount deducted successfully: AccountID={}, Amount={}, NewBalance={}",
-                                            saved.getId(), amount, saved.getBalance()));
-                });
+                .flatMap(account -> accountLedger.debit(account, Money.of(amount, account.getCurrency()), DEDUCTION_REFERENCE)
+                        .doOnSuccess(newBalance ->
+                                log.info("Amount deducted successfully: AccountID={}, Amount={}, NewBalance={}",
+                                        account.getAccountId(), amount, newBalance))
+                        .map(newBalance -> {
+                            Account updated = account.toAccount();
+                            updated.setBalance(newBalance.toBigDecimal());
+                            return updated;
+                        }));
     }
 }
@@ -0,0 +1,54 @@
+package com.app.account_service.service;
+
+import com.app.account_service.config.LedgerProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job that snapshots account balances from the transaction journal every
+ * banking.account.ledger.snapshot-interval, so deriving a balance from the journal only
+ * has to sum the entries written since the latest snapshot. Several instances may run
+ * it at once; a snapshot that already exists is not written again.
+ */
+@Component
+public class BalanceSnapshotter {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(BalanceSnapshotter.class);
+
+    private final TransactionJournal transactionJournal;
+    private final LedgerProperties properties;
+
+    private Disposable snapshots;
+
+    public BalanceSnapshotter(TransactionJournal transactionJournal, LedgerProperties properties) {
+        this.transactionJournal = transactionJournal;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        snapshots = Flux.interval(properties.getSnapshotInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> transactionJournal.snapshot(LocalDateTime.now().minus(properties.getSnapshotDelay()))
+                        .doOnNext(written -> log.debug("Snapshotted {} account balances", written))
+                        .onErrorResume(error -> {
+                            log.warn("Balance snapshot failed, retrying on next run: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        snapshots.dispose();
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.account_service.service;
+
+import com.app.account_service.config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Tracks which events have already been applied, so redelivered events are not applied twice.
+ * <p>
+ * Processed event IDs are stored in the processed_events table by the {@link AccountLedger},
+ * in the same transaction as the balance change they caused; the insert itself tells
+ * whether an event was applied before. A bounded, expiring in-memory cache of events known
+ * to be applied lets redeliveries be skipped before they reach the ledger, without a
+ * database round trip.
+ */
+@Component
+public class IdempotencyGuard {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO processed_events (event_id) VALUES ";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (event_id) DO NOTHING RETURNING event_id";
+    private static final String DELETE_PREFIX =
+            "DELETE FROM processed_events WHERE event_id IN (";
+
+    private final DatabaseClient databaseClient;
+    private final Cache<UUID, Boolean> processed;
+
+    public IdempotencyGuard(DatabaseClient databaseClient, IdempotencyProperties properties) {
+        this.databaseClient = databaseClient;
+        this.processed = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    /**
+     * Check whether an event is known to have been applied. Only the cache is consulted:
+     * an event applied elsewhere or before the cache entry expired is caught when the
+     * ledger records its ID.
+     *
+     * @param eventId the event ID
+     * @return true if the event was processed before
+     */
+    public boolean isProcessed(UUID eventId) {
+        return processed.getIfPresent(eventId) != null;
+    }
+
+    /**
+     * Remember an event as processed once its changes are committed.
+     *
+     * @param eventId the event ID
+     */
+    public void remember(UUID eventId) {
+        processed.put(eventId, Boolean.TRUE);
+    }
+
+    /**
+     * Insert processed event IDs and report which of them are new. An ID that is already
+     * present, committed by an earlier or a concurrent transaction, is not returned: the
+     * change it belongs to has been applied and must not be applied again.
+     * Runs inside the caller's transaction; the IDs must be distinct.
+     *
+     * @param eventIds the event IDs
+     * @return Flux of the IDs that were inserted
+     */
+    Flux<UUID> markProcessed(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Flux.empty();
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 1; i <= eventIds.size(); i++) {
+            sql.append(i == 1 ? "($" : ", ($").append(i).append(')');
+        }
+        sql.append(INSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        Iterator<UUID> iterator = eventIds.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            spec = spec.bind(i, iterator.next());
+        }
+        return spec.map(row -> row.get(0, UUID.class)).all();
+    }
+
+    /**
+     * Remove event IDs inserted earlier in the caller's transaction whose change could not
+     * be applied after all, so the event is applied when it is delivered again.
+     *
+     * @param eventIds the event IDs
+     * @return Mono that completes once the IDs are removed
+     */
+    Mono<Void> unmarkProcessed(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Mono.empty();
+        }
+        StringBuilder sql = new StringBuilder(DELETE_PREFIX);
+        for (int i = 1; i <= eventIds.size(); i++) {
+            sql.append(i == 1 ? "$" : ", $").append(i);
+        }
+        sql.append(')');
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        Iterator<UUID> iterator = eventIds.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            spec = spec.bind(i, iterator.next());
+        }
+        return spec.fetch().rowsUpdated().then();
+    }
+}
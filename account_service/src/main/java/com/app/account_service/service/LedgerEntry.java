@@ -0,0 +1,163 @@
+package com.app.account_service.service;
+
+import com.app.account_service.entity.Account;
+import com.app.account_service.shared.Money;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory balance state of a single account held by the {@link AccountLedger}.
+ * The account attributes are immutable; only the balance changes. It is held as a
+ * long number of minor units and changed atomically, so concurrent credits and debits
+ * never lose updates and the hot path allocates no intermediate decimals.
+ * <p>
+ * The entry also counts the balance changes that are queued but not yet persisted;
+ * while there are any, the ledger keeps the entry in memory.
+ */
+public class LedgerEntry {
+
+    private final UUID accountId;
+    private final UUID customerId;
+    private final Long accountNumber;
+    private final String currency;
+    private final int status;
+    private final LocalDateTime createdAt;
+    private final AtomicLong balance;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final long loadedAt = System.nanoTime();
+    private volatile boolean stale;
+
+    LedgerEntry(Account account) {
+        this.accountId = account.getId();
+        this.customerId = account.getCustomerId();
+        this.accountNumber = account.getAccountNumber();
+        this.currency = account.getCurrency();
+        this.status = account.getStatus();
+        this.createdAt = account.getCreatedAt();
+        this.balance = new AtomicLong(Money.of(account.getBalance(), currency).getMinorUnits());
+    }
+
+    /**
+     * Add the given amount to the balance.
+     *
+     * @param amount the amount to add in the account currency, may be negative to revert a credit
+     * @return the balance after the change
+     */
+    Money credit(Money amount) {
+        long minorUnits = minorUnitsOf(amount);
+        return Money.ofMinor(balance.accumulateAndGet(minorUnits, Math::addExact), currency);
+    }
+
+    /**
+     * Subtract the given amount from the balance if it is covered.
+     *
+     * @param amount the amount to subtract in the account currency
+     * @return the balance after the change, or null if the balance is insufficient
+     */
+    Money tryDebit(Money amount) {
+        long minorUnits = minorUnitsOf(amount);
+        while (true) {
+            long current = balance.get();
+            if (current < minorUnits) {
+                return null;
+            }
+            long next = current - minorUnits;
+            if (balance.compareAndSet(current, next)) {
+                return Money.ofMinor(next, currency);
+            }
+        }
+    }
+
+    /**
+     * Check whether the current balance covers the given amount.
+     *
+     * @param amount the amount in the account currency
+     * @return true if the balance is at least the amount
+     */
+    public boolean covers(Money amount) {
+        return balance.get() >= minorUnitsOf(amount);
+    }
+
+    void beginWrite() {
+        pendingWrites.incrementAndGet();
+    }
+
+    void endWrites(int count) {
+        pendingWrites.addAndGet(-count);
+    }
+
+    boolean hasPendingWrites() {
+        return pendingWrites.get() > 0;
+    }
+
+    /**
+     * @return System.nanoTime() at which the balance was loaded from the database
+     */
+    long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Mark the balance as possibly out of step with the database, so the ledger
+     * reloads it once no writes are pending.
+     */
+    void markStale() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    private long minorUnitsOf(Money amount) {
+        if (!currency.equals(amount.getCurrency())) {
+            throw new IllegalArgumentException("Currency mismatch: account " + accountId + " holds " + currency
+                    + ", amount is " + amount.getCurrency());
+        }
+        return amount.getMinorUnits();
+    }
+
+    /**
+     * Snapshot of this entry as an {@link Account} entity.
+     *
+     * @return a detached Account carrying the current balance
+     */
+    public Account toAccount() {
+        Account account = new Account();
+        account.setId(accountId);
+        account.setCustomerId(customerId);
+        account.setAccountNumber(accountNumber);
+        account.setCurrency(currency);
+        account.setStatus(status);
+        account.setBalance(getBalance().toBigDecimal());
+        account.setCreatedAt(createdAt);
+        return account;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public Long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Money getBalance() {
+        return Money.ofMinor(balance.get(), currency);
+    }
+}
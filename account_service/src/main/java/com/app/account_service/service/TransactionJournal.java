@@ -0,0 +1,124 @@
+package com.app.account_service.service;
+
+import com.app.account_service.entity.AccountTransaction;
+import com.app.account_service.repository.AccountTransactionRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writer for the append-only account_transactions journal.
+ * Entries are inserted with multi-row INSERT statements; the {@link AccountLedger}
+ * hands over every batch it flushes so the journal rows and the balance updates
+ * commit in the same transaction.
+ * <p>
+ * Every account starts with an OPENING entry, so its balance can be derived from the
+ * journal alone. Balance snapshots checkpoint the journal, so a derivation only sums
+ * the entries written since the latest snapshot of the account.
+ */
+@Component
+public class TransactionJournal {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO account_transactions (account_id, type, amount, reference, created_at) VALUES ";
+    private static final int COLUMNS = 5;
+
+    // Stay well below the 65535 bind parameter limit of a PostgreSQL statement
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    // Snapshots every account with entries after the highest entry any snapshot covers, from its
+    // latest snapshot plus those entries. Entries newer than the cutoff wait for the next run, so
+    // rows of transactions still in flight, which may hold lower IDs, are not skipped.
+    private static final String SNAPSHOT_SQL =
+            "WITH previous AS (SELECT COALESCE(MAX(last_transaction_id), 0) AS id FROM account_balance_snapshots), " +
+            "bound AS (SELECT MAX(id) AS id FROM account_transactions " +
+            "WHERE id > (SELECT id FROM previous) AND created_at < $1), " +
+            "changes AS (SELECT account_id, MAX(id) AS last_transaction_id, " +
+            "SUM(CASE WHEN type = 'DEBIT' THEN -amount ELSE amount END) AS delta FROM account_transactions " +
+            "WHERE id > (SELECT id FROM previous) AND id <= (SELECT id FROM bound) GROUP BY account_id) " +
+            "INSERT INTO account_balance_snapshots (account_id, last_transaction_id, balance, created_at) " +
+            "SELECT c.account_id, c.last_transaction_id, COALESCE(s.balance, 0) + c.delta, $2 FROM changes c " +
+            "LEFT JOIN LATERAL (SELECT balance FROM account_balance_snapshots WHERE account_id = c.account_id " +
+            "ORDER BY last_transaction_id DESC LIMIT 1) s ON true " +
+            "ON CONFLICT (account_id, last_transaction_id) DO NOTHING";
+
+    private final DatabaseClient databaseClient;
+    private final AccountTransactionRepository transactionRepository;
+
+    public TransactionJournal(DatabaseClient databaseClient, AccountTransactionRepository transactionRepository) {
+        this.databaseClient = databaseClient;
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * Append entries to the journal.
+     *
+     * @param transactions the entries to insert, in order
+     * @return Mono of the number of inserted rows
+     */
+    public Mono<Long> append(List<AccountTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Mono.just(0L);
+        }
+        int chunks = (transactions.size() + MAX_ROWS_PER_STATEMENT - 1) / MAX_ROWS_PER_STATEMENT;
+        return Flux.range(0, chunks)
+                .concatMap(chunk -> insert(transactions.subList(chunk * MAX_ROWS_PER_STATEMENT,
+                        Math.min(transactions.size(), (chunk + 1) * MAX_ROWS_PER_STATEMENT))))
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Derive the balance of an account from its latest snapshot and the journal entries after it.
+     *
+     * @param accountId the account ID
+     * @return Mono of the derived balance
+     */
+    public Mono<BigDecimal> deriveBalance(UUID accountId) {
+        return transactionRepository.deriveBalanceByAccountId(accountId);
+    }
+
+    /**
+     * Snapshot the balance of every account with journal entries since the previous snapshot.
+     *
+     * @param cutoff only entries created before this are included
+     * @return Mono of the number of snapshots written
+     */
+    public Mono<Long> snapshot(LocalDateTime cutoff) {
+        return databaseClient.sql(SNAPSHOT_SQL)
+                .bind(0, cutoff)
+                .bind(1, LocalDateTime.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> insert(List<AccountTransaction> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int row = 0; row < rows.size(); row++) {
+            int base = row * COLUMNS;
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 1; column <= COLUMNS; column++) {
+                sql.append('$').append(base + column).append(column < COLUMNS ? ", " : ")");
+            }
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int row = 0; row < rows.size(); row++) {
+            AccountTransaction transaction = rows.get(row);
+            int base = row * COLUMNS;
+            spec = spec.bind(base, transaction.getAccountId())
+                    .bind(base + 1, transaction.getType())
+                    .bind(base + 2, transaction.getAmount())
+                    .bind(base + 4, transaction.getCreatedAt());
+            spec = transaction.getReference() == null
+                    ? spec.bindNull(base + 3, String.class)
+                    : spec.bind(base + 3, transaction.getReference());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,7 @@
+package com.app.account_service.shared;
+
+public enum TransactionType {
+    OPENING,
+    CREDIT,
+    DEBIT
+}
@@ -0,0 +1,108 @@
+package com.app.account_service.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionedExecutorTest {
+
+    private PartitionedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.dispose();
+    }
+
+    @Test
+    void tasksOfOneKeyRunInSubmissionOrder() {
+        executor = new PartitionedExecutor(4, 256);
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+
+        Flux.range(0, 100)
+                .flatMap(i -> executor.submit("account-1", Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(3)))
+                        .doOnNext(ignored -> completed.add(i))))
+                .blockLast(Duration.ofSeconds(10));
+
+        assertThat(completed).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+    }
+
+    @Test
+    void aBlockedLaneDoesNotHoldUpOtherLanes() {
+        executor = new PartitionedExecutor(2, 16);
+        Sinks.One<String> release = Sinks.one();
+
+        // Integer keys 0 and 1 hash to different lanes
+        Mono<String> blocked = executor.submit(0, release.asMono());
+        blocked.subscribe();
+
+        StepVerifier.create(executor.submit(1, Mono.just("done")))
+                .expectNext("done")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        release.tryEmitValue("released");
+    }
+
+    @Test
+    void aFailedTaskOnlyFailsItself() {
+        executor = new PartitionedExecutor(1, 16);
+
+        StepVerifier.create(executor.submit("account-1", Mono.error(new IllegalStateException("boom"))))
+                .expectErrorMessage("boom")
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(executor.submit("account-1", Mono.just(1)))
+                .expectNext(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void fullLaneRejectsWorkAndKeepsRunning() throws InterruptedException {
+        executor = new PartitionedExecutor(1, 1);
+        Sinks.One<Integer> release = Sinks.one();
+        executor.submit("account-1", release.asMono()).subscribe();
+
+        int submissions = 200;
+        CountDownLatch done = new CountDownLatch(submissions);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < submissions; i++) {
+            executor.submit("account-1", Mono.just(i)).subscribe(
+                    value -> {
+                        completed.incrementAndGet();
+                        done.countDown();
+                    },
+                    error -> {
+                        if (error instanceof RejectedExecutionException) {
+                            rejected.incrementAndGet();
+                        }
+                        done.countDown();
+                    });
+        }
+        release.tryEmitValue(-1);
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(rejected.get()).isPositive();
+        assertThat(completed.get() + rejected.get()).isEqualTo(submissions);
+
+        StepVerifier.create(executor.submit("account-1", Mono.just("after")))
+                .expectNext("after")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,262 @@
+package com.app.account_service.service;
+
+import com.app.account_service.config.LedgerProperties;
+import com.app.account_service.entity.Account;
+import com.app.account_service.repository.AccountRepository;
+import com.app.account_service.shared.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountLedgerTest {
+
+    private static final String CURRENCY = "KES";
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final TransactionJournal transactionJournal = mock(TransactionJournal.class);
+    private final IdempotencyGuard idempotencyGuard = mock(IdempotencyGuard.class);
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+    private final LedgerProperties properties = new LedgerProperties();
+    private final Account account = new Account();
+
+    private AccountLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        account.setId(UUID.randomUUID());
+        account.setCustomerId(UUID.randomUUID());
+        account.setAccountNumber(1_000_001L);
+        account.setCurrency(CURRENCY);
+        account.setBalance(new BigDecimal("100.00"));
+        account.setStatus(1);
+        account.setCreatedAt(LocalDateTime.now());
+
+        properties.setBatchSize(16);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        properties.setQueueCapacity(8);
+
+        when(accountRepository.findByCustomerId(account.getCustomerId())).thenReturn(Mono.just(account));
+        when(transactionJournal.append(anyList())).thenReturn(Mono.just(1L));
+        // Behaves like the processed_events table: only IDs not seen before are inserted
+        Set<UUID> processedEvents = ConcurrentHashMap.newKeySet();
+        when(idempotencyGuard.markProcessed(anyCollection())).thenAnswer(invocation ->
+                Flux.fromIterable(invocation.<Collection<UUID>>getArgument(0)).filter(processedEvents::add));
+        when(idempotencyGuard.unmarkProcessed(anyCollection())).thenAnswer(invocation -> {
+            processedEvents.removeAll(invocation.<Collection<UUID>>getArgument(0));
+            return Mono.empty();
+        });
+        when(databaseClient.inConnectionMany(any())).thenAnswer(invocation -> Flux.just(1L));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ledger = new AccountLedger(accountRepository, databaseClient, transactionJournal, idempotencyGuard,
+                transactionalOperator, properties);
+        ledger.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledger.stop();
+    }
+
+    private void restartLedger() throws InterruptedException {
+        ledger.stop();
+        ledger = new AccountLedger(accountRepository, databaseClient, transactionJournal, idempotencyGuard,
+                transactionalOperator, properties);
+        ledger.start();
+    }
+
+    @Test
+    void creditCompletesOncePersisted() {
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+
+        StepVerifier.create(ledger.credit(entry, money("10.00"), "FUNDING"))
+                .expectNext(money("110.00"))
+                .verifyComplete();
+
+        verify(transactionJournal).append(anyList());
+        assertThat(entry.hasPendingWrites()).isFalse();
+    }
+
+    @Test
+    void repeatedEventIsCreditedOnce() {
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+        UUID eventId = UUID.randomUUID();
+
+        List<Signal<Money>> outcomes = Flux.merge(
+                        ledger.credit(entry, money("10.00"), "LOAN", eventId).materialize(),
+                        ledger.credit(entry, money("10.00"), "LOAN", eventId).materialize())
+                .filter(signal -> !signal.isOnComplete())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(outcomes).hasSize(2);
+        assertThat(outcomes).filteredOn(Signal::isOnNext).hasSize(1);
+        assertThat(outcomes).filteredOn(Signal::isOnError)
+                .singleElement()
+                .satisfies(signal -> assertThat(signal.getThrowable())
+                        .isInstanceOf(AccountLedger.DuplicateEventException.class));
+        assertThat(entry.getBalance()).isEqualTo(money("110.00"));
+
+        StepVerifier.create(ledger.credit(entry, money("10.00"), "LOAN", eventId))
+                .expectError(AccountLedger.DuplicateEventException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(entry.getBalance()).isEqualTo(money("110.00"));
+        assertThat(entry.hasPendingWrites()).isFalse();
+    }
+
+    @Test
+    void uncoveredDebitIsRejectedWithoutWriting() {
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+
+        StepVerifier.create(ledger.debit(entry, money("100.01"), "DEDUCTION"))
+                .expectErrorMessage("Insufficient balance")
+                .verify();
+
+        assertThat(entry.getBalance()).isEqualTo(money("100.00"));
+        verify(transactionJournal, never()).append(anyList());
+    }
+
+    @Test
+    void failedFlushRevertsTheBalanceAndReloadsTheAccount() {
+        when(transactionJournal.append(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("database unavailable")))
+                .thenReturn(Mono.just(1L));
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+
+        StepVerifier.create(ledger.credit(entry, money("10.00"), "FUNDING"))
+                .expectErrorMessage("database unavailable")
+                .verify();
+        assertThat(entry.getBalance()).isEqualTo(money("100.00"));
+
+        // The writer survives the failure and the account is read again from the database
+        LedgerEntry reloaded = ledger.findByCustomerId(account.getCustomerId()).block();
+        assertThat(reloaded).isNotSameAs(entry);
+        StepVerifier.create(ledger.credit(reloaded, money("10.00"), "FUNDING"))
+                .expectNext(money("110.00"))
+                .verifyComplete();
+        verify(accountRepository, times(2)).findByCustomerId(account.getCustomerId());
+    }
+
+    @Test
+    void refusedBalanceUpdateFailsTheWrite() {
+        when(databaseClient.inConnectionMany(any())).thenAnswer(invocation -> Flux.just(0L));
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+
+        StepVerifier.create(ledger.debit(entry, money("60.00"), "DEDUCTION"))
+                .expectErrorSatisfies(error -> assertThat(error).hasMessageContaining("refused"))
+                .verify();
+
+        assertThat(entry.getBalance()).isEqualTo(money("100.00"));
+    }
+
+    @Test
+    void refusedBalanceUpdateOnlyFailsTheWritesOfThatAccount() throws InterruptedException {
+        Account other = new Account();
+        other.setId(UUID.randomUUID());
+        other.setCustomerId(UUID.randomUUID());
+        other.setAccountNumber(1_000_002L);
+        other.setCurrency(CURRENCY);
+        other.setBalance(new BigDecimal("100.00"));
+        other.setStatus(1);
+        other.setCreatedAt(LocalDateTime.now());
+        when(accountRepository.findByCustomerId(other.getCustomerId())).thenReturn(Mono.just(other));
+        // Collect both writes into one batch, then refuse the first account's row only
+        properties.setFlushInterval(Duration.ofMillis(200));
+        when(databaseClient.inConnectionMany(any())).thenAnswer(invocation -> Flux.just(0L, 1L));
+        restartLedger();
+        LedgerEntry refused = ledger.findByCustomerId(account.getCustomerId()).block();
+        LedgerEntry applied = ledger.findByCustomerId(other.getCustomerId()).block();
+        UUID eventId = UUID.randomUUID();
+
+        List<Signal<Money>> outcomes = Flux.merge(
+                        ledger.debit(refused, money("60.00"), "DEDUCTION").materialize(),
+                        ledger.credit(applied, money("10.00"), "LOAN", eventId).materialize())
+                .filter(signal -> !signal.isOnComplete())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(outcomes).hasSize(2);
+        assertThat(outcomes).filteredOn(Signal::isOnError)
+                .singleElement()
+                .satisfies(signal -> assertThat(signal.getThrowable()).hasMessageContaining("refused"));
+        assertThat(outcomes).filteredOn(Signal::isOnNext)
+                .singleElement()
+                .satisfies(signal -> assertThat(signal.get()).isEqualTo(money("110.00")));
+        assertThat(refused.getBalance()).isEqualTo(money("100.00"));
+        assertThat(refused.isStale()).isTrue();
+        assertThat(applied.getBalance()).isEqualTo(money("110.00"));
+        assertThat(applied.isStale()).isFalse();
+        verify(transactionJournal).append(argThat(transactions -> transactions.size() == 1
+                && transactions.get(0).getAccountId().equals(other.getId())));
+    }
+
+    @Test
+    void fullQueueRejectsWritesWithoutStoppingTheLedger() throws InterruptedException {
+        Sinks.One<Long> flushed = Sinks.one();
+        when(transactionJournal.append(anyList())).thenReturn(flushed.asMono());
+        LedgerEntry entry = ledger.findByCustomerId(account.getCustomerId()).block();
+
+        int writes = 2_000;
+        CountDownLatch done = new CountDownLatch(writes);
+        AtomicInteger accepted = new AtomicInteger();
+        ConcurrentHashMap<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+        for (int i = 0; i < writes; i++) {
+            ledger.credit(entry, money("1.00"), "FUNDING").subscribe(
+                    balance -> {
+                        accepted.incrementAndGet();
+                        done.countDown();
+                    },
+                    error -> {
+                        errors.computeIfAbsent(error.getMessage(), message -> new AtomicInteger()).incrementAndGet();
+                        done.countDown();
+                    });
+        }
+        flushed.tryEmitValue(1L);
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(errors).containsOnlyKeys("Account ledger is overloaded, please retry");
+        assertThat(accepted.get()).isPositive();
+        // Rejected credits are taken back out of the balance
+        assertThat(entry.getBalance()).isEqualTo(money("100.00").plus(Money.ofMinor(accepted.get() * 100L, CURRENCY)));
+
+        StepVerifier.create(ledger.credit(entry, money("1.00"), "FUNDING"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount), CURRENCY);
+    }
+}
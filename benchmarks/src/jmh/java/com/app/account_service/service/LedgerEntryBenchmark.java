@@ -0,0 +1,79 @@
+package com.app.account_service.service;
+
+import com.app.account_service.entity.Account;
+import com.app.account_service.shared.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Balance arithmetic of the account ledger: converting a request amount to {@link Money},
+ * crediting and debiting a {@link LedgerEntry}, and crediting one account from several threads.
+ * <p>
+ * Credits and debits of the same amount alternate so the balance stays bounded across iterations.
+ */
+@State(Scope.Group)
+public class LedgerEntryBenchmark {
+
+    private static final String CURRENCY = "KES";
+
+    private final BigDecimal requestAmount = new BigDecimal("1250.50");
+    private final Money amount = Money.of(requestAmount, CURRENCY);
+
+    private LedgerEntry entry;
+
+    @Setup
+    public void setUp() {
+        Account account = new Account();
+        account.setId(UUID.randomUUID());
+        account.setCustomerId(UUID.randomUUID());
+        account.setAccountNumber(1_000_001L);
+        account.setCurrency(CURRENCY);
+        account.setBalance(new BigDecimal("1000000.00"));
+        account.setStatus(1);
+        account.setCreatedAt(LocalDateTime.now());
+        entry = new LedgerEntry(account);
+    }
+
+    @Benchmark
+    public Money toMoney() {
+        return Money.of(requestAmount, CURRENCY);
+    }
+
+    @Benchmark
+    public Money creditThenDebit() {
+        entry.credit(amount);
+        return entry.tryDebit(amount);
+    }
+
+    @Benchmark
+    public boolean covers() {
+        return entry.covers(amount);
+    }
+
+    @Benchmark
+    public BigDecimal snapshotBalance() {
+        return entry.getBalance().toBigDecimal();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public Money contendedCredit() {
+        return entry.credit(amount);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public Money contendedDebit() {
+        return entry.tryDebit(amount);
+    }
+}
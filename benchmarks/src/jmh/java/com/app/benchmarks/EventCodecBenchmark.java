@@ -0,0 +1,74 @@
+package com.app.benchmarks;
+
+import com.app.account_service.dto.FundAccountRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Jackson (de)serialization of the payloads on the funding path: the loan approved event
+ * as written by the loan service and read by the account service, and the fund request body.
+ * The mapper is configured like the AMQP message converter, with unknown properties ignored.
+ */
+@State(Scope.Benchmark)
+public class EventCodecBenchmark {
+
+    private ObjectWriter loanEventWriter;
+    private ObjectReader loanEventReader;
+    private ObjectWriter fundRequestWriter;
+    private ObjectReader fundRequestReader;
+
+    private com.app.loan_service.event.LoanApprovedEvent loanEvent;
+    private FundAccountRequest fundRequest;
+    private byte[] loanEventJson;
+    private byte[] fundRequestJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .addModule(com.app.account_service.shared.Money.jacksonModule("KES"))
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        loanEventWriter = objectMapper.writerFor(com.app.loan_service.event.LoanApprovedEvent.class);
+        loanEventReader = objectMapper.readerFor(com.app.account_service.event.LoanApprovedEvent.class);
+        fundRequestWriter = objectMapper.writerFor(FundAccountRequest.class);
+        fundRequestReader = objectMapper.readerFor(FundAccountRequest.class);
+
+        loanEvent = new com.app.loan_service.event.LoanApprovedEvent(UUID.randomUUID(), UUID.randomUUID(),
+                com.app.loan_service.shared.Money.of(new BigDecimal("7500.00"), "KES"));
+        fundRequest = new FundAccountRequest(UUID.randomUUID(), new BigDecimal("1250.50"));
+        loanEventJson = loanEventWriter.writeValueAsBytes(loanEvent);
+        fundRequestJson = fundRequestWriter.writeValueAsBytes(fundRequest);
+    }
+
+    @Benchmark
+    public byte[] writeLoanApprovedEvent() throws IOException {
+        return loanEventWriter.writeValueAsBytes(loanEvent);
+    }
+
+    @Benchmark
+    public com.app.account_service.event.LoanApprovedEvent readLoanApprovedEvent() throws IOException {
+        return loanEventReader.readValue(loanEventJson);
+    }
+
+    @Benchmark
+    public byte[] writeFundAccountRequest() throws IOException {
+        return fundRequestWriter.writeValueAsBytes(fundRequest);
+    }
+
+    @Benchmark
+    public FundAccountRequest readFundAccountRequest() throws IOException {
+        return fundRequestReader.readValue(fundRequestJson);
+    }
+}
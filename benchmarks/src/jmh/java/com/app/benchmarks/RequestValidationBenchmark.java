@@ -0,0 +1,89 @@
+package com.app.benchmarks;
+
+import com.app.account_service.dto.FundAccountRequest;
+import com.app.customer_service.dto.CustomerDto;
+import com.app.loan_service.dto.LoanApplicationRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bean Validation of the request DTOs. Valid requests measure the cost every request pays;
+ * invalid ones add building the constraint violations and interpolating their messages.
+ */
+@State(Scope.Benchmark)
+public class RequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private CustomerDto validCustomer;
+    private CustomerDto invalidCustomer;
+    private FundAccountRequest validFundRequest;
+    private FundAccountRequest invalidFundRequest;
+    private LoanApplicationRequest validLoanRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        validCustomer = CustomerDto.builder()
+                .firstName("Jane")
+                .lastName("Wanjiku")
+                .identityNumber("30123456")
+                .phoneNumber("+254712345678")
+                .email("jane.wanjiku@example.com")
+                .dob(LocalDate.of(1990, 4, 12))
+                .build();
+        invalidCustomer = CustomerDto.builder()
+                .firstName("Jane")
+                .lastName(" ")
+                .email("not-an-email")
+                .build();
+        validFundRequest = new FundAccountRequest(UUID.randomUUID(), new BigDecimal("1250.50"));
+        invalidFundRequest = new FundAccountRequest(UUID.randomUUID(), new BigDecimal("10.005"));
+        validLoanRequest = new LoanApplicationRequest(UUID.randomUUID(), new BigDecimal("7500.00"), 12);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> validCustomer() {
+        return validator.validate(validCustomer);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> invalidCustomer() {
+        return validator.validate(invalidCustomer);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FundAccountRequest>> validFundAccountRequest() {
+        return validator.validate(validFundRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FundAccountRequest>> invalidFundAccountRequest() {
+        return validator.validate(invalidFundRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoanApplicationRequest>> validLoanApplicationRequest() {
+        return validator.validate(validLoanRequest);
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.customer_service.mapper;
+
+import com.app.customer_service.dto.CustomerDto;
+import com.app.customer_service.entity.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * MapStruct mapping between the customer entity and its DTO, as done for every customer response.
+ */
+@State(Scope.Benchmark)
+public class CustomerMapperBenchmark {
+
+    private final CustomerMapper mapper = CustomerMapper.INSTANCE;
+
+    private Customer customer;
+    private CustomerDto customerDto;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        customer.setFirstName("Jane");
+        customer.setLastName("Wanjiku");
+        customer.setIdentityNumber("30123456");
+        customer.setPhoneNumber("+254712345678");
+        customer.setEmail("jane.wanjiku@example.com");
+        customer.setDob(LocalDate.of(1990, 4, 12));
+        customer.setCreatedDate(LocalDateTime.now());
+        customer.setStatus(1);
+        customer.setHashPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3bC6sQ6zH5lG8V1nQx0Yb6e");
+        customerDto = mapper.toDto(customer);
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return mapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return mapper.toEntity(customerDto);
+    }
+}
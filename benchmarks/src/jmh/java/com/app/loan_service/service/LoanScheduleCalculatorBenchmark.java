@@ -0,0 +1,32 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.shared.AmortizationMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+/**
+ * Repayment schedule calculation for each amortization method over a short and the maximum tenure.
+ */
+@State(Scope.Benchmark)
+public class LoanScheduleCalculatorBenchmark {
+
+    private final LoanScheduleCalculator calculator = new LoanScheduleCalculator();
+    private final BigDecimal principal = new BigDecimal("7500.00");
+    private final BigDecimal annualRate = BigDecimal.TEN;
+
+    @Param({"FLAT", "REDUCING_BALANCE", "ANNUITY"})
+    private AmortizationMethod method;
+
+    @Param({"12", "60"})
+    private int tenureMonths;
+
+    @Benchmark
+    public LoanScheduleResponse calculate() {
+        return calculator.calculate(principal, tenureMonths, annualRate, method);
+    }
+}
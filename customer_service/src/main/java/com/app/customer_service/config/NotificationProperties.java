@@ -0,0 +1,198 @@
+package com.app.customer_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the asynchronous email dispatcher.
+ */
+@Component
+@ConfigurationProperties(prefix = "notification.email")
+public class NotificationProperties {
+
+    /**
+     * Active provider: "log" for the local fake or "smtp".
+     */
+    private String provider = "log";
+
+    /**
+     * Sender address of outgoing emails.
+     */
+    private String from = "no-reply@digitalbank.local";
+
+    /**
+     * Number of emails held in memory before new ones spill over to the email_outbox table.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Maximum number of emails handed to the provider at once.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Maximum time an email waits for its batch to fill up.
+     */
+    private Duration maxBatchDelay = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of batches being sent at the same time.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Emails per second the provider accepts.
+     */
+    private double ratePerSecond = 20;
+
+    /**
+     * Number of emails that may be sent at once after an idle period.
+     */
+    private int burst = 50;
+
+    /**
+     * Retries of a failed batch before it spills over to the email_outbox table.
+     */
+    private int retryAttempts = 3;
+
+    /**
+     * Initial backoff between retries; doubles with every retry.
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    /**
+     * How often the email_outbox table is checked for due emails.
+     */
+    private Duration spilloverPollInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a claimed email_outbox row is hidden from other drainers, and the delay
+     * before a failed row is retried.
+     */
+    private Duration spilloverLease = Duration.ofMinutes(1);
+
+    /**
+     * Attempts after which a spilled email is no longer retried.
+     */
+    private int maxSpilloverAttempts = 10;
+
+    /**
+     * How long shutdown waits for batches being sent before spilling them over to the
+     * email_outbox table, and then for the spillover to finish.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    public void setMaxBatchDelay(Duration maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    public void setRetryAttempts(int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getSpilloverPollInterval() {
+        return spilloverPollInterval;
+    }
+
+    public void setSpilloverPollInterval(Duration spilloverPollInterval) {
+        this.spilloverPollInterval = spilloverPollInterval;
+    }
+
+    public Duration getSpilloverLease() {
+        return spilloverLease;
+    }
+
+    public void setSpilloverLease(Duration spilloverLease) {
+        this.spilloverLease = spilloverLease;
+    }
+
+    public int getMaxSpilloverAttempts() {
+        return maxSpilloverAttempts;
+    }
+
+    public void setMaxSpilloverAttempts(int maxSpilloverAttempts) {
+        this.maxSpilloverAttempts = maxSpilloverAttempts;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
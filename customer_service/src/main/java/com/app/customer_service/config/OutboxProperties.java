@@ -0,0 +1,80 @@
+package com.app.customer_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the transactional outbox relay.
+ */
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * How often the relay checks the outbox when it is drained.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Maximum number of events relayed per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long a relay owns the events it claimed. Claimed events that were neither
+     * published nor released by then, e.g. because the relay died, are claimed again.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /**
+     * How long published events are kept before they are deleted.
+     */
+    private Duration retention = Duration.ofDays(1);
+
+    /**
+     * How often published events older than the retention are deleted.
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getClaimTimeout() {
+        return claimTimeout;
+    }
+
+    public void setClaimTimeout(Duration claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    public void setCleanupInterval(Duration cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.customer_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the BCrypt password hashing pool.
+ */
+@Component
+@ConfigurationProperties(prefix = "banking.customer.password")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt cost factor used for new hashes, or the starting point of calibration.
+     */
+    private int strength = 10;
+
+    /**
+     * Raise the cost factor at startup as long as one hash stays within the latency budget.
+     */
+    private boolean calibrate = true;
+
+    /**
+     * Target duration of a single hash for calibration.
+     */
+    private Duration latencyBudget = Duration.ofMillis(250);
+
+    /**
+     * Highest cost factor calibration may choose.
+     */
+    private int maxStrength = 14;
+
+    /**
+     * Number of hashing threads; 0 means one per available processor.
+     */
+    private int threads = 0;
+
+    /**
+     * Number of hashing tasks that may wait for a thread before new ones are rejected.
+     */
+    private int queueCapacity = 1000;
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+
+    public boolean isCalibrate() {
+        return calibrate;
+    }
+
+    public void setCalibrate(boolean calibrate) {
+        this.calibrate = calibrate;
+    }
+
+    public Duration getLatencyBudget() {
+        return latencyBudget;
+    }
+
+    public void setLatencyBudget(Duration latencyBudget) {
+        this.latencyBudget = latencyBudget;
+    }
+
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return the configured thread count, or the number of available processors
+     */
+    public int resolveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
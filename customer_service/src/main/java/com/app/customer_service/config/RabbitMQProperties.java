@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "rabbitmq")
@@ -11,6 +13,58 @@ public class RabbitMQProperties {
     private String queue;
     private String exchange;
     private String routingKey;
+    private Publisher publisher = new Publisher();
+
+    /**
+     * Batching and confirm settings of the outbound event publisher.
+     */
+    public static class Publisher {
+        private int batchSize = 64;
+        private Duration maxBatchDelay = Duration.ofMillis(10);
+        private int queueCapacity = 4096;
+        private int maxInFlightBatches = 4;
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getMaxBatchDelay() {
+            return maxBatchDelay;
+        }
+
+        public void setMaxBatchDelay(Duration maxBatchDelay) {
+            this.maxBatchDelay = maxBatchDelay;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxInFlightBatches() {
+            return maxInFlightBatches;
+        }
+
+        public void setMaxInFlightBatches(int maxInFlightBatches) {
+            this.maxInFlightBatches = maxInFlightBatches;
+        }
+
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+    }
 
     public String getQueue() {
         return queue;
@@ -35,4 +89,12 @@ public class RabbitMQProperties {
     public void setRoutingKey(String routingKey) {
         this.routingKey = routingKey;
     }
+
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
+    public void setPublisher(Publisher publisher) {
+        this.publisher = publisher;
+    }
 }
@@ -0,0 +1,119 @@
+package com.app.customer_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory verification code store.
+ */
+@Component
+@ConfigurationProperties(prefix = "banking.customer.verification")
+public class VerificationProperties {
+
+    /**
+     * Number of digits of a verification code.
+     */
+    private int codeLength = 6;
+
+    /**
+     * How long a code stays valid after it was issued.
+     */
+    private Duration codeTtl = Duration.ofMinutes(15);
+
+    /**
+     * Wrong guesses after which a code is locked.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * How long a locked code rejects every guess before it is dropped.
+     */
+    private Duration lockout = Duration.ofMinutes(15);
+
+    /**
+     * Maximum number of pending codes held in memory.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * Resolution of the expiry sweeper; codes are removed at most one tick after they expire.
+     */
+    private Duration sweepTick = Duration.ofSeconds(1);
+
+    /**
+     * Number of slots of the timing wheel; one revolution spans slots times the tick.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Also store pending codes in the verification_codes table, so they survive restarts
+     * and can be verified by any instance.
+     */
+    private boolean persistent = false;
+
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    public void setCodeLength(int codeLength) {
+        this.codeLength = codeLength;
+    }
+
+    public Duration getCodeTtl() {
+        return codeTtl;
+    }
+
+    public void setCodeTtl(Duration codeTtl) {
+        this.codeTtl = codeTtl;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getLockout() {
+        return lockout;
+    }
+
+    public void setLockout(Duration lockout) {
+        this.lockout = lockout;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getSweepTick() {
+        return sweepTick;
+    }
+
+    public void setSweepTick(Duration sweepTick) {
+        this.sweepTick = sweepTick;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+}
@@ -1,20 +1,29 @@
 package com.app.customer_service.controller;
 
+import com.app.customer_service.dto.BulkRegistrationProgress;
 import com.app.customer_service.dto.CustomerDto;
+import com.app.customer_service.mapper.CustomerCsvParser;
 import com.app.customer_service.service.CustomerService;
+import com.app.customer_service.shared.CustomerStatus;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/customers")
@@ -23,9 +32,11 @@ public class CustomerController {
     @Autowired
     private Validator validator;
     private final CustomerService customerService;
+    private final CustomerCsvParser customerCsvParser;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerCsvParser customerCsvParser) {
         this.customerService = customerService;
+        this.customerCsvParser = customerCsvParser;
     }
 
     @PostMapping("/register")
@@ -43,6 +54,48 @@ public class CustomerController {
                 .flatMap(customerService::verifyCustomer)
                 .map(ResponseEntity::ok);
     }
+    /**
+     * Send a new verification code to a customer who has not verified their email yet.
+     * Only the email of the request body is used.
+     */
+    @PostMapping("/verify/resend")
+    public Mono<ResponseEntity<Void>> resendVerification(@RequestBody Mono<CustomerDto> customerDto) {
+        return customerDto
+                .filter(request -> request.getEmail() != null && !request.getEmail().isBlank())
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "email is required")))
+                .flatMap(request -> customerService.resendVerificationCode(request.getEmail()))
+                .thenReturn(ResponseEntity.accepted().<Void>build());
+    }
+
+    @PostMapping(value = "/register/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkRegistrationProgress> registerBulk(@RequestBody Flux<CustomerDto> customers) {
+        return customerService.registerCustomers(customers);
+    }
+
+    @PostMapping(value = "/register/bulk",
+            consumes = "text/csv",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkRegistrationProgress> registerBulkCsv(@RequestBody Flux<String> lines) {
+        return customerService.registerCustomers(customerCsvParser.parse(lines));
+    }
+
+    /**
+     * Stream the customers with the given status as NDJSON, oldest first. To continue an
+     * interrupted or limited listing, pass the ID of the last customer received as after.
+     * Without a limit, all customers with the status are streamed.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerDto> list(@RequestParam CustomerStatus status,
+                                  @RequestParam(required = false) UUID after,
+                                  @RequestParam(required = false) Long limit) {
+        if (limit != null && limit < 1) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return customerService.streamCustomers(status, after, limit != null ? limit : Long.MAX_VALUE);
+    }
+
     private <T> void validate(T dto){
         Set<ConstraintViolation<T>> violations = validator.validate(dto);
         if (!violations.isEmpty()) {
@@ -0,0 +1,83 @@
+package com.app.customer_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Progress of a bulk registration, emitted once per processed chunk.
+ * Counters are cumulative; rejections only list the rows of the current chunk.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRegistrationProgress {
+    private long chunk;
+    private long processed;
+    private long registered;
+    private long duplicates;
+    private long invalid;
+    private List<Rejection> rejections;
+
+    public long getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(long chunk) {
+        this.chunk = chunk;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getRegistered() {
+        return registered;
+    }
+
+    public void setRegistered(long registered) {
+        this.registered = registered;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<Rejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    /**
+     * A row that was not registered.
+     *
+     * @param row    zero-based position of the row in the upload
+     * @param email  the email of the row, if any
+     * @param reason why the row was rejected
+     */
+    public record Rejection(long row, String email, String reason) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.customer_service.mapper;
+
+import com.app.customer_service.dto.CustomerDto;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming parser of customer CSV uploads.
+ * <p>
+ * The first line is a header naming the columns (firstName, lastName, identityNumber,
+ * phoneNumber, email, dob in ISO format), in any order and case, optionally preceded by a
+ * byte order mark as written by spreadsheet exports. Fields may be double-quoted;
+ * a doubled quote inside a quoted field is a literal quote. Lines are parsed one at a
+ * time as they arrive, so the upload is never held in memory. A line that cannot be
+ * parsed becomes a CustomerDto with only the fields that could be read, and is then
+ * rejected by validation like any other incomplete row.
+ */
+@Component
+public class CustomerCsvParser {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    /**
+     * @param lines the CSV lines, starting with the header
+     * @return Flux of one CustomerDto per non-blank data line
+     */
+    public Flux<CustomerDto> parse(Flux<String> lines) {
+        return lines.filter(line -> !line.isBlank())
+                .switchOnFirst((first, all) -> {
+                    if (!first.hasValue()) {
+                        return all.then(Flux.empty());
+                    }
+                    Map<String, Integer> header = header(first.get());
+                    return all.skip(1).map(line -> toDto(header, split(line)));
+                });
+    }
+
+    private Map<String, Integer> header(String line) {
+        List<String> names = split(line.startsWith(BYTE_ORDER_MARK) ? line.substring(1) : line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    private CustomerDto toDto(Map<String, Integer> header, List<String> fields) {
+        CustomerDto dto = new CustomerDto();
+        dto.setFirstName(field(header, fields, "firstname"));
+        dto.setLastName(field(header, fields, "lastname"));
+        dto.setIdentityNumber(field(header, fields, "identitynumber"));
+        dto.setPhoneNumber(field(header, fields, "phonenumber"));
+        dto.setEmail(field(header, fields, "email"));
+        String dob = field(header, fields, "dob");
+        if (dob != null) {
+            try {
+                dto.setDob(LocalDate.parse(dob));
+            } catch (DateTimeParseException e) {
+                // left empty, the row fails validation
+            }
+        }
+        return dto;
+    }
+
+    private String field(Map<String, Integer> header, List<String> fields, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -1,31 +1,31 @@
 package com.app.customer_service.messaging;
 
-import com.app.customer_service.config.RabbitMQProperties;
 import com.app.customer_service.event.AccountCreationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 public class AccountCreationEventPublisher {
-    private final RabbitTemplate rabbitTemplate;
-    private final RabbitMQProperties properties;
+    private final BatchingEventPublisher batchingEventPublisher;
 
     private static final Logger log = LoggerFactory
             .getLogger(AccountCreationEventPublisher.class);
 
-    public AccountCreationEventPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties) {
-        this.rabbitTemplate = rabbitTemplate;
-        this.properties = properties;
+    public AccountCreationEventPublisher(BatchingEventPublisher batchingEventPublisher) {
+        this.batchingEventPublisher = batchingEventPublisher;
     }
 
-    public void publishAccountCreationEvent(AccountCreationEvent event) {
-        rabbitTemplate.convertAndSend(
-                properties.getExchange(),
-                properties.getRoutingKey(),
-                event
-        );
-        log.info("Account creation event published: {}", event);
+    /**
+     * Publish an account creation event to the Account Service.
+     *
+     * @param event       the event to publish
+     * @param traceParent W3C traceparent of the request that caused the event, may be null
+     * @return Mono that completes once the broker has confirmed the event
+     */
+    public Mono<Void> publishAccountCreationEvent(AccountCreationEvent event, String traceParent) {
+        return batchingEventPublisher.publish(event, traceParent)
+                .doOnSuccess(ignored -> log.info("Account creation event published: {}", event));
     }
 }
@@ -0,0 +1,210 @@
+package com.app.customer_service.messaging;
+
+import com.app.customer_service.config.OutboxProperties;
+import com.app.customer_service.entity.OutboxEvent;
+import com.app.customer_service.event.AccountCreationEvent;
+import com.app.customer_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Background relay that drains the transactional outbox to RabbitMQ.
+ * <p>
+ * Each poll claims the oldest pending events of this service with a lease that commits
+ * right away, so no row lock is held while waiting for broker confirms. The claimed events
+ * are handed to the publisher together, in order, so they are sent in as few batches as
+ * possible and their confirms are awaited concurrently. The longest prefix of the batch
+ * that the broker confirmed is marked as published; the first event it did not confirm and
+ * the ones after it are released and sent again on the next poll. Events after a failure may
+ * thus be delivered twice, which consumers already tolerate as delivery is at-least-once
+ * and they skip processed events. An event that can never be published, because its type
+ * is unknown or its payload unreadable, is marked as failed and skipped. Full batches are
+ * drained back to back without waiting for the next poll.
+ * <p>
+ * Published events are deleted once they are older than outbox.retention.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private static final Logger log = LoggerFactory
+            .getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final AccountCreationEventPublisher accountCreationEventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+
+    @Value("${spring.application.name}")
+    private String source;
+
+    private Disposable relay;
+    private Disposable cleaner;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, AccountCreationEventPublisher accountCreationEventPublisher,
+                       TransactionalOperator transactionalOperator, ObjectMapper objectMapper,
+                       OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.accountCreationEventPublisher = accountCreationEventPublisher;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        relay = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .expand(relayed -> relayed == properties.getBatchSize() ? drain() : Mono.empty())
+                        .onErrorResume(error -> {
+                            log.error("Outbox relay failed, retrying on next poll", error);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+        cleaner = Flux.interval(properties.getCleanupInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> cleanUp()
+                        .onErrorResume(error -> {
+                            log.warn("Outbox cleanup failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        relay.dispose();
+        cleaner.dispose();
+    }
+
+    /**
+     * Relay one batch of events.
+     *
+     * @return Mono of the number of events marked as published or failed
+     */
+    private Mono<Integer> drain() {
+        double leaseSeconds = properties.getClaimTimeout().toMillis() / 1000d;
+        return outboxEventRepository.claimPending(source, properties.getBatchSize(), leaseSeconds)
+                .collectSortedList(Comparator.comparing(OutboxEvent::getId))
+                .flatMap(this::relayBatch);
+    }
+
+    private Mono<Integer> relayBatch(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) {
+            return Mono.just(0);
+        }
+        return Flux.fromIterable(batch)
+                // Subscribed in order, so the publisher queues the events in order
+                .flatMapSequential(this::relay, batch.size())
+                .takeWhile(relayed -> relayed.outcome() != Outcome.RETRY)
+                .collectList()
+                .flatMap(relayed -> record(batch, relayed))
+                .doOnNext(count -> log.debug("Relayed {} of {} outbox events", count, batch.size()));
+    }
+
+    private Mono<Relayed> relay(OutboxEvent event) {
+        return publish(event)
+                .thenReturn(new Relayed(event.getId(), Outcome.PUBLISHED))
+                .onErrorResume(UnpublishableEventException.class, error -> {
+                    log.error("Outbox event {} can never be published, marking it as failed: {}",
+                            event.getId(), error.getMessage());
+                    return Mono.just(new Relayed(event.getId(), Outcome.FAILED));
+                })
+                .onErrorResume(error -> {
+                    log.warn("Outbox event {} not published: {}", event.getId(), error.getMessage());
+                    return Mono.just(new Relayed(event.getId(), Outcome.RETRY));
+                });
+    }
+
+    /**
+     * Store the outcome of a batch: the relayed events are marked, and the claims on the
+     * events that were not attempted are released, in one transaction.
+     */
+    private Mono<Integer> record(List<OutboxEvent> batch, List<Relayed> relayed) {
+        List<Long> published = idsOf(relayed, Outcome.PUBLISHED);
+        List<Long> failed = idsOf(relayed, Outcome.FAILED);
+        List<Long> remaining = batch.subList(relayed.size(), batch.size()).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        return Flux.concat(
+                        published.isEmpty() ? Mono.<Integer>empty() : outboxEventRepository.markPublished(published, now),
+                        failed.isEmpty() ? Mono.<Integer>empty() : outboxEventRepository.markFailed(failed, now),
+                        remaining.isEmpty() ? Mono.<Integer>empty() : outboxEventRepository.releaseClaims(remaining))
+                .then(Mono.just(relayed.size()))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static List<Long> idsOf(List<Relayed> relayed, Outcome outcome) {
+        return relayed.stream()
+                .filter(event -> event.outcome() == outcome)
+                .map(Relayed::id)
+                .toList();
+    }
+
+    private Mono<Void> publish(OutboxEvent outboxEvent) {
+        return Mono.fromCallable(() -> decode(outboxEvent))
+                .flatMap(event -> accountCreationEventPublisher.publishAccountCreationEvent(event, outboxEvent.getTraceParent()));
+    }
+
+    private AccountCreationEvent decode(OutboxEvent outboxEvent) throws UnpublishableEventException {
+        if (!AccountCreationEvent.class.getSimpleName().equals(outboxEvent.getEventType())) {
+            throw new UnpublishableEventException("Unknown outbox event type: " + outboxEvent.getEventType());
+        }
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), AccountCreationEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new UnpublishableEventException("Unreadable payload: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Delete published events older than the retention, in chunks.
+     *
+     * @return Mono of the number of deleted events
+     */
+    private Mono<Integer> cleanUp() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        Mono<Integer> chunk = Mono.defer(() ->
+                outboxEventRepository.deletePublishedBefore(source, before, CLEANUP_BATCH_SIZE));
+        return chunk
+                .expand(deleted -> deleted == CLEANUP_BATCH_SIZE ? chunk : Mono.empty())
+                .reduce(0, Integer::sum)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.debug("Deleted {} published outbox events", deleted);
+                    }
+                });
+    }
+
+    private enum Outcome {
+        PUBLISHED, FAILED, RETRY
+    }
+
+    private record Relayed(Long id, Outcome outcome) {
+    }
+
+    private static class UnpublishableEventException extends Exception {
+        UnpublishableEventException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.app.customer_service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Times reactive flows from subscription to their terminal signal.
+ * <p>
+ * Timers publish percentile histograms, so latency percentiles can be aggregated
+ * across instances, and are tagged with the outcome: success, error or cancelled.
+ * Kept identical in every service.
+ */
+@Component
+public class FlowMetrics {
+
+    /**
+     * Timer of the business flows, tagged with the flow name.
+     */
+    public static final String FLOW_TIMER = "banking.flow";
+
+    private final MeterRegistry registry;
+
+    public FlowMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * Time a business flow.
+     *
+     * @param flow the flow name, e.g. fund_account
+     * @param mono the flow
+     * @return the flow, timed on every subscription
+     */
+    public <T> Mono<T> time(String flow, Mono<T> mono) {
+        return time(FLOW_TIMER, Tags.of("flow", flow), mono);
+    }
+
+    /**
+     * Time a business flow, for use with {@link Mono#transform(Function)}.
+     *
+     * @param flow the flow name, e.g. fund_account
+     * @return function timing the Mono it is applied to
+     */
+    public <T> Function<Mono<T>, Mono<T>> timed(String flow) {
+        return mono -> time(flow, mono);
+    }
+
+    /**
+     * Time any Mono under the given timer name and tags.
+     *
+     * @param name the timer name
+     * @param tags tags of the timer, besides the outcome
+     * @param mono the Mono to time
+     * @return the Mono, timed on every subscription
+     */
+    public <T> Mono<T> time(String name, Iterable<Tag> tags, Mono<T> mono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return mono.doFinally(signal -> sample.stop(timer(name, Tags.of(tags).and("outcome", outcome(signal)))));
+        });
+    }
+
+    /**
+     * Record a duration measured elsewhere, e.g. the time a message waited in a queue.
+     *
+     * @param name     the timer name
+     * @param tags     tags of the timer
+     * @param duration the duration
+     */
+    public void record(String name, Iterable<Tag> tags, Duration duration) {
+        timer(name, Tags.of(tags)).record(duration);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package com.app.customer_service.notification;
+
+import com.app.customer_service.config.NotificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous email pipeline in front of the active {@link EmailProvider}.
+ * <p>
+ * {@link #enqueue(EmailMessage)} never waits for mail delivery: emails go into a bounded
+ * in-memory queue, or straight to the {@link EmailOutbox} table when the queue is full.
+ * Queued emails are grouped into batches, sent by a limited number of concurrent workers
+ * under the provider's token bucket, and retried with exponential backoff; batches that
+ * still fail spill over to the table. A background drainer sends due rows from the table
+ * through the same rate limit; emails spilled over by template are rendered again first.
+ * <p>
+ * On shutdown, emails still queued are spilled over, and batches being sent get up to
+ * notification.email.shutdown-timeout to finish. Sending is then given up and the
+ * unfinished batches are spilled over as well; a batch the provider accepted just before
+ * may thus be sent twice.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(EmailDispatcher.class);
+
+    private final EmailProvider provider;
+    private final EmailOutbox emailOutbox;
+    private final ObjectProvider<EmailTemplate> templates;
+    private final NotificationProperties properties;
+    private final TokenBucket rateLimit;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter spilled;
+    private final Sinks.Empty<Void> giveUp = Sinks.empty();
+
+    private volatile boolean stopping;
+    private CountDownLatch stopped;
+    private Sinks.Many<EmailMessage> queue;
+    private Disposable workers;
+    private Disposable drainer;
+
+    public EmailDispatcher(EmailProvider provider, EmailOutbox emailOutbox, ObjectProvider<EmailTemplate> templates,
+                           NotificationProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.provider = provider;
+        this.emailOutbox = emailOutbox;
+        this.templates = templates;
+        this.properties = properties;
+        this.rateLimit = new TokenBucket(properties.getRatePerSecond(), properties.getBurst());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.sent = Counter.builder("notification.email.sent")
+                .tag("provider", provider.name())
+                .register(registry);
+        this.failed = Counter.builder("notification.email.failed")
+                .tag("provider", provider.name())
+                .register(registry);
+        this.spilled = Counter.builder("notification.email.spilled")
+                .tag("provider", provider.name())
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        stopped = new CountDownLatch(1);
+        queue = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<EmailMessage>get(properties.getQueueCapacity()).get());
+        workers = queue.asFlux()
+                .bufferTimeout(properties.getBatchSize(), properties.getMaxBatchDelay(), true)
+                .flatMap(this::sendOrSpill, properties.getConcurrency())
+                .doFinally(signal -> stopped.countDown())
+                .subscribe();
+        drainer = Flux.interval(properties.getSpilloverPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drainSpillover()
+                        .onErrorResume(error -> {
+                            log.error("Email spillover drain failed, retrying on next poll", error);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        drainer.dispose();
+        stopping = true;
+        queue.tryEmitComplete();
+        Duration timeout = properties.getShutdownTimeout();
+        if (!stopped.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Emails still being sent after {}, spilling them over", timeout);
+            giveUp.tryEmitEmpty();
+            if (!stopped.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.error("Spilling over emails did not finish in time, the remaining ones are lost");
+            }
+        }
+        workers.dispose();
+    }
+
+    /**
+     * Queue an email for asynchronous delivery. Returns immediately.
+     *
+     * @param message the email
+     */
+    public void enqueue(EmailMessage message) {
+        Sinks.EmitResult result;
+        while ((result = queue.tryEmitNext(message)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            // Another caller is emitting right now; that only takes a few instructions
+            Thread.onSpinWait();
+        }
+        if (result.isFailure()) {
+            // A full queue, or one that is shut down, stays usable: the email goes to the table instead
+            log.debug("Email queue rejected message, spilling over: To={}, Reason={}", message.to(), result);
+            spill(List.of(message)).subscribe();
+        }
+    }
+
+    private Mono<Void> sendOrSpill(List<EmailMessage> batch) {
+        if (stopping) {
+            // Storing is quicker than sending, and nothing waits for the emails still queued
+            return spill(batch);
+        }
+        return send(batch)
+                .timeout(giveUp.asMono())
+                .onErrorResume(error -> stopping && error instanceof TimeoutException, error -> {
+                    log.warn("Sending {} emails did not finish before shutdown, spilling over", batch.size());
+                    return spill(batch);
+                })
+                .onErrorResume(error -> {
+                    log.error("Sending {} emails failed after retries, spilling over", batch.size(), error);
+                    failed.increment(batch.size());
+                    return spill(batch);
+                });
+    }
+
+    private Mono<Void> send(List<EmailMessage> batch) {
+        return Mono.defer(() -> {
+                    long waitNanos = rateLimit.reserve(batch.size());
+                    Mono<Void> delivery = provider.send(batch);
+                    return waitNanos == 0 ? delivery : Mono.delay(Duration.ofNanos(waitNanos)).then(delivery);
+                })
+                .retryWhen(Retry.backoff(properties.getRetryAttempts(), properties.getRetryBackoff()))
+                .doOnSuccess(ignored -> sent.increment(batch.size()));
+    }
+
+    private Mono<Void> spill(List<EmailMessage> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return emailOutbox.store(batch)
+                .doOnNext(spilled::increment)
+                .onErrorResume(error -> {
+                    log.error("Spilling {} emails failed, they are lost", batch.size(), error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> drainSpillover() {
+        return emailOutbox.claimDue(properties.getBatchSize(), properties.getSpilloverLease(),
+                        properties.getMaxSpilloverAttempts())
+                .collectList()
+                .filter(claimed -> !claimed.isEmpty())
+                .flatMap(claimed -> Flux.fromIterable(claimed)
+                        .concatMap(stored -> render(stored.message()))
+                        .collectList()
+                        .flatMap(messages -> messages.isEmpty() ? Mono.empty() : send(messages))
+                        .then(emailOutbox.delete(claimed.stream().map(EmailOutbox.StoredEmail::id).toList()))
+                        .doOnNext(deleted -> log.info("Sent {} spilled-over emails", deleted))
+                        .onErrorResume(error -> {
+                            // Rows stay claimed until their lease ends, then they are retried
+                            log.warn("Sending {} spilled-over emails failed", claimed.size(), error);
+                            failed.increment(claimed.size());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * Restore the body of a spilled-over email that was stored by template.
+     *
+     * @return Mono of the email to send, or empty if it is not needed any more
+     */
+    private Mono<EmailMessage> render(EmailMessage message) {
+        if (message.template() == null) {
+            return Mono.just(message);
+        }
+        return templates.stream()
+                .filter(template -> template.name().equals(message.template()))
+                .findFirst()
+                .map(template -> template.render(message.to()))
+                .orElseGet(() -> {
+                    log.warn("Dropping spilled-over email with unknown template {}: To={}",
+                            message.template(), message.to());
+                    return Mono.empty();
+                });
+    }
+}
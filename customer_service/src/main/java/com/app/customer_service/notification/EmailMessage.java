@@ -0,0 +1,18 @@
+package com.app.customer_service.notification;
+
+/**
+ * A plain-text email to a single recipient.
+ *
+ * @param to       the recipient address
+ * @param subject  the subject line
+ * @param body     the plain-text body
+ * @param template name of the {@link EmailTemplate} the body was rendered from, or null.
+ *                 Such an email is spilled over without its body, which may hold a secret,
+ *                 and rendered again when it is sent from the table
+ */
+public record EmailMessage(String to, String subject, String body, String template) {
+
+    public EmailMessage(String to, String subject, String body) {
+        this(to, subject, body, null);
+    }
+}
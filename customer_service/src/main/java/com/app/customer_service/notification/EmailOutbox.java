@@ -0,0 +1,117 @@
+package com.app.customer_service.notification;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable spillover store for emails that could not be kept in memory or sent.
+ * <p>
+ * Due rows are claimed by pushing their next_attempt_at forward by a lease, so several
+ * instances can drain the table without sending an email twice; a row that is not
+ * deleted before its lease ends becomes due again.
+ * <p>
+ * Emails rendered from an {@link EmailTemplate} are stored without their body, only with the
+ * template name, so secrets such as verification codes never reach the table.
+ */
+@Component
+public class EmailOutbox {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO email_outbox (recipient, subject, body, template) VALUES ";
+    private static final int COLUMNS = 4;
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = $1 "
+                    + "WHERE id IN (SELECT id FROM email_outbox WHERE next_attempt_at <= $2 AND attempts < $3 "
+                    + "ORDER BY next_attempt_at, id LIMIT $4 FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING id, recipient, subject, body, template";
+    private static final String DELETE_SQL =
+            "DELETE FROM email_outbox WHERE id = ANY($1)";
+
+    private final DatabaseClient databaseClient;
+
+    public EmailOutbox(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Store emails for a later attempt.
+     *
+     * @param messages the emails
+     * @return Mono of the number of stored rows
+     */
+    public Mono<Long> store(List<EmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int row = 0; row < messages.size(); row++) {
+            int base = row * COLUMNS;
+            sql.append(row == 0 ? "(" : ", (")
+                    .append('$').append(base + 1).append(", $").append(base + 2).append(", $").append(base + 3)
+                    .append(", $").append(base + 4).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int row = 0; row < messages.size(); row++) {
+            EmailMessage message = messages.get(row);
+            int base = row * COLUMNS;
+            spec = spec.bind(base, message.to())
+                    .bind(base + 1, message.subject());
+            spec = message.template() == null
+                    ? spec.bind(base + 2, message.body()).bindNull(base + 3, String.class)
+                    : spec.bindNull(base + 2, String.class).bind(base + 3, message.template());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Claim due emails for sending.
+     *
+     * @param limit       maximum number of emails to claim
+     * @param lease       how long the claimed rows stay hidden from other claims
+     * @param maxAttempts rows with this many attempts are not claimed any more
+     * @return Flux of the claimed emails; those stored by template have no body
+     */
+    public Flux<StoredEmail> claimDue(int limit, Duration lease, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(CLAIM_SQL)
+                .bind(0, now.plus(lease))
+                .bind(1, now)
+                .bind(2, maxAttempts)
+                .bind(3, limit)
+                .map(row -> new StoredEmail(row.get("id", Long.class), new EmailMessage(
+                        row.get("recipient", String.class),
+                        row.get("subject", String.class),
+                        row.get("body", String.class),
+                        row.get("template", String.class))))
+                .all();
+    }
+
+    /**
+     * Remove sent emails.
+     *
+     * @param ids the row IDs
+     * @return Mono of the number of deleted rows
+     */
+    public Mono<Long> delete(Collection<Long> ids) {
+        return databaseClient.sql(DELETE_SQL)
+                .bind(0, ids.toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * An email claimed from the table.
+     *
+     * @param id      the row ID
+     * @param message the email
+     */
+    public record StoredEmail(Long id, EmailMessage message) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.customer_service.notification;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * A service that delivers emails, e.g. an SMTP relay.
+ * Exactly one provider is active, selected with notification.email.provider.
+ */
+public interface EmailProvider {
+
+    /**
+     * @return the provider name, used in logs and metric tags
+     */
+    String name();
+
+    /**
+     * Deliver a batch of emails. Fails if the batch could not be handed over as a whole;
+     * the dispatcher then retries the whole batch.
+     *
+     * @param batch the emails to send
+     * @return Mono that completes once the provider accepted the batch
+     */
+    Mono<Void> send(List<EmailMessage> batch);
+}
@@ -0,0 +1,24 @@
+package com.app.customer_service.notification;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Renders an email whose body must not be stored, e.g. because it holds a verification code.
+ * Emails rendered from a template are spilled over to the {@link EmailOutbox} by reference
+ * and rendered again by the template when they are sent from the table.
+ */
+public interface EmailTemplate {
+
+    /**
+     * @return the template name, stored with spilled-over emails
+     */
+    String name();
+
+    /**
+     * Render the email again for a recipient.
+     *
+     * @param recipient the recipient address
+     * @return Mono of the email, or empty if it is no longer needed
+     */
+    Mono<EmailMessage> render(String recipient);
+}
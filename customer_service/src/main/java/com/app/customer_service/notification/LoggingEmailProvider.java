@@ -0,0 +1,30 @@
+package com.app.customer_service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Local fake provider that only logs the emails. Used unless an SMTP provider is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.email.provider", havingValue = "log", matchIfMissing = true)
+public class LoggingEmailProvider implements EmailProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingEmailProvider.class);
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public Mono<Void> send(List<EmailMessage> batch) {
+        return Mono.fromRunnable(() -> batch.forEach(message ->
+                log.info("[MOCK EMAIL] To={}, Subject={}, Body={}", message.to(), message.subject(), message.body())));
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.customer_service.notification;
+
+import com.app.customer_service.config.NotificationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Provider that sends through the SMTP server configured under spring.mail.
+ * JavaMail is blocking, so batches are sent off the event loop, over one connection each.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.email.provider", havingValue = "smtp")
+public class SmtpEmailProvider implements EmailProvider {
+
+    private final JavaMailSender mailSender;
+    private final NotificationProperties properties;
+
+    public SmtpEmailProvider(JavaMailSender mailSender, NotificationProperties properties) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+    }
+
+    @Override
+    public String name() {
+        return "smtp";
+    }
+
+    @Override
+    public Mono<Void> send(List<EmailMessage> batch) {
+        return Mono.<Void>fromRunnable(() -> mailSender.send(batch.stream()
+                        .map(this::toMailMessage)
+                        .toArray(SimpleMailMessage[]::new)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private SimpleMailMessage toMailMessage(EmailMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(properties.getFrom());
+        mail.setTo(message.to());
+        mail.setSubject(message.subject());
+        mail.setText(message.body());
+        return mail;
+    }
+}
@@ -0,0 +1,40 @@
+package com.app.customer_service.notification;
+
+/**
+ * Token bucket rate limiter that hands out reservations instead of blocking.
+ * <p>
+ * Taking more tokens than are available puts the bucket into debt and returns how long
+ * the caller has to wait for its tokens, so callers can delay without holding a thread.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param ratePerSecond tokens added per second
+     * @param capacity      maximum number of tokens, i.e. the allowed burst
+     */
+    TokenBucket(double ratePerSecond, double capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Reserve tokens.
+     *
+     * @param permits the number of tokens to take
+     * @return nanoseconds to wait before the reserved tokens may be used, 0 if available now
+     */
+    synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.customer_service.repository;
+
+import com.app.customer_service.entity.Customer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based customer queries used by bulk registration.
+ * Lookups bind whole key sets as arrays and inserts are multi-row statements,
+ * so a chunk of customers costs one round trip per step instead of one per customer.
+ */
+@Repository
+public class CustomerBulkRepository {
+
+    private static final String EXISTING_SQL =
+            "SELECT email, identity_number FROM customers WHERE email = ANY($1) OR identity_number = ANY($2)";
+    private static final String INSERT_PREFIX =
+            "INSERT INTO customers (first_name, last_name, identity_number, phone_number, email, dob, "
+                    + "status, verification_code, hash_password) VALUES ";
+    // Rows that lost a race against a concurrent registration are skipped instead of failing the chunk
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT DO NOTHING RETURNING id, email";
+    private static final int COLUMNS = 9;
+
+    private final DatabaseClient databaseClient;
+
+    public CustomerBulkRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Find the customers that already use any of the given emails or identity numbers.
+     *
+     * @param emails          the emails to check
+     * @param identityNumbers the identity numbers to check
+     * @return Flux of existing customers carrying only email and identity number
+     */
+    public Flux<Customer> findExisting(Collection<String> emails, Collection<String> identityNumbers) {
+        return databaseClient.sql(EXISTING_SQL)
+                .bind(0, emails.toArray(String[]::new))
+                .bind(1, identityNumbers.toArray(String[]::new))
+                .map(row -> {
+                    Customer customer = new Customer();
+                    customer.setEmail(row.get("email", String.class));
+                    customer.setIdentityNumber(row.get("identity_number", String.class));
+                    return customer;
+                })
+                .all();
+    }
+
+    /**
+     * Insert customers with one multi-row statement.
+     * Customers that collide with an existing email or identity number are skipped.
+     *
+     * @param customers the customers to insert
+     * @return Flux of the inserted customers with their generated IDs set
+     */
+    public Flux<Customer> insertAll(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return Flux.empty();
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int row = 0; row < customers.size(); row++) {
+            int base = row * COLUMNS;
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 1; column <= COLUMNS; column++) {
+                sql.append('$').append(base + column).append(column < COLUMNS ? ", " : ")");
+            }
+        }
+        sql.append(INSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int row = 0; row < customers.size(); row++) {
+            Customer customer = customers.get(row);
+            int base = row * COLUMNS;
+            spec = spec.bind(base, customer.getFirstName())
+                    .bind(base + 1, customer.getLastName())
+                    .bind(base + 2, customer.getIdentityNumber())
+                    .bind(base + 3, customer.getPhoneNumber())
+                    .bind(base + 4, customer.getEmail())
+                    .bind(base + 5, customer.getDob())
+                    .bind(base + 6, customer.getStatus());
+            spec = bindNullable(spec, base + 7, customer.getVerificationCode());
+            spec = bindNullable(spec, base + 8, customer.getHashPassword());
+        }
+
+        Map<String, Customer> byEmail = new HashMap<>();
+        customers.forEach(customer -> byEmail.put(customer.getEmail(), customer));
+        return spec.map(row -> {
+                    Customer inserted = byEmail.get(row.get("email", String.class));
+                    inserted.setId(row.get("id", UUID.class));
+                    return inserted;
+                })
+                .all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, int index,
+                                                           String value) {
+        return value == null ? spec.bindNull(index, String.class) : spec.bind(index, value);
+    }
+}
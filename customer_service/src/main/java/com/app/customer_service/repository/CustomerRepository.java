@@ -8,6 +8,8 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
+import java.util.UUID;
+
 /**
  * Repository interface for Customer entity.
  * Provides reactive database operations for customer management.
@@ -39,6 +41,30 @@ public interface CustomerRepository extends ReactiveCrudRepository<Customer, Lon
      */
     Flux<Customer> findByStatus(CustomerStatus status);
 
+    /**
+     * First keyset page of the customers with the given status, oldest first.
+     *
+     * @param status the customer status value
+     * @param limit  the maximum number of customers
+     * @return Flux of customers ordered by creation time and ID
+     */
+    @Query("SELECT * FROM customers WHERE status = :status ORDER BY created_date, id LIMIT :limit")
+    Flux<Customer> findFirstPageByStatus(int status, int limit);
+
+    /**
+     * Next keyset page of the customers with the given status, continuing after the given customer.
+     * Empty if that customer does not exist.
+     *
+     * @param status the customer status value
+     * @param after  the ID of the last customer of the previous page
+     * @param limit  the maximum number of customers
+     * @return Flux of customers ordered by creation time and ID
+     */
+    @Query("SELECT * FROM customers WHERE status = :status " +
+            "AND (created_date, id) > (SELECT created_date, id FROM customers WHERE id = :after) " +
+            "ORDER BY created_date, id LIMIT :limit")
+    Flux<Customer> findPageByStatusAfter(int status, UUID after, int limit);
+
     /**
      * Find customers with pending verification.
      *
@@ -63,6 +89,15 @@ public interface CustomerRepository extends ReactiveCrudRepository<Customer, Lon
      */
     Mono<Long> countByStatus(CustomerStatus status);
 
+    /**
+     * Activate a customer awaiting verification and clear its legacy verification code.
+     *
+     * @param email the email address
+     * @return Mono of the activated Customer, empty if there is no pending customer with this email
+     */
+    @Query("UPDATE customers SET status = 1, verification_code = NULL WHERE email = :email AND status = 0 RETURNING *")
+    Mono<Customer> activateByEmail(String email);
+
     /**
      * Delete customer by email.
      *
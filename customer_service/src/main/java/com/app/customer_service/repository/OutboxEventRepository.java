@@ -0,0 +1,77 @@
+package com.app.customer_service.repository;
+
+import com.app.customer_service.entity.OutboxEvent;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface OutboxEventRepository extends R2dbcRepository<OutboxEvent, Long> {
+
+    /**
+     * Claim the oldest pending events of a service for publishing.
+     * The claim commits with the statement and lapses after the lease, so no row stays locked
+     * while the events are published. Events claimed or locked by another relay instance are skipped.
+     *
+     * @param source       the producing service
+     * @param limit        the maximum number of events
+     * @param leaseSeconds how long the claim lasts
+     * @return Flux of the claimed events, in no particular order
+     */
+    @Query("UPDATE outbox_events SET claimed_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds) " +
+            "WHERE id IN (SELECT id FROM outbox_events WHERE source = :source AND published_at IS NULL " +
+            "AND failed_at IS NULL AND (claimed_until IS NULL OR claimed_until < LOCALTIMESTAMP) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING *")
+    Flux<OutboxEvent> claimPending(String source, int limit, double leaseSeconds);
+
+    /**
+     * Mark events as published.
+     *
+     * @param ids         the event IDs
+     * @param publishedAt the publish time
+     * @return Mono of the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE outbox_events SET published_at = :publishedAt, claimed_until = NULL WHERE id IN (:ids)")
+    Mono<Integer> markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    /**
+     * Mark events as impossible to publish, so the relay skips them.
+     *
+     * @param ids      the event IDs
+     * @param failedAt the failure time
+     * @return Mono of the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE outbox_events SET failed_at = :failedAt, claimed_until = NULL WHERE id IN (:ids)")
+    Mono<Integer> markFailed(Collection<Long> ids, LocalDateTime failedAt);
+
+    /**
+     * Give up the claim on events, so the next poll publishes them again.
+     *
+     * @param ids the event IDs
+     * @return Mono of the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE outbox_events SET claimed_until = NULL WHERE id IN (:ids)")
+    Mono<Integer> releaseClaims(Collection<Long> ids);
+
+    /**
+     * Delete the oldest events of a service that were published before the given time.
+     *
+     * @param source the producing service
+     * @param before the publish time limit
+     * @param limit  the maximum number of events
+     * @return Mono of the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM outbox_events WHERE id IN (SELECT id FROM outbox_events WHERE source = :source " +
+            "AND published_at < :before ORDER BY id LIMIT :limit)")
+    Mono<Integer> deletePublishedBefore(String source, LocalDateTime before, int limit);
+}
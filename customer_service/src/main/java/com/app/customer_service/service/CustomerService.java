@@ -1,41 +1,73 @@
 package com.app.customer_service.service;
 
+import com.app.customer_service.dto.BulkRegistrationProgress;
 import com.app.customer_service.dto.CustomerDto;
+import com.app.customer_service.entity.Customer;
 import com.app.customer_service.event.AccountCreationEvent;
 import com.app.customer_service.mapper.CustomerMapper;
-import com.app.customer_service.messaging.AccountCreationEventPublisher;
+import com.app.customer_service.metrics.FlowMetrics;
+import com.app.customer_service.repository.CustomerBulkRepository;
 import com.app.customer_service.repository.CustomerRepository;
 import com.app.customer_service.service.contract.ICustomerService;
 import com.app.customer_service.shared.CustomerStatus;
+import com.app.customer_service.verification.VerificationCodeStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CustomerService implements ICustomerService {
 
-    private static final int CODE_LENGTH = 6;
     private final CustomerMapper customerMapper;
     private final CustomerRepository customerRepository;
     private final EmailService emailService;
-    private final AccountCreationEventPublisher accountCreationEventPublisher;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final OutboxService outboxService;
+    private final CustomerBulkRepository customerBulkRepository;
+    private final Validator validator;
+    private final VerificationCodeStore verificationCodeStore;
+    private final PasswordHasher passwordHasher;
+    private final FlowMetrics flowMetrics;
 
     private static final Logger log = LoggerFactory
             .getLogger(CustomerService.class);
 
-    public CustomerService(CustomerMapper customerMapper, CustomerRepository customerRepository, EmailService emailService, AccountCreationEventPublisher accountCreationEventPublisher) {
+    @Value("${banking.customer.bulk-chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${banking.customer.listing-page-size:500}")
+    private int listingPageSize;
+
+    public CustomerService(CustomerMapper customerMapper, CustomerRepository customerRepository, EmailService emailService,
+                           OutboxService outboxService, CustomerBulkRepository customerBulkRepository, Validator validator,
+                           VerificationCodeStore verificationCodeStore, PasswordHasher passwordHasher,
+                           FlowMetrics flowMetrics) {
         this.customerMapper = customerMapper;
         this.customerRepository = customerRepository;
         this.emailService = emailService;
-        this.accountCreationEventPublisher = accountCreationEventPublisher;
+        this.outboxService = outboxService;
+        this.customerBulkRepository = customerBulkRepository;
+        this.validator = validator;
+        this.verificationCodeStore = verificationCodeStore;
+        this.passwordHasher = passwordHasher;
+        this.flowMetrics = flowMetrics;
     }
 
     @Transactional
@@ -43,7 +75,8 @@ public class CustomerService implements ICustomerService {
     public Mono<Object> registerCustomer(CustomerDto customerDto) {
         log.info("Starting customer registration for email: {}", customerDto.getEmail());
 
-        customerDto.setVerificationCode(generateVerificationCode());
+        // Codes are kept by the VerificationCodeStore, never in the customers table
+        customerDto.setVerificationCode(null);
 
         return customerRepository.findByEmail(customerDto.getEmail())
                 .flatMap(existingCustomer -> {
@@ -52,83 +85,272 @@ public class CustomerService implements ICustomerService {
                     return Mono.error(new IllegalArgumentException("Customer already exists"));
                 })
                 .switchIfEmpty(
-                        customerRepository.save(customerMapper.toEntity(customerDto))
+                        Mono.defer(() -> hashPassword(customerMapper.toEntity(customerDto)))
+                                .flatMap(customerRepository::save)
                                 .map(customerMapper::toDto)
-                                .doOnSuccess(saved -> {
-                                    log.info("Customer registered successfully: {}", saved.getEmail());
-                                    emailService.sendEmailVerification(saved.getEmail(), saved.getVerificationCode());
-                                })
-                );
+                                // The code only goes out by email, never in the response
+                                .flatMap(saved -> verificationCodeStore.issue(saved.getEmail())
+                                        .doOnNext(code -> {
+                                            log.info("Customer registered successfully: {}", saved.getEmail());
+                                            emailService.sendEmailVerification(saved.getEmail(), code);
+                                        })
+                                        .thenReturn(saved))
+                )
+                .transform(flowMetrics.timed("register_customer"));
     }
 
-    public Mono<CustomerDto> verifyCustomer(CustomerDto request) {
-        log.info("Starting customer verification for email: {}", request.getEmail());
+    /**
+     * Register many customers from a stream, e.g. a partner migration.
+     * <p>
+     * Rows are taken in chunks of banking.customer.bulk-chunk-size, and the next chunk is
+     * only requested once the previous one is stored, so a slow database slows the upload
+     * down instead of buffering it. Per chunk, rows are validated and deduplicated in
+     * memory, checked against existing emails and identity numbers with one set-based
+     * query, and inserted with one multi-row statement; verification codes are generated
+     * for the whole chunk and emails are sent for the inserted customers.
+     *
+     * @param customers the customers to register
+     * @return Flux of cumulative progress, one element per chunk
+     */
+    @Override
+    public Flux<BulkRegistrationProgress> registerCustomers(Flux<CustomerDto> customers) {
+        return customers.index()
+                .buffer(bulkChunkSize)
+                .index()
+                .concatMap(chunk -> registerChunk(chunk.getT1() + 1, chunk.getT2()), 1)
+                .scan((total, chunk) -> BulkRegistrationProgress.builder()
+                        .chunk(chunk.getChunk())
+                        .processed(total.getProcessed() + chunk.getProcessed())
+                        .registered(total.getRegistered() + chunk.getRegistered())
+                        .duplicates(total.getDuplicates() + chunk.getDuplicates())
+                        .invalid(total.getInvalid() + chunk.getInvalid())
+                        .rejections(chunk.getRejections())
+                        .build());
+    }
 
-        return customerRepository.findByEmail(request.getEmail())
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.error("Customer not found with email: {}", request.getEmail());
-                    return Mono.error(new IllegalArgumentException("Customer not found"));
-                }))
-                .flatMap(customerEntity -> {
-                    // Validate verification code exists
-                    if (customerEntity.getVerificationCode() == null) {
-                        log.error("No verification code found for customer: {}", request.getEmail());
-                        return Mono.error(new IllegalArgumentException(
-                                "No verification code found. Please register again."
-                        ));
-                    }
+    private Mono<BulkRegistrationProgress> registerChunk(long chunkNumber, List<Tuple2<Long, CustomerDto>> rows) {
+        List<BulkRegistrationProgress.Rejection> rejections = new ArrayList<>();
+        Map<String, Tuple2<Long, CustomerDto>> candidates = new LinkedHashMap<>();
+        Set<String> identityNumbers = new HashSet<>();
+        int invalidRows = 0;
+        for (Tuple2<Long, CustomerDto> row : rows) {
+            CustomerDto dto = row.getT2();
+            String violations = violations(dto);
+            if (violations != null) {
+                invalidRows++;
+                rejections.add(new BulkRegistrationProgress.Rejection(row.getT1(), dto.getEmail(), violations));
+            } else if (candidates.containsKey(dto.getEmail()) || !identityNumbers.add(dto.getIdentityNumber())) {
+                rejections.add(new BulkRegistrationProgress.Rejection(row.getT1(), dto.getEmail(),
+                        "Duplicate customer in upload"));
+            } else {
+                candidates.put(dto.getEmail(), row);
+            }
+        }
+        long invalid = invalidRows;
+
+        if (candidates.isEmpty()) {
+            return Mono.just(chunkProgress(chunkNumber, rows.size(), 0, invalid, rejections));
+        }
+        return customerBulkRepository.findExisting(candidates.keySet(), identityNumbers)
+                .collectList()
+                .flatMap(existing -> {
+                    Set<String> takenEmails = new HashSet<>();
+                    Set<String> takenIdentityNumbers = new HashSet<>();
+                    existing.forEach(customer -> {
+                        takenEmails.add(customer.getEmail());
+                        takenIdentityNumbers.add(customer.getIdentityNumber());
+                    });
 
-                    // Validate verification code matches
-                    if (!customerEntity.getVerificationCode().equals(request.getVerificationCode())) {
-                        log.error("Invalid verification code for customer: {}. Expected: {}, Got: {}",
-                                request.getEmail(), customerEntity.getVerificationCode(), request.getVerificationCode());
-                        return Mono.error(new IllegalArgumentException("Invalid verification code"));
+                    Map<Customer, Long> toInsert = new LinkedHashMap<>();
+                    for (Tuple2<Long, CustomerDto> row : candidates.values()) {
+                        CustomerDto dto = row.getT2();
+                        if (takenEmails.contains(dto.getEmail())
+                                || takenIdentityNumbers.contains(dto.getIdentityNumber())) {
+                            rejections.add(new BulkRegistrationProgress.Rejection(row.getT1(), dto.getEmail(),
+                                    "Customer already exists"));
+                            continue;
+                        }
+                        Customer customer = customerMapper.toEntity(dto);
+                        customer.setStatus(CustomerStatus.PENDING_VERIFICATION.getValue());
+                        customer.setVerificationCode(null);
+                        toInsert.put(customer, row.getT1());
                     }
 
-                    // Update status and clear verification code
-                    customerEntity.setStatus(CustomerStatus.ACTIVE.getValue());
-                    customerEntity.setVerificationCode(null);
-
-                    // Save the verified customer
-                    return customerRepository.save(customerEntity)
-                    .doOnSuccess(customer -> {
-                        log.info("Customer verified successfully: {}", customer.getId());
-                        // Publish event to Account Service via RabbitMQ
-                        AccountCreationEvent event = new AccountCreationEvent();
-                        event.setCustomerId(customer.getId());
-                        accountCreationEventPublisher.publishAccountCreationEvent(event);
-                    }).thenReturn(customerMapper.toDto(customerEntity));
+                    return Flux.fromIterable(toInsert.keySet())
+                            .flatMapSequential(this::hashPassword, passwordHasher.parallelism())
+                            .collectList()
+                            .flatMapMany(customerBulkRepository::insertAll)
+                            .collectList()
+                            .flatMap(inserted -> verificationCodeStore.issueAll(
+                                            inserted.stream().map(Customer::getEmail).toList())
+                                    .map(codes -> {
+                                        inserted.forEach(customer -> emailService.sendEmailVerification(
+                                                customer.getEmail(), codes.get(customer.getEmail())));
+                                        return inserted;
+                                    }))
+                            .map(inserted -> {
+                                toInsert.forEach((customer, row) -> {
+                                    // Not returned by the insert: registered concurrently in the meantime
+                                    if (customer.getId() == null) {
+                                        rejections.add(new BulkRegistrationProgress.Rejection(row,
+                                                customer.getEmail(), "Customer already exists"));
+                                    }
+                                });
+                                log.info("Bulk registration chunk {} stored: Rows={}, Registered={}",
+                                        chunkNumber, rows.size(), inserted.size());
+                                return chunkProgress(chunkNumber, rows.size(), inserted.size(), invalid, rejections);
+                            });
                 });
     }
 
-
-
     /**
-     * Generates a random numeric verification code.
+     * Stream the customers with the given status, oldest first, e.g. for a back-office export.
+     * <p>
+     * Customers are read with keyset pagination on (created_date, id) in pages of
+     * banking.customer.listing-page-size; the next page is only queried once the previous one
+     * has been consumed, so memory stays bounded by one page. Password hashes and verification
+     * codes are not returned.
      *
-     * @return Verification code as a String
+     * @param status the customer status
+     * @param after  continue after this customer, or null to start at the oldest customer
+     * @param limit  the maximum number of customers to return
+     * @return Flux of customers
      */
-    private String generateVerificationCode() {
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
+    @Override
+    public Flux<CustomerDto> streamCustomers(CustomerStatus status, UUID after, long limit) {
+        return customerPages(status.getValue(), after, limit)
+                .map(customer -> {
+                    CustomerDto dto = customerMapper.toDto(customer);
+                    dto.setHashPassword(null);
+                    dto.setVerificationCode(null);
+                    return dto;
+                });
+    }
+
+    private Flux<Customer> customerPages(int status, UUID after, long remaining) {
+        int size = (int) Math.min(listingPageSize, remaining);
+        Flux<Customer> page = after == null
+                ? customerRepository.findFirstPageByStatus(status, size)
+                : customerRepository.findPageByStatusAfter(status, after, size);
+        return page.collectList().flatMapMany(customers -> {
+            Flux<Customer> rows = Flux.fromIterable(customers);
+            if (customers.size() < size || customers.size() == remaining) {
+                return rows;
+            }
+            UUID last = customers.get(customers.size() - 1).getId();
+            return rows.concatWith(Flux.defer(() -> customerPages(status, last, remaining - customers.size())));
+        });
+    }
 
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            code.append(random.nextInt(10));
+    private BulkRegistrationProgress chunkProgress(long chunkNumber, long processed, long registered, long invalid,
+                                                   List<BulkRegistrationProgress.Rejection> rejections) {
+        return BulkRegistrationProgress.builder()
+                .chunk(chunkNumber)
+                .processed(processed)
+                .registered(registered)
+                .duplicates(processed - registered - invalid)
+                .invalid(invalid)
+                .rejections(rejections)
+                .build();
+    }
+
+    private String violations(CustomerDto dto) {
+        Set<ConstraintViolation<CustomerDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
         }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
 
-        String generatedCode = code.toString();
-        log.debug("Generated verification code: {}", generatedCode);
-        return generatedCode;
+    /**
+     * Verify a customer's email with the code sent at registration.
+     * The code is checked against the {@link VerificationCodeStore}; only a valid code
+     * touches the customers table, with a single conditional update. The AccountCreationEvent
+     * is written to the outbox in the same transaction as the status change and published
+     * to the Account Service by the outbox relay.
+     */
+    @Transactional
+    @Override
+    public Mono<CustomerDto> verifyCustomer(CustomerDto request) {
+        log.info("Starting customer verification for email: {}", request.getEmail());
+
+        return verificationCodeStore.verify(request.getEmail(), request.getVerificationCode())
+                .flatMap(result -> switch (result) {
+                    case VALID -> activate(request.getEmail());
+                    case INVALID -> {
+                        log.error("Invalid verification code for customer: {}", request.getEmail());
+                        yield Mono.error(new IllegalArgumentException("Invalid verification code"));
+                    }
+                    case LOCKED -> {
+                        log.error("Verification locked for customer: {}", request.getEmail());
+                        yield Mono.error(new IllegalArgumentException(
+                                "Too many invalid attempts. Please try again later."));
+                    }
+                    case NOT_FOUND -> {
+                        log.error("No verification code found for customer: {}", request.getEmail());
+                        yield Mono.error(new IllegalArgumentException(
+                                "No verification code found. Please request a new code."));
+                    }
+                })
+                .transform(flowMetrics.timed("verify_customer"));
     }
 
     /**
-     * Hashes the password for storage.
+     * Send a new verification code to a customer whose email is not verified yet, e.g.
+     * because the code expired or was lost in a restart. Registering again is not possible
+     * once the customer exists, so this is the way to finish a lost verification.
+     */
+    @Override
+    public Mono<Void> resendVerificationCode(String email) {
+        log.info("Resending verification code for email: {}", email);
+
+        return customerRepository.findByEmail(email)
+                .filter(customer -> customer.getStatus() == CustomerStatus.PENDING_VERIFICATION.getValue())
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("No pending verification for email: {}", email);
+                    return Mono.error(new IllegalArgumentException("No pending verification for this email"));
+                }))
+                .flatMap(customer -> verificationCodeStore.reissue(customer.getEmail()))
+                .doOnNext(code -> emailService.sendEmailVerification(email, code))
+                .then()
+                .transform(flowMetrics.timed("resend_verification"));
+    }
+
+    private Mono<CustomerDto> activate(String email) {
+        return customerRepository.activateByEmail(email)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("No pending customer found with email: {}", email);
+                    return Mono.error(new IllegalArgumentException("Customer not found"));
+                }))
+                .flatMap(customer -> {
+                    log.info("Customer verified successfully: {}", customer.getId());
+                    // Queue event for the Account Service
+                    AccountCreationEvent event = new AccountCreationEvent();
+                    event.setCustomerId(customer.getId());
+                    return outboxService.record(event)
+                            .then(verificationCodeStore.invalidate(email))
+                            .thenReturn(customerMapper.toDto(customer));
+                });
+    }
+
+    /**
+     * Replaces the raw password of a customer with its BCrypt hash.
+     * Hashing runs on the {@link PasswordHasher} pool, never on the calling thread.
      *
-     * @param password Plain text password
-     * @return Hashed password (currently returns plain text)
+     * @param customer the customer carrying the raw password, if any
+     * @return Mono of the same customer with the hashed password
      */
-    private String hashPassword(String password) {
-        return passwordEncoder.encode(password);
+    private Mono<Customer> hashPassword(Customer customer) {
+        if (customer.getHashPassword() == null) {
+            return Mono.just(customer);
+        }
+        return passwordHasher.hash(customer.getHashPassword())
+                .map(hash -> {
+                    customer.setHashPassword(hash);
+                    return customer;
+                });
     }
 
 }
@@ -1,21 +1,26 @@
 package com.app.customer_service.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.app.customer_service.notification.EmailDispatcher;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
-
-import java.time.Duration;
 
 @Component
 public class EmailService {
 
-    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+    private final EmailDispatcher emailDispatcher;
+    private final VerificationEmail verificationEmail;
+
+    public EmailService(EmailDispatcher emailDispatcher, VerificationEmail verificationEmail) {
+        this.emailDispatcher = emailDispatcher;
+        this.verificationEmail = verificationEmail;
+    }
 
+    /**
+     * Queue the verification email of a new customer. Returns without waiting for delivery.
+     *
+     * @param email the customer's email address
+     * @param code  the verification code
+     */
     public void sendEmailVerification(String email, String code) {
-        // simulate async send
-        Mono.delay(Duration.ofSeconds(1))
-                .doOnNext(i -> log.info("[MOCK EMAIL] To={}, code={}", email, code))
-                .then();
+        emailDispatcher.enqueue(verificationEmail.message(email, code));
     }
 }
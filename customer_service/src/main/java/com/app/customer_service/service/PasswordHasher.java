@@ -0,0 +1,177 @@
+package com.app.customer_service.service;
+
+import com.app.customer_service.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.SecureRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt password hashing on a dedicated, bounded scheduler.
+ * <p>
+ * BCrypt is deliberately slow, so it must never run on a Netty event loop: every hash and
+ * check is moved to a fixed set of hashing threads with a bounded task queue, and callers
+ * are rejected instead of queueing without limit. At startup the cost factor can be
+ * calibrated upwards as long as one hash stays within the latency budget on this hardware.
+ * Existing hashes keep verifying after the cost changes, because BCrypt stores the cost
+ * in the hash.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(PasswordHasher.class);
+
+    private final PasswordHashingProperties properties;
+    private final SecureRandom random = new SecureRandom();
+    private final Scheduler scheduler;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer hashTimer;
+    private final Timer matchTimer;
+
+    private volatile BCryptPasswordEncoder encoder;
+    private volatile int strength;
+
+    public PasswordHasher(PasswordHashingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.scheduler = Schedulers.newBoundedElastic(properties.resolveThreads(), properties.getQueueCapacity(),
+                "password-hashing");
+        this.strength = properties.getStrength();
+        this.encoder = new BCryptPasswordEncoder(strength, random);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        registry.gauge("password.hashing.queue.depth", queued);
+        registry.gauge("password.hashing.active", active);
+        registry.gauge("password.hashing.strength", this, hasher -> hasher.strength());
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "hash")
+                .register(registry);
+        this.matchTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "match")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isCalibrate()) {
+            Mono.fromCallable(this::calibrate)
+                    .subscribeOn(scheduler)
+                    .subscribe(calibrated -> {
+                                encoder = new BCryptPasswordEncoder(calibrated, random);
+                                strength = calibrated;
+                                log.info("BCrypt cost calibrated: Strength={}, Budget={}",
+                                        calibrated, properties.getLatencyBudget());
+                            },
+                            error -> log.warn("BCrypt calibration failed, keeping strength {}",
+                                    properties.getStrength(), error));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Hash a raw password.
+     *
+     * @param rawPassword the password
+     * @return Mono of the BCrypt hash, computed on the hashing pool
+     */
+    public Mono<String> hash(String rawPassword) {
+        return offload(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password against a stored hash.
+     *
+     * @param rawPassword the password
+     * @param hash        the stored BCrypt hash
+     * @return Mono<Boolean> true if the password matches, computed on the hashing pool
+     */
+    public Mono<Boolean> matches(String rawPassword, String hash) {
+        return offload(matchTimer, () -> encoder.matches(rawPassword, hash));
+    }
+
+    /**
+     * @return the number of hashing threads, a sensible concurrency for bulk hashing
+     */
+    public int parallelism() {
+        return properties.resolveThreads();
+    }
+
+    /**
+     * @return the cost factor used for new hashes
+     */
+    public int strength() {
+        return strength;
+    }
+
+    private <T> Mono<T> offload(Timer timer, Callable<T> work) {
+        return Mono.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            queued.incrementAndGet();
+            return Mono.fromCallable(() -> {
+                        started.set(true);
+                        queued.decrementAndGet();
+                        active.incrementAndGet();
+                        long start = System.nanoTime();
+                        try {
+                            return work.call();
+                        } finally {
+                            active.decrementAndGet();
+                            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> {
+                        // Rejected or cancelled before it ran
+                        if (started.compareAndSet(false, true)) {
+                            queued.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Find the highest cost whose hash time fits the budget. Each step doubles the work,
+     * so the next cost is only tried if the current one takes at most half the budget.
+     */
+    private int calibrate() {
+        long budgetNanos = properties.getLatencyBudget().toNanos();
+        int candidate = properties.getStrength();
+        while (candidate < properties.getMaxStrength()) {
+            long elapsed = timeHash(candidate);
+            if (elapsed * 2 > budgetNanos) {
+                break;
+            }
+            candidate++;
+        }
+        return candidate;
+    }
+
+    private long timeHash(int cost) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(cost, random);
+        // Warm up once so the measurement is not dominated by class loading and JIT
+        candidate.encode("calibration");
+        long start = System.nanoTime();
+        candidate.encode("calibration");
+        return System.nanoTime() - start;
+    }
+}
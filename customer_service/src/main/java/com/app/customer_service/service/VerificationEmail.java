@@ -0,0 +1,64 @@
+package com.app.customer_service.service;
+
+import com.app.customer_service.notification.EmailMessage;
+import com.app.customer_service.notification.EmailTemplate;
+import com.app.customer_service.repository.CustomerRepository;
+import com.app.customer_service.shared.CustomerStatus;
+import com.app.customer_service.verification.VerificationCodeStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * The email that carries a verification code.
+ * <p>
+ * Only digests of codes are kept, so a spilled-over verification email cannot be rebuilt
+ * with its original code. It is rendered with a fresh code instead, which replaces the one
+ * the customer never received; customers verified in the meantime get no email.
+ */
+@Component
+public class VerificationEmail implements EmailTemplate {
+
+    static final String NAME = "verification";
+
+    private static final Logger log = LoggerFactory
+            .getLogger(VerificationEmail.class);
+
+    private final CustomerRepository customerRepository;
+    private final VerificationCodeStore verificationCodeStore;
+
+    public VerificationEmail(CustomerRepository customerRepository, VerificationCodeStore verificationCodeStore) {
+        this.customerRepository = customerRepository;
+        this.verificationCodeStore = verificationCodeStore;
+    }
+
+    /**
+     * Build the verification email for a code.
+     *
+     * @param email the customer's email address
+     * @param code  the verification code
+     * @return the email
+     */
+    public EmailMessage message(String email, String code) {
+        return new EmailMessage(email, "Verify your email", "Your verification code is " + code, NAME);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<EmailMessage> render(String recipient) {
+        return customerRepository.findByEmail(recipient)
+                .filter(customer -> customer.getStatus() == CustomerStatus.PENDING_VERIFICATION.getValue())
+                .flatMap(customer -> verificationCodeStore.reissue(recipient))
+                // A locked code cannot be replaced yet; the customer has to ask for a new one later
+                .onErrorResume(IllegalStateException.class, error -> {
+                    log.warn("Dropping spilled-over verification email for {}: {}", recipient, error.getMessage());
+                    return Mono.empty();
+                })
+                .map(code -> message(recipient, code));
+    }
+}
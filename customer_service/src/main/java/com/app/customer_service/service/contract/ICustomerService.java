@@ -1,9 +1,17 @@
 package com.app.customer_service.service.contract;
 
+import com.app.customer_service.dto.BulkRegistrationProgress;
 import com.app.customer_service.dto.CustomerDto;
+import com.app.customer_service.shared.CustomerStatus;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 public interface ICustomerService {
     Mono<Object> registerCustomer(CustomerDto customerDto);
     Mono<CustomerDto> verifyCustomer(CustomerDto customerDto);
+    Mono<Void> resendVerificationCode(String email);
+    Flux<BulkRegistrationProgress> registerCustomers(Flux<CustomerDto> customers);
+    Flux<CustomerDto> streamCustomers(CustomerStatus status, UUID after, long limit);
 }
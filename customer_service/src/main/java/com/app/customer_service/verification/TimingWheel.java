@@ -0,0 +1,64 @@
+package com.app.customer_service.verification;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel of keys due for an expiry check.
+ * <p>
+ * Scheduling a key is O(1): it is appended to the slot its deadline falls into.
+ * Every {@link #advance} drains the slots of the passed ticks and hands each key to the
+ * owner, which keeps the authoritative deadline: it removes keys that are due and
+ * schedules the others again, e.g. deadlines more than one revolution away.
+ */
+class TimingWheel<K> {
+
+    private final Queue<K>[] slots;
+    private final long tickNanos;
+    private final long startNanos;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(int size, long tickNanos) {
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * @param key           the key to check at its deadline
+     * @param deadlineNanos the deadline as a System.nanoTime() value
+     */
+    void schedule(K key, long deadlineNanos) {
+        long tick = Math.max(0, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+        slots[(int) (tick % slots.length)].add(key);
+    }
+
+    /**
+     * Drain the slots of all ticks that passed since the last call.
+     * Must not be called concurrently.
+     *
+     * @param nowNanos the current System.nanoTime()
+     * @param expire   called for each key in a drained slot
+     */
+    void advance(long nowNanos, Consumer<K> expire) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        // Never drain more than one revolution, every slot has been visited by then
+        long fromTick = Math.max(currentTick, targetTick - slots.length + 1);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Queue<K> slot = slots[(int) (tick % slots.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                K key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                expire.accept(key);
+            }
+        }
+        currentTick = targetTick + 1;
+    }
+}
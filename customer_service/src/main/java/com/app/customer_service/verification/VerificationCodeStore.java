@@ -0,0 +1,329 @@
+package com.app.customer_service.verification;
+
+import com.app.customer_service.config.VerificationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Expiring store of pending email verification codes.
+ * <p>
+ * Codes live in a bounded in-memory map as SHA-256 digests and are compared in constant
+ * time. Every wrong guess counts against the code; after too many, the code is locked and
+ * rejects every guess until the lockout ends. A timing wheel removes codes once they
+ * expire or their lockout ends.
+ * <p>
+ * With persistence enabled, codes are also written to the verification_codes table and
+ * loaded from it when they are not in memory, e.g. after a restart or on another instance.
+ * The customers table is not touched until a code is confirmed.
+ */
+@Component
+public class VerificationCodeStore {
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO verification_codes (email, code_hash, expires_at) VALUES ";
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (email) DO UPDATE SET code_hash = EXCLUDED.code_hash, expires_at = EXCLUDED.expires_at";
+    private static final String SELECT_SQL =
+            "SELECT code_hash, expires_at FROM verification_codes WHERE email = $1 AND expires_at > $2";
+    private static final String DELETE_SQL =
+            "DELETE FROM verification_codes WHERE email = $1";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM verification_codes WHERE expires_at <= $1";
+
+    private static final Logger log = LoggerFactory
+            .getLogger(VerificationCodeStore.class);
+
+    private final DatabaseClient databaseClient;
+    private final VerificationProperties properties;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TimingWheel<String> wheel;
+    private final int codeBound;
+
+    private Disposable sweeper;
+    private Disposable purger;
+
+    public VerificationCodeStore(DatabaseClient databaseClient, VerificationProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getWheelSize(), properties.getSweepTick().toNanos());
+        this.codeBound = (int) Math.pow(10, properties.getCodeLength());
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper = Flux.interval(properties.getSweepTick(), Schedulers.single())
+                .onBackpressureDrop()
+                .subscribe(tick -> sweep(System.nanoTime()));
+        if (properties.isPersistent()) {
+            purger = Flux.interval(properties.getCodeTtl())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> databaseClient.sql(DELETE_EXPIRED_SQL)
+                            .bind(0, LocalDateTime.now())
+                            .fetch()
+                            .rowsUpdated()
+                            .onErrorResume(error -> {
+                                log.warn("Purging expired verification codes failed", error);
+                                return Mono.empty();
+                            }), 1)
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.dispose();
+        if (purger != null) {
+            purger.dispose();
+        }
+    }
+
+    /**
+     * Issue a new code for an email, replacing any pending one.
+     *
+     * @param email the email to verify
+     * @return Mono of the plain code to send to the customer
+     */
+    public Mono<String> issue(String email) {
+        return issueAll(List.of(email)).map(codes -> codes.get(email));
+    }
+
+    /**
+     * Issue a fresh code for an email whose code was lost or has expired, replacing any
+     * pending one. A code locked after too many wrong guesses is not replaced before its
+     * lockout ends, so asking for a new code does not reset the guess limit.
+     *
+     * @param email the email to verify
+     * @return Mono of the plain code to send to the customer
+     */
+    public Mono<String> reissue(String email) {
+        Entry current = entries.get(email);
+        if (current != null && current.lockedUntilNanos > System.nanoTime()) {
+            return Mono.error(new IllegalStateException("Too many invalid attempts. Please try again later."));
+        }
+        return issue(email);
+    }
+
+    /**
+     * Issue new codes for many emails, persisting them with one statement.
+     *
+     * @param emails the emails to verify
+     * @return Mono of the plain codes by email
+     */
+    public Mono<Map<String, String>> issueAll(Collection<String> emails) {
+        return Mono.defer(() -> {
+            Map<String, String> codes = new LinkedHashMap<>();
+            Map<String, Entry> issued = new LinkedHashMap<>();
+            long expiresAtNanos = System.nanoTime() + properties.getCodeTtl().toNanos();
+            LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getCodeTtl());
+            for (String email : emails) {
+                String code = String.format("%0" + properties.getCodeLength() + "d", random.nextInt(codeBound));
+                codes.put(email, code);
+                issued.put(email, new Entry(digest(code), expiresAtNanos, expiresAt));
+            }
+
+            List<String> notCached = new ArrayList<>();
+            issued.forEach((email, entry) -> {
+                if (!remember(email, entry)) {
+                    notCached.add(email);
+                }
+            });
+            if (!notCached.isEmpty() && !properties.isPersistent()) {
+                notCached.forEach(entries::remove);
+                return Mono.error(new IllegalStateException("Too many pending verifications, please retry later"));
+            }
+            return persist(issued).thenReturn(codes);
+        });
+    }
+
+    /**
+     * Check a code. A wrong code counts as a failed attempt.
+     *
+     * @param email the email being verified
+     * @param code  the code entered by the customer
+     * @return Mono of the result
+     */
+    public Mono<VerificationResult> verify(String email, String code) {
+        Entry cached = entries.get(email);
+        Mono<Entry> entry = cached != null || !properties.isPersistent()
+                ? Mono.justOrEmpty(cached)
+                : load(email);
+        return entry.map(found -> check(email, found, code))
+                .defaultIfEmpty(VerificationResult.NOT_FOUND);
+    }
+
+    /**
+     * Drop the code of an email once it has been confirmed.
+     *
+     * @param email the verified email
+     * @return Mono that completes once the code is removed
+     */
+    public Mono<Void> invalidate(String email) {
+        entries.remove(email);
+        if (!properties.isPersistent()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(DELETE_SQL)
+                .bind(0, email)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private VerificationResult check(String email, Entry entry, String code) {
+        long now = System.nanoTime();
+        if (entry.lockedUntilNanos > now) {
+            return VerificationResult.LOCKED;
+        }
+        if (entry.deadlineNanos() <= now) {
+            entries.remove(email, entry);
+            return VerificationResult.NOT_FOUND;
+        }
+        if (code != null && MessageDigest.isEqual(entry.codeHash, digest(code))) {
+            return VerificationResult.VALID;
+        }
+        if (entry.failedAttempts.incrementAndGet() >= properties.getMaxAttempts()) {
+            entry.lockedUntilNanos = now + properties.getLockout().toNanos();
+            wheel.schedule(email, entry.deadlineNanos());
+            log.warn("Verification code locked after {} failed attempts: {}", properties.getMaxAttempts(), email);
+            // Make sure the locked code cannot be reloaded from the table
+            if (properties.isPersistent()) {
+                invalidatePersisted(email);
+            }
+            return VerificationResult.LOCKED;
+        }
+        return VerificationResult.INVALID;
+    }
+
+    private boolean remember(String email, Entry entry) {
+        if (entries.size() >= properties.getMaxEntries() && !entries.containsKey(email)) {
+            return false;
+        }
+        entries.put(email, entry);
+        wheel.schedule(email, entry.deadlineNanos());
+        return true;
+    }
+
+    private void sweep(long now) {
+        wheel.advance(now, email -> {
+            Entry entry = entries.get(email);
+            if (entry == null) {
+                return;
+            }
+            if (entry.deadlineNanos() <= now) {
+                entries.remove(email, entry);
+            } else {
+                wheel.schedule(email, entry.deadlineNanos());
+            }
+        });
+    }
+
+    private Mono<Void> persist(Map<String, Entry> issued) {
+        if (!properties.isPersistent() || issued.isEmpty()) {
+            return Mono.empty();
+        }
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (int row = 0; row < issued.size(); row++) {
+            int base = row * 3;
+            sql.append(row == 0 ? "(" : ", (")
+                    .append('$').append(base + 1).append(", $").append(base + 2).append(", $").append(base + 3)
+                    .append(')');
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int row = 0;
+        for (Map.Entry<String, Entry> issuedEntry : issued.entrySet()) {
+            int base = row++ * 3;
+            spec = spec.bind(base, issuedEntry.getKey())
+                    .bind(base + 1, HexFormat.of().formatHex(issuedEntry.getValue().codeHash))
+                    .bind(base + 2, issuedEntry.getValue().expiresAt);
+        }
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    private Mono<Entry> load(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(SELECT_SQL)
+                .bind(0, email)
+                .bind(1, now)
+                .map(row -> {
+                    LocalDateTime expiresAt = row.get("expires_at", LocalDateTime.class);
+                    long remainingNanos = Duration.between(now, expiresAt).toNanos();
+                    return new Entry(HexFormat.of().parseHex(row.get("code_hash", String.class)),
+                            System.nanoTime() + remainingNanos, expiresAt);
+                })
+                .one()
+                .map(loaded -> {
+                    // Another request may have loaded it first; its attempt counter wins
+                    Entry existing = entries.putIfAbsent(email, loaded);
+                    if (existing != null) {
+                        return existing;
+                    }
+                    wheel.schedule(email, loaded.deadlineNanos());
+                    return loaded;
+                });
+    }
+
+    private void invalidatePersisted(String email) {
+        databaseClient.sql(DELETE_SQL)
+                .bind(0, email)
+                .fetch()
+                .rowsUpdated()
+                .subscribe(deleted -> { }, error -> log.warn("Deleting locked verification code failed: {}", email, error));
+    }
+
+    private static byte[] digest(String code) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] codeHash;
+        private final long expiresAtNanos;
+        private final LocalDateTime expiresAt;
+        private final AtomicInteger failedAttempts = new AtomicInteger();
+        // nanoTime values may be negative, so "not locked" must compare below any of them
+        private volatile long lockedUntilNanos = Long.MIN_VALUE;
+
+        private Entry(byte[] codeHash, long expiresAtNanos, LocalDateTime expiresAt) {
+            this.codeHash = codeHash;
+            this.expiresAtNanos = expiresAtNanos;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return when the code is dropped: once it expires, or once its lockout ends if it is locked
+         */
+        private long deadlineNanos() {
+            return lockedUntilNanos != Long.MIN_VALUE ? lockedUntilNanos : expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.app.customer_service.verification;
+
+/**
+ * Outcome of checking a verification code.
+ */
+public enum VerificationResult {
+    VALID,
+    INVALID,
+    /**
+     * No pending code, or it has expired.
+     */
+    NOT_FOUND,
+    /**
+     * Too many wrong guesses; the code rejects all attempts until the lockout ends.
+     */
+    LOCKED
+}
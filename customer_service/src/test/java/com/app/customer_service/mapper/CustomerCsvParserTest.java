@@ -0,0 +1,101 @@
+package com.app.customer_service.mapper;
+
+import com.app.customer_service.dto.CustomerDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCsvParserTest {
+
+    private static final String HEADER = "firstName,lastName,identityNumber,phoneNumber,email,dob";
+
+    private final CustomerCsvParser parser = new CustomerCsvParser();
+
+    @Test
+    void parsesOneCustomerPerDataLine() {
+        List<CustomerDto> customers = parse(HEADER,
+                "Jane,Doe,12345678,0712345678,jane@example.com,1990-04-01",
+                "John,Smith,87654321,0787654321,john@example.com,1985-12-31");
+
+        assertThat(customers).hasSize(2);
+        CustomerDto jane = customers.get(0);
+        assertThat(jane.getFirstName()).isEqualTo("Jane");
+        assertThat(jane.getLastName()).isEqualTo("Doe");
+        assertThat(jane.getIdentityNumber()).isEqualTo("12345678");
+        assertThat(jane.getPhoneNumber()).isEqualTo("0712345678");
+        assertThat(jane.getEmail()).isEqualTo("jane@example.com");
+        assertThat(jane.getDob()).isEqualTo(LocalDate.of(1990, 4, 1));
+        assertThat(customers.get(1).getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void columnsAreMatchedByNameInAnyOrderAndCase() {
+        List<CustomerDto> customers = parse("\uFEFFEMAIL, dob ,FirstName,lastname,IdentityNumber,PHONENUMBER",
+                "jane@example.com,1990-04-01,Jane,Doe,12345678,0712345678");
+
+        assertThat(customers).singleElement().satisfies(jane -> {
+            assertThat(jane.getEmail()).isEqualTo("jane@example.com");
+            assertThat(jane.getDob()).isEqualTo(LocalDate.of(1990, 4, 1));
+            assertThat(jane.getFirstName()).isEqualTo("Jane");
+            assertThat(jane.getLastName()).isEqualTo("Doe");
+            assertThat(jane.getIdentityNumber()).isEqualTo("12345678");
+            assertThat(jane.getPhoneNumber()).isEqualTo("0712345678");
+        });
+    }
+
+    @Test
+    void quotedFieldsMayContainCommasAndQuotes() {
+        List<CustomerDto> customers = parse(HEADER,
+                "\"Jane, Mary\",\"O\"\"Neil\",12345678,0712345678,jane@example.com,1990-04-01");
+
+        assertThat(customers).singleElement().satisfies(jane -> {
+            assertThat(jane.getFirstName()).isEqualTo("Jane, Mary");
+            assertThat(jane.getLastName()).isEqualTo("O\"Neil");
+            assertThat(jane.getIdentityNumber()).isEqualTo("12345678");
+        });
+    }
+
+    @Test
+    void unreadableFieldsAreLeftEmpty() {
+        List<CustomerDto> customers = parse(HEADER,
+                "Jane,,12345678, ,jane@example.com,01/04/1990",
+                "John,Smith");
+
+        assertThat(customers).hasSize(2);
+        CustomerDto jane = customers.get(0);
+        assertThat(jane.getLastName()).isNull();
+        assertThat(jane.getPhoneNumber()).isNull();
+        assertThat(jane.getDob()).isNull();
+        assertThat(jane.getEmail()).isEqualTo("jane@example.com");
+        CustomerDto john = customers.get(1);
+        assertThat(john.getLastName()).isEqualTo("Smith");
+        assertThat(john.getIdentityNumber()).isNull();
+        assertThat(john.getDob()).isNull();
+    }
+
+    @Test
+    void blankLinesAreSkipped() {
+        List<CustomerDto> customers = parse("", HEADER, "",
+                "Jane,Doe,12345678,0712345678,jane@example.com,1990-04-01", "   ");
+
+        assertThat(customers).singleElement()
+                .satisfies(jane -> assertThat(jane.getFirstName()).isEqualTo("Jane"));
+    }
+
+    @Test
+    void anUploadWithoutDataLinesYieldsNothing() {
+        StepVerifier.create(parser.parse(Flux.just(HEADER)))
+                .verifyComplete();
+        StepVerifier.create(parser.parse(Flux.empty()))
+                .verifyComplete();
+    }
+
+    private List<CustomerDto> parse(String... lines) {
+        return parser.parse(Flux.just(lines)).collectList().block();
+    }
+}
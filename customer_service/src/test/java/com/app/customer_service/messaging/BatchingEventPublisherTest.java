@@ -0,0 +1,115 @@
+package com.app.customer_service.messaging;
+
+import com.app.customer_service.config.RabbitMQProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class BatchingEventPublisherTest {
+
+    private final CountDownLatch brokerAvailable = new CountDownLatch(1);
+    private final RabbitOperations channel = mock(RabbitOperations.class);
+    private final RabbitMQProperties properties = new RabbitMQProperties();
+
+    private BatchingEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setExchange("account.exchange");
+        properties.setRoutingKey("account.key");
+        properties.getPublisher().setBatchSize(1);
+        properties.getPublisher().setQueueCapacity(8);
+        properties.getPublisher().setMaxInFlightBatches(1);
+
+        // Every message sent is confirmed by the broker
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(channel).convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class),
+                any(CorrelationData.class));
+
+        RabbitTemplate rabbitTemplate = new RabbitTemplate() {
+            @Override
+            public <T> T invoke(OperationsCallback<T> action, com.rabbitmq.client.ConfirmCallback acks,
+                                com.rabbitmq.client.ConfirmCallback nacks) {
+                try {
+                    brokerAvailable.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return action.doInRabbit(channel);
+            }
+        };
+
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        publisher = new BatchingEventPublisher(rabbitTemplate, properties, beans.getBeanProvider(MeterRegistry.class),
+                beans.getBeanProvider(Tracer.class), beans.getBeanProvider(Propagator.class));
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        brokerAvailable.countDown();
+        publisher.stop();
+    }
+
+    @Test
+    void publishCompletesOnceConfirmed() {
+        brokerAvailable.countDown();
+
+        StepVerifier.create(publisher.publish("event", null))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void fullQueueRejectsEventsWithoutStoppingThePublisher() throws InterruptedException {
+        int events = 200;
+        CountDownLatch done = new CountDownLatch(events);
+        AtomicInteger confirmed = new AtomicInteger();
+        ConcurrentHashMap<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+        for (int i = 0; i < events; i++) {
+            publisher.publish("event-" + i, null).subscribe(
+                    null,
+                    error -> {
+                        errors.computeIfAbsent(error.getMessage(), message -> new AtomicInteger()).incrementAndGet();
+                        done.countDown();
+                    },
+                    () -> {
+                        confirmed.incrementAndGet();
+                        done.countDown();
+                    });
+        }
+        brokerAvailable.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(errors).containsOnlyKeys("Event publisher is overloaded, please retry");
+        assertThat(confirmed.get()).isPositive();
+
+        StepVerifier.create(publisher.publish("after-overload", null))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
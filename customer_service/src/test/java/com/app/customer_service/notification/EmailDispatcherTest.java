@@ -0,0 +1,170 @@
+package com.app.customer_service.notification;
+
+import com.app.customer_service.config.NotificationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailDispatcherTest {
+
+    private static final int EMAILS = 100;
+
+    private final EmailProvider provider = mock(EmailProvider.class);
+    private final EmailOutbox emailOutbox = mock(EmailOutbox.class);
+    private final NotificationProperties properties = new NotificationProperties();
+    private final Sinks.One<Void> providerAvailable = Sinks.one();
+    private final CountDownLatch handled = new CountDownLatch(EMAILS);
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger spilled = new AtomicInteger();
+    private final List<EmailMessage> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<EmailOutbox.StoredEmail> outboxRows = new ConcurrentLinkedQueue<>();
+    private final DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setQueueCapacity(4);
+        properties.setBatchSize(1);
+        properties.setConcurrency(1);
+        properties.setRatePerSecond(100_000);
+        properties.setBurst(100_000);
+        properties.setSpilloverPollInterval(Duration.ofMillis(20));
+
+        when(provider.name()).thenReturn("test");
+        when(provider.send(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> batch = invocation.getArgument(0);
+            return providerAvailable.asMono().doOnSuccess(ignored -> {
+                delivered.addAll(batch);
+                count(sent, batch.size());
+            });
+        });
+        when(emailOutbox.store(anyList())).thenAnswer(invocation -> {
+            List<EmailMessage> batch = invocation.getArgument(0);
+            count(spilled, batch.size());
+            return Mono.just((long) batch.size());
+        });
+        when(emailOutbox.claimDue(anyInt(), any(Duration.class), anyInt())).thenAnswer(invocation -> {
+            List<EmailOutbox.StoredEmail> claimed = new ArrayList<>();
+            EmailOutbox.StoredEmail row;
+            while (claimed.size() < (int) invocation.getArgument(0) && (row = outboxRows.poll()) != null) {
+                claimed.add(row);
+            }
+            return Flux.fromIterable(claimed);
+        });
+        when(emailOutbox.delete(any())).thenAnswer(invocation ->
+                Mono.just((long) invocation.<Collection<Long>>getArgument(0).size()));
+
+        dispatcher = new EmailDispatcher(provider, emailOutbox, beans.getBeanProvider(EmailTemplate.class),
+                properties, beans.getBeanProvider(MeterRegistry.class));
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Test
+    void fullQueueSpillsEmailsToTheOutboxAndKeepsAcceptingEmails() throws InterruptedException {
+        for (int i = 0; i < EMAILS; i++) {
+            dispatcher.enqueue(new EmailMessage("customer" + i + "@example.com", "Welcome", "Hello"));
+        }
+        providerAvailable.tryEmitEmpty();
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(spilled.get()).isPositive();
+        assertThat(sent.get() + spilled.get()).isEqualTo(EMAILS);
+
+        // The overflow did not terminate the queue
+        int sentBefore = sent.get();
+        dispatcher.enqueue(new EmailMessage("late@example.com", "Welcome", "Hello"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sent.get() == sentBefore && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sent.get()).isEqualTo(sentBefore + 1);
+    }
+
+    @Test
+    void shutdownSpillsEmailsThatAreNotSentInTime() throws InterruptedException {
+        properties.setShutdownTimeout(Duration.ofMillis(200));
+        for (int i = 0; i < EMAILS; i++) {
+            dispatcher.enqueue(new EmailMessage("customer" + i + "@example.com", "Welcome", "Hello"));
+        }
+
+        // The provider never accepts the batch being sent
+        dispatcher.stop();
+
+        assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent.get()).isZero();
+        assertThat(spilled.get()).isEqualTo(EMAILS);
+    }
+
+    @Test
+    void spilledEmailsStoredByTemplateAreRenderedAgain() throws InterruptedException {
+        beans.registerSingleton("verificationEmail", new EmailTemplate() {
+            @Override
+            public String name() {
+                return "verification";
+            }
+
+            @Override
+            public Mono<EmailMessage> render(String recipient) {
+                return "verified@example.com".equals(recipient)
+                        ? Mono.empty()
+                        : Mono.just(new EmailMessage(recipient, "Verify your email", "Code 123456", "verification"));
+            }
+        });
+        providerAvailable.tryEmitEmpty();
+
+        outboxRows.add(new EmailOutbox.StoredEmail(1L, new EmailMessage("plain@example.com", "Welcome", "Hello")));
+        outboxRows.add(new EmailOutbox.StoredEmail(2L,
+                new EmailMessage("pending@example.com", "Verify your email", null, "verification")));
+        outboxRows.add(new EmailOutbox.StoredEmail(3L,
+                new EmailMessage("verified@example.com", "Verify your email", null, "verification")));
+        outboxRows.add(new EmailOutbox.StoredEmail(4L,
+                new EmailMessage("other@example.com", "Promotion", null, "unknown")));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sent.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(delivered)
+                .extracting(EmailMessage::to, EmailMessage::body)
+                .containsExactly(
+                        tuple("plain@example.com", "Hello"),
+                        tuple("pending@example.com", "Code 123456"));
+    }
+
+    private void count(AtomicInteger counter, int emails) {
+        counter.addAndGet(emails);
+        for (int i = 0; i < emails; i++) {
+            handled.countDown();
+        }
+    }
+}
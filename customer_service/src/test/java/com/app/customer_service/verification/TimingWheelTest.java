@@ -0,0 +1,67 @@
+package com.app.customer_service.verification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void keyIsHandedOverNoEarlierThanItsDeadlineAndAtMostOneTickLate() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, TICK);
+        long now = System.nanoTime();
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("code", now + 3 * TICK);
+
+        wheel.advance(now + 3 * TICK - 1, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(now + 4 * TICK, expired::add);
+        assertThat(expired).containsExactly("code");
+    }
+
+    @Test
+    void keyDueInALaterRevolutionIsHandedOverToBeScheduledAgain() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, TICK);
+        long now = System.nanoTime();
+        long deadline = now + 10 * TICK;
+        List<Long> handedOverAt = new ArrayList<>();
+        wheel.schedule("code", deadline);
+
+        for (long at = now; handedOverAt.isEmpty() || handedOverAt.get(handedOverAt.size() - 1) < deadline;
+             at += TICK) {
+            long current = at;
+            wheel.advance(current, key -> {
+                handedOverAt.add(current);
+                // The owner keeps the real deadline and schedules the key again
+                if (current < deadline) {
+                    wheel.schedule(key, deadline);
+                }
+            });
+            assertThat(at).isLessThan(deadline + 2 * TICK);
+        }
+
+        assertThat(handedOverAt).hasSizeGreaterThan(1);
+        assertThat(handedOverAt.get(handedOverAt.size() - 1)).isBetween(deadline, deadline + TICK);
+    }
+
+    @Test
+    void longPauseDrainsEverySlotOnce() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(4, TICK);
+        long now = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            wheel.schedule(i, now + i * TICK);
+        }
+        List<Integer> expired = new ArrayList<>();
+
+        wheel.advance(now + 100 * TICK, expired::add);
+
+        assertThat(expired).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+}
@@ -0,0 +1,137 @@
+package com.app.customer_service.verification;
+
+import com.app.customer_service.config.VerificationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VerificationCodeStoreTest {
+
+    private static final String EMAIL = "jane@example.com";
+
+    private final VerificationProperties properties = new VerificationProperties();
+    private VerificationCodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxAttempts(3);
+        properties.setSweepTick(Duration.ofMillis(10));
+        properties.setWheelSize(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stop();
+    }
+
+    @Test
+    void issuedCodeIsValid() {
+        start();
+        String code = store.issue(EMAIL).block();
+
+        assertThat(code).hasSize(properties.getCodeLength()).containsOnlyDigits();
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.VALID);
+        assertThat(store.verify("john@example.com", code).block()).isEqualTo(VerificationResult.NOT_FOUND);
+    }
+
+    @Test
+    void tooManyWrongGuessesLockTheCode() {
+        start();
+        String code = store.issue(EMAIL).block();
+
+        assertThat(store.verify(EMAIL, wrong(code)).block()).isEqualTo(VerificationResult.INVALID);
+        assertThat(store.verify(EMAIL, wrong(code)).block()).isEqualTo(VerificationResult.INVALID);
+        assertThat(store.verify(EMAIL, wrong(code)).block()).isEqualTo(VerificationResult.LOCKED);
+        // Even the right code is rejected while locked
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.LOCKED);
+    }
+
+    @Test
+    void lockedCodeIsDroppedOnceTheLockoutEnds() throws InterruptedException {
+        properties.setLockout(Duration.ofMillis(200));
+        start();
+        String code = store.issue(EMAIL).block();
+        for (int i = 0; i < properties.getMaxAttempts(); i++) {
+            store.verify(EMAIL, wrong(code)).block();
+        }
+
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.LOCKED);
+        Thread.sleep(400);
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.NOT_FOUND);
+    }
+
+    @Test
+    void expiredCodeIsNotFound() throws InterruptedException {
+        properties.setCodeTtl(Duration.ofMillis(100));
+        start();
+        String code = store.issue(EMAIL).block();
+
+        Thread.sleep(200);
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.NOT_FOUND);
+    }
+
+    @Test
+    void expiredCodesAreSweptToMakeRoom() throws InterruptedException {
+        properties.setCodeTtl(Duration.ofMillis(100));
+        properties.setMaxEntries(1);
+        start();
+        store.issue(EMAIL).block();
+
+        StepVerifier.create(store.issue("john@example.com"))
+                .expectErrorMessage("Too many pending verifications, please retry later")
+                .verify();
+        Thread.sleep(300);
+        StepVerifier.create(store.issue("john@example.com"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void reissueReplacesTheCodeButNotALockout() {
+        start();
+        String first = store.issue(EMAIL).block();
+        String second = store.reissue(EMAIL).block();
+
+        if (!second.equals(first)) {
+            assertThat(store.verify(EMAIL, first).block()).isEqualTo(VerificationResult.INVALID);
+        }
+        assertThat(store.verify(EMAIL, second).block()).isEqualTo(VerificationResult.VALID);
+
+        for (int i = 0; i < properties.getMaxAttempts(); i++) {
+            store.verify(EMAIL, wrong(second)).block();
+        }
+        StepVerifier.create(store.reissue(EMAIL))
+                .expectErrorMessage("Too many invalid attempts. Please try again later.")
+                .verify();
+        assertThat(store.verify(EMAIL, second).block()).isEqualTo(VerificationResult.LOCKED);
+    }
+
+    @Test
+    void lostCodeCanBeReissued() throws InterruptedException {
+        properties.setCodeTtl(Duration.ofMillis(100));
+        start();
+        store.issue(EMAIL).block();
+        Thread.sleep(200);
+
+        String code = store.reissue(EMAIL).block();
+
+        assertThat(store.verify(EMAIL, code).block()).isEqualTo(VerificationResult.VALID);
+    }
+
+    private void start() {
+        store = new VerificationCodeStore(mock(DatabaseClient.class), properties);
+        store.start();
+    }
+
+    private static String wrong(String code) {
+        char last = code.charAt(code.length() - 1);
+        return code.substring(0, code.length() - 1) + (last == '9' ? '0' : (char) (last + 1));
+    }
+}
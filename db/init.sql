@@ -23,6 +23,8 @@ CREATE TABLE customers (
 
 -- Index for faster lookups
 CREATE INDEX idx_customers_email ON customers(email);
+-- Keyset pagination of customers by status, oldest first
+CREATE INDEX idx_customers_status_created ON customers(status, created_date, id);
 
 -- ==============================================================
 -- 2. ACCOUNTS TABLE
@@ -45,7 +47,10 @@ CREATE TABLE accounts (
         ON DELETE CASCADE
 );
 
-CREATE INDEX idx_accounts_customer_id ON accounts(customer_id);
+-- One account per customer; also makes a redelivered AccountCreationEvent harmless
+CREATE UNIQUE INDEX idx_accounts_customer_id ON accounts(customer_id);
+-- Keyset pagination of accounts by status; the unfiltered listing uses the account_number unique index
+CREATE INDEX idx_accounts_status_number ON accounts(status, account_number);
 
 -- ==============================================================
 -- 3. LOANS TABLE
@@ -67,4 +72,107 @@ CREATE TABLE loans (
         ON DELETE CASCADE
 );
 
-CREATE INDEX idx_loans_account_id ON loans(account_id);
+-- Lookups by account and keyset pagination of an account's loans, oldest first
+CREATE INDEX idx_loans_account_created ON loans(account_id, created_at, id);
+
+-- ==============================================================
+-- 4. ACCOUNT TRANSACTIONS TABLE (append-only journal)
+-- ==============================================================
+
+CREATE TABLE account_transactions (
+    id BIGSERIAL PRIMARY KEY,
+
+    account_id UUID NOT NULL,
+    type VARCHAR(10) NOT NULL,  -- OPENING / CREDIT / DEBIT
+    amount NUMERIC(15,2) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_account_transactions_account
+        FOREIGN KEY (account_id)
+        REFERENCES accounts (id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_account_transactions_account_id ON account_transactions(account_id, id);
+
+-- ==============================================================
+-- 5. OUTBOX EVENTS TABLE
+-- ==============================================================
+
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+
+    source VARCHAR(50) NOT NULL,  -- name of the producing service
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    trace_parent VARCHAR(55),  -- W3C traceparent of the request that wrote the event
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    failed_at TIMESTAMP,  -- set when the event can never be published
+    claimed_until TIMESTAMP  -- lease of the relay instance publishing the event
+);
+
+-- Partial index so the relay only scans events that still need publishing
+CREATE INDEX idx_outbox_events_pending ON outbox_events(source, id) WHERE published_at IS NULL AND failed_at IS NULL;
+-- Lets the cleanup find published events past their retention
+CREATE INDEX idx_outbox_events_published ON outbox_events(source, published_at) WHERE published_at IS NOT NULL;
+
+-- ==============================================================
+-- 6. PROCESSED EVENTS TABLE (consumer idempotency)
+-- ==============================================================
+
+CREATE TABLE processed_events (
+    event_id UUID PRIMARY KEY,
+    processed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ==============================================================
+-- 7. EMAIL OUTBOX TABLE (notification spillover)
+-- ==============================================================
+
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+
+    recipient VARCHAR(150) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT,  -- NULL when the email is rendered again from its template
+    template VARCHAR(50),  -- template of emails whose body must not be stored
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Lets the drainer find due emails without scanning the whole table
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at, id);
+
+-- ==============================================================
+-- 8. VERIFICATION CODES TABLE (optional persistence of pending codes)
+-- ==============================================================
+
+CREATE TABLE verification_codes (
+    email VARCHAR(150) PRIMARY KEY,
+    code_hash VARCHAR(64) NOT NULL,  -- SHA-256 of the code, hex encoded
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- ==============================================================
+-- 9. ACCOUNT BALANCE SNAPSHOTS TABLE (journal checkpoints)
+-- ==============================================================
+
+CREATE TABLE account_balance_snapshots (
+    account_id UUID NOT NULL,
+    last_transaction_id BIGINT NOT NULL,  -- last journal entry included in the balance
+    balance NUMERIC(15,2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (account_id, last_transaction_id),
+
+    CONSTRAINT fk_account_balance_snapshots_account
+        FOREIGN KEY (account_id)
+        REFERENCES accounts (id)
+        ON DELETE CASCADE
+);
+
+-- Lets the next snapshot find where the previous one ended
+CREATE INDEX idx_account_balance_snapshots_last ON account_balance_snapshots(last_transaction_id);
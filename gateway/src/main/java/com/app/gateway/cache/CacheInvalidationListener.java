@@ -0,0 +1,75 @@
+package com.app.gateway.cache;
+
+import com.app.gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Drops cached responses when a domain event reports that the data behind them changed.
+ * <p>
+ * Events are read as plain JSON, since the event classes live in the services. Every
+ * cached response whose path contains an ID carried by the event is dropped, together
+ * with all cached responses of the routes configured for the event's exchange.
+ * <p>
+ * Events are relayed once the publishing service committed the change, so they invalidate
+ * the publisher's data in time; a service consuming the same event may still be applying
+ * it, and responses built from its data are bounded by their route's TTL instead.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public CacheInvalidationListener(ResponseCache cache, ResponseCacheProperties properties,
+                                     ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onEvent(Message message) {
+        MessageProperties messageProperties = message.getMessageProperties();
+        for (ResponseCacheProperties.Invalidation invalidation : properties.getInvalidations()) {
+            if (Objects.equals(invalidation.getExchange(), messageProperties.getReceivedExchange())
+                    && Objects.equals(invalidation.getRoutingKey(), messageProperties.getReceivedRoutingKey())) {
+                invalidation.getRoutes().forEach(cache::invalidateRoute);
+            }
+        }
+
+        try {
+            Set<String> ids = new HashSet<>();
+            collectIds(objectMapper.readTree(message.getBody()), ids);
+            cache.invalidateContaining(ids);
+        } catch (IOException e) {
+            log.warn("Unreadable event from {}, Reason={}", messageProperties.getReceivedExchange(), e.getMessage());
+        }
+    }
+
+    private static void collectIds(JsonNode node, Set<String> ids) {
+        if (node.isTextual() && UUID_PATTERN.matcher(node.textValue()).matches()) {
+            ids.add(node.textValue());
+        } else if (node.isContainerNode()) {
+            node.forEach(child -> collectIds(child, ids));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A response held by the {@link ResponseCache}.
+ *
+ * @param routeId  the route that produced the response
+ * @param path     the request path, used for event-based invalidation
+ * @param status   the response status
+ * @param headers  the response headers, including the ETag
+ * @param body     the response body
+ * @param eTag     the strong ETag of the body
+ * @param ttl      how long the response may be served from the cache
+ * @param storedAt when the response was stored, used for the Age header
+ */
+public record CachedResponse(String routeId, String path, HttpStatusCode status, HttpHeaders headers,
+                             byte[] body, String eTag, Duration ttl, Instant storedAt) {
+}
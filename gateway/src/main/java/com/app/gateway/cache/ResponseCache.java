@@ -0,0 +1,84 @@
+package com.app.gateway.cache;
+
+import com.app.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Store of cached GET responses shared by all routes, bounded by the total size of the
+ * response bodies. Every entry expires after its own TTL, set by the route's ResponseCache
+ * filter and shortened by the backend's Cache-Control max-age.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    // Weight of the key, headers and bookkeeping of an entry, on top of its body
+    private static final int ENTRY_OVERHEAD = 1024;
+
+    private final Cache<String, CachedResponse> responses;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight().toBytes())
+                .weigher((String key, CachedResponse response) -> ENTRY_OVERHEAD + response.body().length)
+                .expireAfter(Expiry.creating((String key, CachedResponse response) -> response.ttl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                responses, "gateway.responses");
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    /**
+     * Drop all cached responses of a route.
+     *
+     * @param routeId the route ID
+     */
+    public void invalidateRoute(String routeId) {
+        responses.asMap().values().removeIf(response -> response.routeId().equals(routeId));
+    }
+
+    /**
+     * Drop the cached responses of a route for one path, whatever their query and Accept header.
+     *
+     * @param routeId the route ID
+     * @param path    the raw request path
+     */
+    public void invalidatePath(String routeId, String path) {
+        responses.asMap().values().removeIf(response -> response.routeId().equals(routeId)
+                && response.path().equals(path));
+    }
+
+    /**
+     * Drop all cached responses whose path contains any of the given IDs.
+     *
+     * @param ids entity IDs, e.g. a loan or customer ID
+     */
+    public void invalidateContaining(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        int before = responses.asMap().size();
+        responses.asMap().values().removeIf(response -> ids.stream().anyMatch(id -> response.path().contains(id)));
+        log.debug("Invalidated cached responses for ids {}: {} removed", ids, before - responses.asMap().size());
+    }
+}
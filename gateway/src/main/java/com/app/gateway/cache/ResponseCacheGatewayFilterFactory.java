@@ -0,0 +1,309 @@
+package com.app.gateway.cache;
+
+import com.app.gateway.config.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caches JSON responses to GET requests of a route in the shared {@link ResponseCache}.
+ * <p>
+ * Every cached response carries a strong ETag, so a request whose If-None-Match matches
+ * is answered with 304 Not Modified, whether it is served from the cache or the backend.
+ * Requests carrying a header of gateway.cache.bypass-headers, such as Authorization, get
+ * responses scoped to their caller and bypass the cache.
+ * Cache-Control is honoured both ways: requests with no-store bypass the cache and requests
+ * with no-cache always go to the backend, while responses marked no-store, no-cache or
+ * private are never stored and a max-age shorter than the route TTL wins. Streaming
+ * responses are passed through untouched.
+ * <p>
+ * A successful unsafe request drops the cached responses of its own path and of the paths
+ * in its Location and Content-Location headers, as RFC 9111 section 4.4 describes. Other
+ * responses it may have changed, such as a listing that includes the changed resource,
+ * are served until their TTL ends, so the route TTL bounds how stale they get.
+ * <p>
+ * Usage: {@code - ResponseCache=30s}
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])(?:max-age|s-maxage)=(\\d+)");
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache, ResponseCacheProperties properties) {
+        super(Config.class);
+        this.cache = cache;
+        this.properties = properties;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes it
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String routeId = routeId(exchange);
+
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                if (HttpMethod.HEAD.equals(request.getMethod()) || HttpMethod.OPTIONS.equals(request.getMethod())) {
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> invalidate(exchange, routeId)));
+            }
+
+            String requestCacheControl = cacheControl(request.getHeaders());
+            if (requestCacheControl.contains("no-store") || isScopedToCaller(request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = key(routeId, request);
+            if (!requestCacheControl.contains("no-cache")) {
+                CachedResponse cached = cache.get(key);
+                if (cached != null) {
+                    return writeCached(exchange, cached);
+                }
+            }
+
+            CachingResponse response = new CachingResponse(exchange, routeId, key, config.getTtl());
+            return chain.filter(exchange.mutate().response(response).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private void invalidate(ServerWebExchange exchange, String routeId) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || status.isError()) {
+            return;
+        }
+        URI target = exchange.getRequest().getURI();
+        cache.invalidatePath(routeId, target.getRawPath());
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        for (String name : List.of(HttpHeaders.LOCATION, HttpHeaders.CONTENT_LOCATION)) {
+            String location = headers.getFirst(name);
+            if (location == null) {
+                continue;
+            }
+            try {
+                URI resolved = target.resolve(location);
+                // Only locations on this gateway can be cached here
+                if (Objects.equals(resolved.getHost(), target.getHost()) && resolved.getPort() == target.getPort()) {
+                    cache.invalidatePath(routeId, resolved.getRawPath());
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a valid URI, nothing to drop
+            }
+        }
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(Duration.between(cached.storedAt(), Instant.now()).toSeconds()));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+
+        if (matches(exchange.getRequest(), cached.eTag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private boolean isScopedToCaller(ServerHttpRequest request) {
+        for (String header : properties.getBypassHeaders()) {
+            if (request.getHeaders().containsKey(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    private static String key(String routeId, ServerHttpRequest request) {
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return routeId + ' ' + request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+                + ' ' + (accept == null ? "" : accept);
+    }
+
+    private static String cacheControl(HttpHeaders headers) {
+        return String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Weak comparison, as required for If-None-Match.
+     */
+    private static boolean matches(ServerHttpRequest request, String eTag) {
+        String opaque = stripWeak(eTag);
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static String eTagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Buffers a cacheable response body, stores it and answers conditional requests.
+     * Streaming responses are written through writeAndFlushWith and are not buffered.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String routeId;
+        private final String key;
+        private final Duration routeTtl;
+
+        CachingResponse(ServerWebExchange exchange, String routeId, String key, Duration routeTtl) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.routeId = routeId;
+            this.key = key;
+            this.routeTtl = routeTtl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Duration ttl = ttl();
+            if (ttl.isZero()) {
+                return super.writeWith(body);
+            }
+            return Flux.from(body).collectList().flatMap(buffers -> {
+                byte[] bytes;
+                if (buffers.isEmpty()) {
+                    bytes = new byte[0];
+                } else {
+                    DataBuffer joined = bufferFactory().join(buffers);
+                    bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                }
+
+                HttpHeaders headers = getHeaders();
+                String eTag = headers.getETag();
+                if (eTag == null) {
+                    eTag = eTagOf(bytes);
+                    headers.setETag(eTag);
+                }
+                if (bytes.length <= properties.getMaxBodySize().toBytes()) {
+                    HttpHeaders stored = new HttpHeaders();
+                    stored.putAll(headers);
+                    stored.remove(HttpHeaders.TRANSFER_ENCODING);
+                    stored.remove(HttpHeaders.CONNECTION);
+                    stored.remove(HttpHeaders.DATE);
+                    cache.put(key, new CachedResponse(routeId, exchange.getRequest().getURI().getRawPath(),
+                            getStatusCode(), HttpHeaders.readOnlyHttpHeaders(stored), bytes, eTag, ttl, Instant.now()));
+                }
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+
+                if (matches(exchange.getRequest(), eTag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    return setComplete();
+                }
+                headers.setContentLength(bytes.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        /**
+         * @return how long the response may be cached, zero if it must not be cached
+         */
+        private Duration ttl() {
+            HttpHeaders headers = getHeaders();
+            if (!HttpStatus.OK.equals(getStatusCode())
+                    || headers.getContentType() == null
+                    || !MediaType.APPLICATION_JSON.isCompatibleWith(headers.getContentType())
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.getVary().contains("*")
+                    || headers.getContentLength() > properties.getMaxBodySize().toBytes()) {
+                return Duration.ZERO;
+            }
+            String cacheControl = cacheControl(headers);
+            if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")
+                    || cacheControl.contains("private")) {
+                return Duration.ZERO;
+            }
+            Matcher maxAge = MAX_AGE.matcher(cacheControl);
+            if (maxAge.find()) {
+                Duration backendTtl = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+                return backendTtl.compareTo(routeTtl) < 0 ? backendTtl : routeTtl;
+            }
+            return routeTtl;
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * How long responses of the route are cached; zero disables caching.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.app.gateway.coalescing;
+
+import com.app.gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Collapses identical GET requests that are in flight at the same time into one backend call.
+ * <p>
+ * The first request for a route, path, query and caller scope goes to the backend; requests
+ * arriving while it is in flight wait for its response and receive a copy of it. Nothing is
+ * kept once the response is written, so this only removes concurrent duplicates and never
+ * serves a response that is older than the request. Requests accepting NDJSON or server-sent
+ * events are never coalesced. If the first response cannot be shared, because it streams, is
+ * too large or the call fails, the waiting requests go to the backend on their own.
+ * <p>
+ * Usage: {@code - CoalesceRequests}, after ResponseCache if both are used.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceRequestsGatewayFilterFactory.Config> {
+
+    private static final String COALESCED_HEADER = "X-Coalesced";
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalesceRequestsGatewayFilterFactory(CoalescingProperties properties,
+                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("gateway.requests.coalescing.ratio", this.meterRegistry, CoalesceRequestsGatewayFilterFactory::ratio)
+                .description("Share of coalescable requests answered without a backend call of their own")
+                .register(this.meterRegistry);
+        Gauge.builder("gateway.requests.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct backend calls currently awaited by coalesced requests")
+                .register(this.meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes it
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod()) || acceptsStream(request)) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = routeId(exchange);
+            String key = key(routeId, request);
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+            if (leader != null) {
+                counter(routeId, "follower").increment();
+                return leader.asMono()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> shared.isPresent()
+                                ? write(exchange.getResponse(), shared.get())
+                                : fallback(exchange, chain, routeId));
+            }
+
+            counter(routeId, "leader").increment();
+            SharingResponse response = new SharingResponse(exchange.getResponse(), key, sink);
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> response.release());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, GatewayFilterChain chain, String routeId) {
+        counter(routeId, "fallback").increment();
+        return chain.filter(exchange);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private Counter counter(String routeId, String role) {
+        return Counter.builder("gateway.requests.coalescing")
+                .tag("route", routeId)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private static double ratio(MeterRegistry registry) {
+        double followers = 0;
+        double total = 0;
+        for (Counter counter : registry.find("gateway.requests.coalescing").counters()) {
+            String role = counter.getId().getTag("role");
+            if ("leader".equals(role)) {
+                total += counter.count();
+            } else if ("follower".equals(role)) {
+                followers += counter.count();
+                total += counter.count();
+            } else if ("fallback".equals(role)) {
+                followers -= counter.count();
+            }
+        }
+        return total == 0 ? 0 : followers / total;
+    }
+
+    private String key(String routeId, ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        StringBuilder key = new StringBuilder(routeId).append(' ')
+                .append(request.getURI().getRawPath()).append('?').append(request.getURI().getRawQuery())
+                .append(' ').append(headers.getOrEmpty(HttpHeaders.ACCEPT))
+                .append(' ').append(headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+        for (String header : properties.getScopeHeaders()) {
+            key.append(' ').append(headers.getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private static boolean acceptsStream(ServerHttpRequest request) {
+        // Wildcards such as */* accept a buffered response as well, so only an explicit streaming type counts
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                        || type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Buffers the leader's response and hands a copy to the waiting requests before
+     * writing it. Once the body grows beyond the maximum size, what was buffered and the
+     * rest of the body are passed on as they arrive and the response is not shared.
+     * Streaming responses are written through writeAndFlushWith and are not shared either.
+     */
+    private class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Sinks.One<SharedResponse> sink;
+
+        SharingResponse(ServerHttpResponse delegate, String key, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // A 304 answers the leader's conditional request only
+            if (getStatusCode() == null || getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                release();
+                return super.writeWith(body);
+            }
+
+            long maxBodySize = properties.getMaxBodySize().toBytes();
+            AtomicLong size = new AtomicLong();
+            Flux<DataBuffer> shared = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodySize)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatMap(buffers -> {
+                        if (size.get() > maxBodySize) {
+                            release();
+                            return Flux.fromIterable(buffers);
+                        }
+                        return Flux.just(share(buffers));
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> share(List.of())));
+            return super.writeWith(shared);
+        }
+
+        private DataBuffer share(List<DataBuffer> buffers) {
+            byte[] bytes;
+            if (buffers.isEmpty()) {
+                bytes = new byte[0];
+            } else {
+                DataBuffer joined = bufferFactory().join(buffers);
+                bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONNECTION);
+            headers.setContentLength(bytes.length);
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+            return bufferFactory().wrap(bytes);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            release();
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            release();
+            return super.setComplete();
+        }
+
+        /**
+         * Let waiting requests fall back to their own backend call, unless the response was shared.
+         */
+        void release() {
+            inFlight.remove(key, sink);
+            sink.tryEmitEmpty();
+        }
+    }
+
+    public static class Config {
+    }
+}
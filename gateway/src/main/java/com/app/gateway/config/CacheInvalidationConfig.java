@@ -0,0 +1,36 @@
+package com.app.gateway.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Binds an exclusive, auto-delete queue of this gateway instance to the exchanges of the
+ * domain events that invalidate cached responses, so every instance sees every event.
+ * The exchanges are owned by the services and are not declared here.
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    public AnonymousQueue cacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("gateway.cache."));
+    }
+
+    @Bean
+    public Declarables cacheInvalidationBindings(AnonymousQueue cacheInvalidationQueue,
+                                                 ResponseCacheProperties properties) {
+        List<Declarable> bindings = properties.getInvalidations().stream()
+                .<Declarable>map(invalidation -> new Binding(cacheInvalidationQueue.getName(),
+                        Binding.DestinationType.QUEUE, invalidation.getExchange(),
+                        invalidation.getRoutingKey(), null))
+                .toList();
+        return new Declarables(bindings);
+    }
+}
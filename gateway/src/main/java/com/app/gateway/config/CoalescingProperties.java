@@ -0,0 +1,43 @@
+package com.app.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the CoalesceRequests filter.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Request headers that scope a response to a caller. Requests are only
+     * coalesced if all of them match.
+     */
+    private List<String> scopeHeaders = new ArrayList<>(List.of("Authorization", "Cookie", "X-Client-Id"));
+
+    /**
+     * Responses with a larger body are not shared; waiting requests call the backend themselves.
+     */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    public List<String> getScopeHeaders() {
+        return scopeHeaders;
+    }
+
+    public void setScopeHeaders(List<String> scopeHeaders) {
+        this.scopeHeaders = scopeHeaders;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the adaptive concurrency limit kept for every route.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Concurrent requests allowed per route before any latency was observed.
+     */
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 500;
+
+    /**
+     * How far the short-term latency may rise above the long-term latency
+     * before the limit starts to shrink.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Weight of a new limit estimate against the current limit.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of samples the long-term latency average spans.
+     */
+    private int longWindow = 600;
+
+    /**
+     * Number of samples the short-term latency average spans.
+     */
+    private int shortWindow = 10;
+
+    /**
+     * Factor the limit is multiplied by when a request fails or times out.
+     */
+    private double backoffRatio = 0.9;
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    public int getShortWindow() {
+        return shortWindow;
+    }
+
+    public void setShortWindow(int shortWindow) {
+        this.shortWindow = shortWindow;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+}
@@ -0,0 +1,137 @@
+package com.app.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the latency-aware load balancer used for lb:// routes.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancingProperties {
+
+    /**
+     * How the better of two randomly picked instances is chosen.
+     */
+    private Strategy strategy = Strategy.PEAK_EWMA;
+
+    /**
+     * Time over which an instance's latency average forgets old samples.
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Latency assumed for an instance that has not answered yet.
+     */
+    private Duration initialLatency = Duration.ofMillis(50);
+
+    private Ejection ejection = new Ejection();
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public Duration getInitialLatency() {
+        return initialLatency;
+    }
+
+    public void setInitialLatency(Duration initialLatency) {
+        this.initialLatency = initialLatency;
+    }
+
+    public Ejection getEjection() {
+        return ejection;
+    }
+
+    public void setEjection(Ejection ejection) {
+        this.ejection = ejection;
+    }
+
+    public enum Strategy {
+        /**
+         * Lowest peak-EWMA latency weighted by outstanding requests.
+         */
+        PEAK_EWMA,
+        /**
+         * Fewest outstanding requests.
+         */
+        LEAST_OUTSTANDING
+    }
+
+    /**
+     * Instances failing too many requests are taken out of rotation for a while,
+     * longer each time they are ejected again.
+     */
+    public static class Ejection {
+
+        private boolean enabled = true;
+
+        /**
+         * Failure rate, over recent requests, at which an instance is ejected.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * Requests an instance must have served before it can be ejected.
+         */
+        private int minimumRequests = 20;
+
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public Duration getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        public void setMaxEjectionTime(Duration maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+    }
+}
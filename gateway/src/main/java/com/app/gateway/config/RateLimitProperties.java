@@ -0,0 +1,68 @@
+package com.app.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the token bucket rate limiter shared by all routes. Bucket sizes
+ * are set per route on the RequestRateLimiter filter.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Header naming the client within the caller's principal or remote address. It splits
+     * that identity's budget between its clients but never adds to it.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Where bucket state is kept; "memory" keeps it per gateway instance.
+     */
+    private String store = "memory";
+
+    /**
+     * Maximum number of buckets held by the in-memory store.
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * Buckets untouched for this long are dropped; they would be full again by then.
+     */
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getBucketIdleTimeout() {
+        return bucketIdleTimeout;
+    }
+
+    public void setBucketIdleTimeout(Duration bucketIdleTimeout) {
+        this.bucketIdleTimeout = bucketIdleTimeout;
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the gateway response cache. TTLs are set per route on the ResponseCache filter.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Maximum total size of the cached responses across all routes: their bodies plus a
+     * fixed allowance per response for its key and headers.
+     */
+    private DataSize maximumWeight = DataSize.ofMegabytes(64);
+
+    /**
+     * Responses with a larger body are not cached.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /**
+     * Request headers that scope a response to a caller. Requests carrying any of them
+     * bypass the cache, so one caller's response is never served to another.
+     */
+    private List<String> bypassHeaders = new ArrayList<>(List.of("Authorization", "Cookie", "X-Client-Id"));
+
+    /**
+     * Domain events that invalidate cached responses.
+     */
+    private List<Invalidation> invalidations = new ArrayList<>();
+
+    public DataSize getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(DataSize maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public List<String> getBypassHeaders() {
+        return bypassHeaders;
+    }
+
+    public void setBypassHeaders(List<String> bypassHeaders) {
+        this.bypassHeaders = bypassHeaders;
+    }
+
+    public List<Invalidation> getInvalidations() {
+        return invalidations;
+    }
+
+    public void setInvalidations(List<Invalidation> invalidations) {
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Events published to an exchange with a routing key. Every cached response whose
+     * path contains an ID carried by the event is dropped, and so are all cached
+     * responses of the listed routes.
+     * <p>
+     * An event arrives once its publisher committed the change, but possibly before the
+     * services consuming it applied it: only list data owned by the publisher here. A
+     * response built from a consumer's copy of the data is bounded by its route's TTL alone.
+     */
+    public static class Invalidation {
+        private String exchange;
+        private String routingKey;
+        private List<String> routes = new ArrayList<>();
+
+        public String getExchange() {
+            return exchange;
+        }
+
+        public void setExchange(String exchange) {
+            this.exchange = exchange;
+        }
+
+        public String getRoutingKey() {
+            return routingKey;
+        }
+
+        public void setRoutingKey(String routingKey) {
+            this.routingKey = routingKey;
+        }
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<String> routes) {
+            this.routes = routes;
+        }
+    }
+}
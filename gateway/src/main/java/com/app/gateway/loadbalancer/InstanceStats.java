@@ -0,0 +1,88 @@
+package com.app.gateway.loadbalancer;
+
+import com.app.gateway.config.LoadBalancingProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and health of one service instance as seen by this gateway.
+ * <p>
+ * Latency is tracked as a peak-EWMA: a slower sample replaces the average at once,
+ * while faster samples pull it down gradually, weighted by the time since the last
+ * sample. A replica that stalls is therefore avoided right away and only trusted
+ * again once it has been fast for a while.
+ */
+class InstanceStats {
+
+    private final LoadBalancingProperties settings;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile double latencyNanos;
+    private long lastSampleAt;
+    private double failureRate;
+    private long requests;
+    private int ejections;
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    InstanceStats(LoadBalancingProperties settings, long now) {
+        this.settings = settings;
+        this.latencyNanos = settings.getInitialLatency().toNanos();
+        this.lastSampleAt = now;
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * @return true if this completion got the instance ejected
+     */
+    synchronized boolean onComplete(long latency, boolean failed, long now) {
+        outstanding.decrementAndGet();
+
+        if (latency > latencyNanos) {
+            latencyNanos = latency;
+        } else {
+            double weight = Math.exp(-(double) (now - lastSampleAt) / settings.getDecayTime().toNanos());
+            latencyNanos = latencyNanos * weight + latency * (1 - weight);
+        }
+        lastSampleAt = now;
+
+        LoadBalancingProperties.Ejection ejection = settings.getEjection();
+        requests++;
+        failureRate += ((failed ? 1 : 0) - failureRate) / Math.min(requests, ejection.getMinimumRequests());
+        if (ejection.isEnabled() && !isEjected(now) && requests >= ejection.getMinimumRequests()
+                && failureRate >= ejection.getFailureRateThreshold()) {
+            ejections++;
+            long duration = Math.min(ejection.getBaseEjectionTime().toNanos() * ejections,
+                    ejection.getMaxEjectionTime().toNanos());
+            ejectedUntil = now + duration;
+            ejected = true;
+            // Start over once back, so a single failure then does not eject it again
+            failureRate = 0;
+            requests = 0;
+            return true;
+        }
+        if (!failed && requests >= ejection.getMinimumRequests()) {
+            ejections = 0;
+        }
+        return false;
+    }
+
+    boolean isEjected(long now) {
+        return ejected && now - ejectedUntil < 0;
+    }
+
+    /**
+     * @return the expected cost of sending one more request to this instance
+     */
+    double cost(LoadBalancingProperties.Strategy strategy) {
+        int pending = outstanding.get() + 1;
+        return strategy == LoadBalancingProperties.Strategy.LEAST_OUTSTANDING ? pending : latencyNanos * pending;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+}
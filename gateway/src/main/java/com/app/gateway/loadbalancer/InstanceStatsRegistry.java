@@ -0,0 +1,55 @@
+package com.app.gateway.loadbalancer;
+
+import com.app.gateway.config.LoadBalancingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps the {@link InstanceStats} of every instance the gateway has routed to. Shared by
+ * the load balancers of all services; stats of instances that are gone expire.
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceStatsRegistry.class);
+
+    private final LoadBalancingProperties settings;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, InstanceStats> stats = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public InstanceStatsRegistry(LoadBalancingProperties settings, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    InstanceStats get(ServiceInstance instance) {
+        return stats.get(key(instance), ignored -> new InstanceStats(settings, System.nanoTime()));
+    }
+
+    void onStart(ServiceInstance instance) {
+        get(instance).onStart();
+    }
+
+    void onComplete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        if (get(instance).onComplete(latencyNanos, failed, System.nanoTime())) {
+            log.warn("Ejected instance after repeated failures: Service={}, Instance={}:{}",
+                    instance.getServiceId(), instance.getHost(), instance.getPort());
+            meterRegistry.counter("gateway.loadbalancer.ejections", "service", instance.getServiceId()).increment();
+        }
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '/' + instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Sheds load once a route's backend stops keeping up, by holding every route to a
+ * {@link GradientConcurrencyLimit}. Requests over the limit are answered with
+ * 503 Service Unavailable straight away instead of queueing in front of the backend.
+ * <p>
+ * Latency is measured until the response headers are committed. 5xx and 429
+ * responses and failed requests count as drops.
+ * <p>
+ * Usage: {@code - AdaptiveConcurrency}
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    /**
+     * Runs after the other filters of the route, so cache hits and rate-limited
+     * requests neither take a permit nor count as samples.
+     */
+    public static final int FILTER_ORDER = 1000;
+
+    private final ConcurrencyLimitProperties settings;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, GradientConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilterFactory(ConcurrencyLimitProperties settings,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        super(Config.class);
+        this.settings = settings;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            String routeId = routeId(exchange);
+            GradientConcurrencyLimit limit = limits.computeIfAbsent(routeId, this::newLimit);
+
+            int inFlightAtStart = limit.getInFlight();
+            if (!limit.tryAcquire()) {
+                Counter.builder("gateway.requests.concurrency.rejected")
+                        .tag("route", routeId)
+                        .register(meterRegistry)
+                        .increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return response.setComplete();
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean sampled = new AtomicBoolean();
+            exchange.getResponse().beforeCommit(() -> {
+                if (sampled.compareAndSet(false, true)) {
+                    if (isDrop(exchange.getResponse().getStatusCode())) {
+                        limit.onDropped();
+                    } else {
+                        limit.onSuccess(System.nanoTime() - start, inFlightAtStart);
+                    }
+                }
+                return Mono.empty();
+            });
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.ON_ERROR && sampled.compareAndSet(false, true)) {
+                    limit.onDropped();
+                }
+                limit.release();
+            });
+        }, FILTER_ORDER);
+    }
+
+    private GradientConcurrencyLimit newLimit(String routeId) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+        Gauge.builder("gateway.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limit, GradientConcurrencyLimit::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private static boolean isDrop(HttpStatusCode status) {
+        return status != null && (status.is5xxServerError() || status.value() == HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,59 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Identifies the client of a request by its authenticated principal, falling back to
+ * the remote address. Behind a proxy, server.forward-headers-strategy must be set so the
+ * remote address is the caller's rather than the proxy's.
+ * <p>
+ * The client header is only a hint: it names a client within that identity, e.g. one of
+ * several applications behind the same address, and is appended to the key after
+ * {@link #HINT_SEPARATOR}. Since callers choose it freely, the {@link TokenBucketRateLimiter}
+ * also limits the identity as a whole, so a new header value per request gains nothing.
+ */
+@Primary
+@Component
+public class ClientKeyResolver implements KeyResolver {
+
+    public static final char HINT_SEPARATOR = '|';
+
+    private static final int MAX_HINT_LENGTH = 64;
+
+    private final RateLimitProperties properties;
+
+    public ClientKeyResolver(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> "user:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+                    if (remoteAddress == null || remoteAddress.getAddress() == null) {
+                        return null;
+                    }
+                    return "address:" + remoteAddress.getAddress().getHostAddress();
+                }))
+                .map(identity -> identity + HINT_SEPARATOR + hint(exchange));
+    }
+
+    private String hint(ServerWebExchange exchange) {
+        String clientId = exchange.getRequest().getHeaders().getFirst(properties.getClientHeader());
+        if (clientId == null) {
+            return "";
+        }
+        // The separator must stay the last one in the key
+        String hint = clientId.strip().replace(String.valueOf(HINT_SEPARATOR), "");
+        return hint.length() > MAX_HINT_LENGTH ? hint.substring(0, MAX_HINT_LENGTH) : hint;
+    }
+}
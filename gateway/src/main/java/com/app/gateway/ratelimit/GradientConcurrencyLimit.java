@@ -0,0 +1,91 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one route that adapts to the latency of its backend.
+ * <p>
+ * The limit grows by about its square root per sample while latency stays near its
+ * long-term average, and shrinks in proportion once short-term latency rises above
+ * it, which means requests are queueing in the backend. Failed requests shrink the
+ * limit multiplicatively. Samples taken while less than half the limit is in use say
+ * nothing about capacity and only update the latency averages.
+ */
+class GradientConcurrencyLimit {
+
+    private final ConcurrencyLimitProperties settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    private long samples;
+
+    GradientConcurrencyLimit(ConcurrencyLimitProperties settings) {
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+    }
+
+    /**
+     * @return true if the request may proceed; it must then be released
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @param rttNanos        latency of a successful request
+     * @param inFlightAtStart requests in flight when it was admitted
+     */
+    synchronized void onSuccess(long rttNanos, int inFlightAtStart) {
+        samples++;
+        if (samples == 1) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / Math.min(samples, settings.getShortWindow());
+        longRtt += (rttNanos - longRtt) / Math.min(samples, settings.getLongWindow());
+        // Let the baseline follow a lasting drop in latency, e.g. after a backend recovered
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getTolerance() * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        update(limit * (1 - settings.getSmoothing()) + estimate * settings.getSmoothing());
+    }
+
+    synchronized void onDropped() {
+        update(limit * settings.getBackoffRatio());
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getLimit() {
+        return limit;
+    }
+
+    private void update(double newLimit) {
+        limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), newLimit));
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Token buckets kept in the memory of this gateway instance. Idle buckets are dropped
+ * and the number of buckets is bounded, so many distinct clients cannot exhaust memory.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public InMemoryTokenBucketStore(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getBucketIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public Mono<Consumption> tryConsume(String key, long capacity, double refillPerSecond, long tokens) {
+        Bucket bucket = buckets.get(key, ignored -> new Bucket(capacity, System.nanoTime()));
+        return Mono.just(bucket.tryConsume(capacity, refillPerSecond, tokens, System.nanoTime()));
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(long capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized Consumption tryConsume(long capacity, double refillPerSecond, long requested, long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerSecond / 1_000_000_000d);
+            refilledAt = now;
+            if (tokens >= requested) {
+                tokens -= requested;
+                return new Consumption(true, (long) tokens, Duration.ZERO);
+            }
+            long waitNanos = (long) Math.ceil((requested - tokens) / refillPerSecond * 1_000_000_000d);
+            return new Consumption(false, (long) tokens, Duration.ofNanos(waitNanos));
+        }
+    }
+}
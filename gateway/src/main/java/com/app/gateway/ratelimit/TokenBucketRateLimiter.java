@@ -0,0 +1,191 @@
+package com.app.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limiter for the RequestRateLimiter filter with three token buckets per request:
+ * one per identity and route, i.e. per principal or remote address, one per client
+ * within that identity as named by the {@link ClientKeyResolver} hint, which keep a
+ * single caller from starving the others, and one per route, which caps the total rate
+ * passed on to the backend. Rotating the client hint only ever reaches the identity's budget.
+ * <p>
+ * Bucket sizes are set per route on the filter, e.g.
+ * {@code token-bucket-rate-limiter.client-capacity: 20}.
+ */
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    private final TokenBucketStore store;
+    private final MeterRegistry meterRegistry;
+    private final Config defaultConfig = new Config();
+
+    public TokenBucketRateLimiter(TokenBucketStore store, ConfigurationService configurationService,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+
+        // Keys without a hint, e.g. from another KeyResolver, are limited as a whole
+        int separator = id.lastIndexOf(ClientKeyResolver.HINT_SEPARATOR);
+        String identity = separator < 0 ? id : id.substring(0, separator);
+
+        return store.tryConsume(routeId + ':' + identity, config.getIdentityCapacity(),
+                        config.getIdentityRefillRate(), config.getRequestedTokens())
+                .flatMap(caller -> {
+                    if (!caller.allowed()) {
+                        return Mono.just(denied(routeId, "identity", caller, config));
+                    }
+                    return store.tryConsume(routeId + ':' + id, config.getClientCapacity(),
+                                    config.getClientRefillRate(), config.getRequestedTokens())
+                            .flatMap(client -> {
+                                if (!client.allowed()) {
+                                    return Mono.just(denied(routeId, "client", client, config));
+                                }
+                                return store.tryConsume(routeId, config.getRouteCapacity(),
+                                                config.getRouteRefillRate(), config.getRequestedTokens())
+                                        .map(route -> {
+                                            if (!route.allowed()) {
+                                                return denied(routeId, "route", route, config);
+                                            }
+                                            long remaining = Math.min(caller.remaining(),
+                                                    Math.min(client.remaining(), route.remaining()));
+                                            return new Response(true, headers(remaining, config));
+                                        });
+                            });
+                })
+                .onErrorResume(error -> {
+                    // An unavailable shared store must not take the gateway down with it
+                    log.error("Rate limit store failed, letting request through: Route={}", routeId, error);
+                    return Mono.just(new Response(true, Map.of()));
+                });
+    }
+
+    private Response denied(String routeId, String scope, TokenBucketStore.Consumption consumption, Config config) {
+        meterRegistry.counter("gateway.requests.rate.limited", "route", routeId, "scope", scope).increment();
+        Map<String, String> headers = headers(consumption.remaining(), config);
+        headers.put("Retry-After", Long.toString(Math.max(1, (long) Math.ceil(consumption.retryAfter().toMillis() / 1000d))));
+        return new Response(false, headers);
+    }
+
+    private Map<String, String> headers(long remaining, Config config) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-RateLimit-Remaining", Long.toString(remaining));
+        headers.put("X-RateLimit-Burst-Capacity", Long.toString(config.getClientCapacity()));
+        headers.put("X-RateLimit-Replenish-Rate", Double.toString(config.getClientRefillRate()));
+        return headers;
+    }
+
+    public static class Config {
+
+        /**
+         * Burst allowed to a single client on the route.
+         */
+        private long clientCapacity = 20;
+
+        /**
+         * Requests per second a single client may sustain on the route.
+         */
+        private double clientRefillRate = 10;
+
+        /**
+         * Burst allowed to all clients of one principal or remote address on the route.
+         */
+        private long identityCapacity = 100;
+
+        /**
+         * Requests per second all clients of one principal or remote address may sustain on the route.
+         */
+        private double identityRefillRate = 50;
+
+        /**
+         * Burst allowed to all clients on the route together.
+         */
+        private long routeCapacity = 400;
+
+        /**
+         * Requests per second all clients together may sustain on the route.
+         */
+        private double routeRefillRate = 200;
+
+        /**
+         * Tokens a single request costs.
+         */
+        private long requestedTokens = 1;
+
+        public long getClientCapacity() {
+            return clientCapacity;
+        }
+
+        public void setClientCapacity(long clientCapacity) {
+            this.clientCapacity = clientCapacity;
+        }
+
+        public double getClientRefillRate() {
+            return clientRefillRate;
+        }
+
+        public void setClientRefillRate(double clientRefillRate) {
+            this.clientRefillRate = clientRefillRate;
+        }
+
+        public long getIdentityCapacity() {
+            return identityCapacity;
+        }
+
+        public void setIdentityCapacity(long identityCapacity) {
+            this.identityCapacity = identityCapacity;
+        }
+
+        public double getIdentityRefillRate() {
+            return identityRefillRate;
+        }
+
+        public void setIdentityRefillRate(double identityRefillRate) {
+            this.identityRefillRate = identityRefillRate;
+        }
+
+        public long getRouteCapacity() {
+            return routeCapacity;
+        }
+
+        public void setRouteCapacity(long routeCapacity) {
+            this.routeCapacity = routeCapacity;
+        }
+
+        public double getRouteRefillRate() {
+            return routeRefillRate;
+        }
+
+        public void setRouteRefillRate(double routeRefillRate) {
+            this.routeRefillRate = routeRefillRate;
+        }
+
+        public long getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(long requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Holds the state of token buckets. The in-memory store limits every gateway instance
+ * on its own; an implementation backed by a shared store, e.g. Redis, makes the limits
+ * apply across instances.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Take tokens from a bucket if it holds enough of them. A bucket seen for
+     * the first time starts full.
+     *
+     * @param key             the bucket key
+     * @param capacity        the maximum number of tokens, i.e. the allowed burst
+     * @param refillPerSecond tokens added per second
+     * @param tokens          tokens to take
+     * @return Mono of the outcome
+     */
+    Mono<Consumption> tryConsume(String key, long capacity, double refillPerSecond, long tokens);
+
+    /**
+     * @param allowed    whether the tokens were taken
+     * @param remaining  whole tokens left in the bucket
+     * @param retryAfter when enough tokens will be available again, zero if allowed
+     */
+    record Consumption(boolean allowed, long remaining, Duration retryAfter) {
+    }
+}
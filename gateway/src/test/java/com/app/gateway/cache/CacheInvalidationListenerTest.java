@@ -0,0 +1,92 @@
+package com.app.gateway.cache;
+
+import com.app.gateway.config.ResponseCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationListenerTest {
+
+    private static final String CUSTOMER_ID = "3f2b8c1e-9a4d-4c6e-8b7a-1d2e3f4a5b6c";
+    private static final String OTHER_ID = "7c6b5a4d-3e2f-4a1b-9c8d-7e6f5a4b3c2d";
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private final ResponseCache cache = new ResponseCache(properties,
+            new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    private final CacheInvalidationListener listener =
+            new CacheInvalidationListener(cache, properties, new ObjectMapper());
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties.Invalidation invalidation = new ResponseCacheProperties.Invalidation();
+        invalidation.setExchange("account.exchange");
+        invalidation.setRoutingKey("account.key");
+        invalidation.setRoutes(List.of("accounts"));
+        properties.setInvalidations(List.of(invalidation));
+
+        store("customers", "/api/customers/" + CUSTOMER_ID);
+        store("customers", "/api/customers/" + OTHER_ID);
+        store("accounts", "/api/accounts");
+        store("loans", "/api/loans");
+    }
+
+    @Test
+    void eventDropsResponsesNamingItsIdsAndTheConfiguredRoutes() {
+        listener.onEvent(event("account.exchange", "account.key",
+                "{\"customerId\":\"" + CUSTOMER_ID + "\",\"nested\":{\"ids\":[\"not-an-id\"]}}"));
+
+        assertThat(cache.get("customers /api/customers/" + CUSTOMER_ID)).isNull();
+        assertThat(cache.get("accounts /api/accounts")).isNull();
+        assertThat(cache.get("customers /api/customers/" + OTHER_ID)).isNotNull();
+        assertThat(cache.get("loans /api/loans")).isNotNull();
+    }
+
+    @Test
+    void idsInNestedValuesAreFound() {
+        listener.onEvent(event("loan.exchange", "loan.account",
+                "{\"loan\":{\"borrowers\":[{\"id\":\"" + OTHER_ID + "\"}]}}"));
+
+        assertThat(cache.get("customers /api/customers/" + OTHER_ID)).isNull();
+        assertThat(cache.get("customers /api/customers/" + CUSTOMER_ID)).isNotNull();
+    }
+
+    @Test
+    void eventOfAnotherRoutingKeyKeepsTheConfiguredRoutes() {
+        listener.onEvent(event("account.exchange", "account.other", "{}"));
+
+        assertThat(cache.get("accounts /api/accounts")).isNotNull();
+    }
+
+    @Test
+    void unreadableEventStillDropsTheConfiguredRoutes() {
+        listener.onEvent(event("account.exchange", "account.key", "not json"));
+
+        assertThat(cache.get("accounts /api/accounts")).isNull();
+        assertThat(cache.get("customers /api/customers/" + CUSTOMER_ID)).isNotNull();
+    }
+
+    private void store(String routeId, String path) {
+        cache.put(routeId + ' ' + path, new CachedResponse(routeId, path, HttpStatus.OK, HttpHeaders.EMPTY,
+                "{}".getBytes(StandardCharsets.UTF_8), "\"etag\"", Duration.ofMinutes(1), Instant.now()));
+    }
+
+    private static Message event(String exchange, String routingKey, String body) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setReceivedExchange(exchange);
+        messageProperties.setReceivedRoutingKey(routingKey);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), messageProperties);
+    }
+}
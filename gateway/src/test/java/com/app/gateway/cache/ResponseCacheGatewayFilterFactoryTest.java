@@ -0,0 +1,219 @@
+package com.app.gateway.cache;
+
+import com.app.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String PATH = "/api/loans/1";
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private final ResponseCache cache = spy(new ResponseCache(properties,
+            new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class)));
+    private final GatewayFilter filter = new ResponseCacheGatewayFilterFactory(cache, properties)
+            .apply(new ResponseCacheGatewayFilterFactory.Config());
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void repeatedRequestIsServedFromTheCache() {
+        GatewayFilterChain chain = backend(null);
+
+        MockServerWebExchange miss = run(get(), chain);
+        MockServerWebExchange hit = run(get(), chain);
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(miss.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(hit.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(hit.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(hit.getResponse().getHeaders().getETag()).isEqualTo(miss.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() {
+        GatewayFilterChain chain = backend(null);
+        String eTag = run(get(), chain).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange fromCache = run(get(HttpHeaders.IF_NONE_MATCH, eTag), chain);
+        MockServerWebExchange weak = run(get(HttpHeaders.IF_NONE_MATCH, "W/" + eTag), chain);
+        MockServerWebExchange other = run(get(HttpHeaders.IF_NONE_MATCH, "\"other\""), chain);
+
+        assertThat(fromCache.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(weak.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(other.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(backendCalls).hasValue(1);
+    }
+
+    @Test
+    void matchingIfNoneMatchOnAMissIsAnsweredWithNotModified() {
+        GatewayFilterChain chain = backend(null);
+        String eTag = run(get(), chain).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated = run(get(HttpHeaders.IF_NONE_MATCH, eTag, HttpHeaders.CACHE_CONTROL,
+                "no-cache"), chain);
+
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Authorization", "Cookie", "X-Client-Id"})
+    void requestsScopedToACallerBypassTheCache(String header) {
+        GatewayFilterChain chain = backend(null);
+
+        run(get(header, "caller-1"), chain);
+        MockServerWebExchange second = run(get(header, "caller-2"), chain);
+        run(get(), chain);
+
+        assertThat(backendCalls).hasValue(3);
+        assertThat(second.getResponse().getHeaders().containsKey("X-Cache")).isFalse();
+    }
+
+    @Test
+    void noStoreRequestBypassesTheCache() {
+        GatewayFilterChain chain = backend(null);
+        run(get(), chain);
+
+        MockServerWebExchange bypassed = run(get(HttpHeaders.CACHE_CONTROL, "no-store"), chain);
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(bypassed.getResponse().getHeaders().containsKey("X-Cache")).isFalse();
+    }
+
+    @Test
+    void noCacheRequestGoesToTheBackendAndRefreshesTheCache() {
+        GatewayFilterChain chain = backend(null);
+        run(get(), chain);
+
+        MockServerWebExchange refreshed = run(get(HttpHeaders.CACHE_CONTROL, "no-cache"), chain);
+        MockServerWebExchange hit = run(get(), chain);
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(refreshed.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(hit.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no-store", "no-cache", "private", "private, max-age=60"})
+    void responsesTheBackendForbidsToStoreAreNotCached(String cacheControl) {
+        GatewayFilterChain chain = backend(cacheControl);
+
+        run(get(), chain);
+        run(get(), chain);
+
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"max-age=5, PT5S", "s-maxage=5, PT5S", "max-age=3600, PT30S"})
+    void backendMaxAgeShorterThanTheRouteTtlWins(String cacheControl, Duration expectedTtl) {
+        run(get(), backend(cacheControl));
+
+        ArgumentCaptor<CachedResponse> stored = ArgumentCaptor.forClass(CachedResponse.class);
+        verify(cache).put(anyString(), stored.capture());
+        assertThat(stored.getValue().ttl()).isEqualTo(expectedTtl);
+    }
+
+    @Test
+    void successfulUnsafeRequestDropsItsPathAndLocation() {
+        GatewayFilterChain chain = backend(null);
+        run(get(), chain);
+        run(getPath("/api/loans/2"), chain);
+        run(getPath("/api/loans/3"), chain);
+
+        run(MockServerWebExchange.from(MockServerHttpRequest.post(PATH)),
+                unsafe(HttpStatus.CREATED, "/api/loans/2"));
+        run(get(), chain);
+        run(getPath("/api/loans/2"), chain);
+        run(getPath("/api/loans/3"), chain);
+
+        assertThat(backendCalls).hasValue(5);
+    }
+
+    @Test
+    void failedUnsafeRequestKeepsTheCache() {
+        GatewayFilterChain chain = backend(null);
+        run(get(), chain);
+
+        run(MockServerWebExchange.from(MockServerHttpRequest.delete(PATH)),
+                unsafe(HttpStatus.INTERNAL_SERVER_ERROR, null));
+        run(get(), chain);
+
+        assertThat(backendCalls).hasValue(1);
+    }
+
+    private MockServerWebExchange run(MockServerWebExchange exchange, GatewayFilterChain chain) {
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    /**
+     * A backend answering GET requests with a small JSON body.
+     */
+    private GatewayFilterChain backend(String cacheControl) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                response.getHeaders().setCacheControl(cacheControl);
+            }
+            String path = exchange.getRequest().getURI().getPath();
+            byte[] body = ("{\"id\":" + path.substring(path.lastIndexOf('/') + 1) + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private GatewayFilterChain unsafe(HttpStatus status, String location) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            if (location != null) {
+                response.getHeaders().set(HttpHeaders.LOCATION, location);
+            }
+            return response.setComplete();
+        };
+    }
+
+    /**
+     * @param headers request header names and values, alternating
+     */
+    private static MockServerWebExchange get(String... headers) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(PATH);
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static MockServerWebExchange getPath(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
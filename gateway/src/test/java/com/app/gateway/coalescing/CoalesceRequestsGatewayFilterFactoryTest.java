@@ -0,0 +1,99 @@
+package com.app.gateway.coalescing;
+
+import com.app.gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalesceRequestsGatewayFilterFactoryTest {
+
+    private final CoalescingProperties properties = new CoalescingProperties();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/json", "*/*", "application/*", "text/*"})
+    void concurrentRequestsShareOneBackendCall(String accept) {
+        GatewayFilterChain chain = backend(List.of("hello"));
+        MockServerWebExchange leader = exchange(accept);
+        MockServerWebExchange follower = exchange(accept);
+
+        run(leader, follower, chain);
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Coalesced")).isEqualTo("true");
+    }
+
+    @Test
+    void streamingRequestsAreNotCoalesced() {
+        GatewayFilterChain chain = backend(List.of("{}\n"));
+
+        run(exchange("application/x-ndjson"), exchange("application/x-ndjson"), chain);
+        run(exchange("text/event-stream"), exchange("text/event-stream"), chain);
+
+        assertThat(backendCalls).hasValue(4);
+    }
+
+    @Test
+    void largeBodyIsPassedOnWithoutBeingShared() {
+        properties.setMaxBodySize(DataSize.ofBytes(8));
+        GatewayFilterChain chain = backend(List.of("aaaaa", "bbbbb", "ccccc"));
+        MockServerWebExchange leader = exchange("application/json");
+        MockServerWebExchange follower = exchange("application/json");
+
+        run(leader, follower, chain);
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("aaaaabbbbbccccc");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("aaaaabbbbbccccc");
+        assertThat(follower.getResponse().getHeaders().containsKey("X-Coalesced")).isFalse();
+    }
+
+    private void run(MockServerWebExchange leader, MockServerWebExchange follower, GatewayFilterChain chain) {
+        GatewayFilter filter = new CoalesceRequestsGatewayFilterFactory(properties,
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class))
+                .apply(new CoalesceRequestsGatewayFilterFactory.Config());
+
+        // The leader registers its call when filtered, before either is subscribed
+        Mono<Void> first = filter.filter(leader, chain);
+        Mono<Void> second = filter.filter(follower, chain);
+        Mono.when(first, second).block(Duration.ofSeconds(5));
+    }
+
+    private GatewayFilterChain backend(List<String> chunks) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            return Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+                response.setStatusCode(HttpStatus.OK);
+                Flux<DataBuffer> body = Flux.fromIterable(chunks)
+                        .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+                return response.writeWith(body);
+            }));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String accept) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/loans/1").header("Accept", accept));
+    }
+}
@@ -0,0 +1,98 @@
+package com.app.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class InstanceStatsLifecycleTest {
+
+    private final InstanceStatsRegistry stats = mock(InstanceStatsRegistry.class);
+    private final InstanceStatsLifecycle lifecycle = new InstanceStatsLifecycle(stats);
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("a", "loan-service", "host-a", 8080, false);
+    private final Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+    private final Response<ServiceInstance> chosen = new DefaultResponse(instance);
+
+    @Test
+    void successfulRequestIsReportedWithItsLatency() {
+        lifecycle.onStartRequest(request, chosen);
+        long startedAt = request.getContext().getRequestStartTime();
+
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen,
+                response(HttpStatus.OK)));
+
+        verify(stats).onStart(instance);
+        assertThat(startedAt).isNotZero();
+        verify(stats).onComplete(eq(instance), anyLong(), eq(false));
+    }
+
+    @Test
+    void serverErrorCountsAsFailure() {
+        lifecycle.onStartRequest(request, chosen);
+
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen,
+                response(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        verify(stats).onComplete(eq(instance), anyLong(), eq(true));
+    }
+
+    @Test
+    void clientErrorDoesNotCountAsFailure() {
+        lifecycle.onStartRequest(request, chosen);
+
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen,
+                response(HttpStatus.NOT_FOUND)));
+
+        verify(stats).onComplete(eq(instance), anyLong(), eq(false));
+    }
+
+    @Test
+    void exceptionCountsAsFailure() {
+        lifecycle.onStartRequest(request, chosen);
+
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                new IOException("Connection refused"), request, chosen));
+
+        verify(stats).onComplete(eq(instance), anyLong(), eq(true));
+    }
+
+    @Test
+    void requestWithoutInstanceIsNotReported() {
+        Response<ServiceInstance> none = new EmptyResponse();
+
+        lifecycle.onStartRequest(request, none);
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request, none));
+
+        verifyNoInteractions(stats);
+    }
+
+    @Test
+    void supportsGatewayRequests() {
+        assertThat(lifecycle.supports(RequestDataContext.class, ResponseData.class, ServiceInstance.class)).isTrue();
+        assertThat(lifecycle.supports(Object.class, ResponseData.class, ServiceInstance.class)).isFalse();
+    }
+
+    private static ResponseData response(HttpStatus status) {
+        return new ResponseData(status, new HttpHeaders(), new LinkedMultiValueMap<>(), null);
+    }
+}
@@ -0,0 +1,140 @@
+package com.app.gateway.loadbalancer;
+
+import com.app.gateway.config.LoadBalancingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.app.gateway.config.LoadBalancingProperties.Strategy.LEAST_OUTSTANDING;
+import static com.app.gateway.config.LoadBalancingProperties.Strategy.PEAK_EWMA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceStatsTest {
+
+    private static final long MS = Duration.ofMillis(1).toNanos();
+    private static final long BASE_EJECTION = Duration.ofSeconds(30).toNanos();
+
+    private final LoadBalancingProperties settings = new LoadBalancingProperties();
+
+    private InstanceStats stats;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        settings.setDecayTime(Duration.ofSeconds(10));
+        settings.setInitialLatency(Duration.ofMillis(50));
+        settings.getEjection().setMinimumRequests(4);
+        settings.getEjection().setFailureRateThreshold(0.5);
+        settings.getEjection().setBaseEjectionTime(Duration.ofSeconds(30));
+        settings.getEjection().setMaxEjectionTime(Duration.ofSeconds(75));
+        stats = new InstanceStats(settings, now);
+    }
+
+    @Test
+    void newInstanceCostsTheInitialLatency() {
+        assertThat(stats.cost(PEAK_EWMA)).isEqualTo(50 * MS);
+    }
+
+    @Test
+    void slowerSampleReplacesTheAverageAtOnce() {
+        complete(200 * MS, false);
+
+        assertThat(stats.cost(PEAK_EWMA)).isEqualTo(200 * MS);
+    }
+
+    @Test
+    void fasterSamplesPullTheAverageDownOverTheDecayTime() {
+        complete(200 * MS, false);
+
+        // Right after the peak, a fast sample barely counts
+        complete(10 * MS, false);
+        assertThat(stats.cost(PEAK_EWMA)).isCloseTo(200 * MS, within((double) MS));
+
+        // One decay time later, the peak has lost 1 - 1/e of its weight
+        now += Duration.ofSeconds(10).toNanos();
+        complete(10 * MS, false);
+        double weight = Math.exp(-1);
+        assertThat(stats.cost(PEAK_EWMA)).isCloseTo(200 * MS * weight + 10 * MS * (1 - weight), within(1000d));
+    }
+
+    @Test
+    void costGrowsWithOutstandingRequests() {
+        stats.onStart();
+        stats.onStart();
+
+        assertThat(stats.getOutstanding()).isEqualTo(2);
+        assertThat(stats.cost(PEAK_EWMA)).isEqualTo(3 * 50 * MS);
+        assertThat(stats.cost(LEAST_OUTSTANDING)).isEqualTo(3);
+    }
+
+    @Test
+    void instanceIsEjectedOnceFailuresReachTheThreshold() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(complete(MS, true)).isFalse();
+        }
+        assertThat(complete(MS, true)).isTrue();
+
+        assertThat(stats.isEjected(now)).isTrue();
+        assertThat(stats.isEjected(now + BASE_EJECTION - 1)).isTrue();
+        assertThat(stats.isEjected(now + BASE_EJECTION)).isFalse();
+    }
+
+    @Test
+    void fewFailuresAmongSuccessesDoNotEject() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(complete(MS, i % 4 == 0)).isFalse();
+        }
+        assertThat(stats.isEjected(now)).isFalse();
+    }
+
+    @Test
+    void disabledEjectionNeverEjects() {
+        settings.getEjection().setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(complete(MS, true)).isFalse();
+        }
+        assertThat(stats.isEjected(now)).isFalse();
+    }
+
+    @Test
+    void repeatedEjectionsLastLongerUpToTheMaximum() {
+        assertThat(ejectionTime()).isEqualTo(BASE_EJECTION);
+        assertThat(ejectionTime()).isEqualTo(2 * BASE_EJECTION);
+        assertThat(ejectionTime()).isEqualTo(Duration.ofSeconds(75).toNanos());
+    }
+
+    @Test
+    void healthyRequestsAfterAnEjectionResetTheBackOff() {
+        assertThat(ejectionTime()).isEqualTo(BASE_EJECTION);
+
+        for (int i = 0; i < 4; i++) {
+            complete(MS, false);
+        }
+
+        assertThat(ejectionTime()).isEqualTo(BASE_EJECTION);
+    }
+
+    private boolean complete(long latency, boolean failed) {
+        stats.onStart();
+        return stats.onComplete(latency, failed, now);
+    }
+
+    /**
+     * Fail requests until the instance is ejected, then wait for the ejection to end.
+     *
+     * @return how long the instance was ejected
+     */
+    private long ejectionTime() {
+        while (!complete(MS, true)) {
+            assertThat(stats.isEjected(now)).isFalse();
+        }
+        long ejectedAt = now;
+        while (stats.isEjected(now)) {
+            now += Duration.ofSeconds(1).toNanos();
+        }
+        return now - ejectedAt;
+    }
+}
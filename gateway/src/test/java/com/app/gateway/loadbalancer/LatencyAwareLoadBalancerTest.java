@@ -0,0 +1,129 @@
+package com.app.gateway.loadbalancer;
+
+import com.app.gateway.config.LoadBalancingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final int PICKS = 200;
+
+    private final LoadBalancingProperties settings = new LoadBalancingProperties();
+    private final InstanceStatsRegistry stats = new InstanceStatsRegistry(settings,
+            new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+    private final ServiceInstance a = instance("a");
+    private final ServiceInstance b = instance("b");
+    private final ServiceInstance c = instance("c");
+
+    @Test
+    void slowInstanceLosesEveryComparison() {
+        record(a, Duration.ofSeconds(1));
+        record(b, Duration.ofMillis(10));
+        record(c, Duration.ofMillis(10));
+
+        Map<String, Integer> picks = pick(List.of(a, b, c));
+
+        assertThat(picks).doesNotContainKey("a");
+        // Two random candidates instead of the single best, so the load is spread
+        assertThat(picks).containsKeys("b", "c");
+    }
+
+    @Test
+    void outstandingRequestsMakeAnInstanceMoreExpensive() {
+        stats.onStart(a);
+        stats.onStart(a);
+
+        assertThat(pick(List.of(a, b))).containsOnlyKeys("b");
+    }
+
+    @Test
+    void leastOutstandingIgnoresLatency() {
+        settings.setStrategy(LoadBalancingProperties.Strategy.LEAST_OUTSTANDING);
+        record(a, Duration.ofSeconds(1));
+        stats.onStart(b);
+
+        assertThat(pick(List.of(a, b))).containsOnlyKeys("a");
+    }
+
+    @Test
+    void ejectedInstanceIsSkipped() {
+        eject(a);
+
+        assertThat(pick(List.of(a, b))).containsOnlyKeys("b");
+        assertThat(pick(List.of(a, b, c))).containsOnlyKeys("b", "c");
+    }
+
+    @Test
+    void allInstancesAreConsideredWhenAllAreEjected() {
+        eject(a);
+        eject(b);
+
+        Map<String, Integer> picks = pick(List.of(a, b));
+
+        assertThat(picks.keySet()).isNotEmpty().isSubsetOf("a", "b");
+        assertThat(picks.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(PICKS);
+    }
+
+    @Test
+    void noInstancesGiveAnEmptyResponse() {
+        assertThat(loadBalancer(List.of()).choose(new DefaultRequest<>()).block().hasServer()).isFalse();
+    }
+
+    private Map<String, Integer> pick(List<ServiceInstance> instances) {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer(instances);
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < PICKS; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+            picks.merge(response.getServer().getInstanceId(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private LatencyAwareLoadBalancer loadBalancer(List<ServiceInstance> instances) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("supplier", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "loan-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        });
+        return new LatencyAwareLoadBalancer(beans.getBeanProvider(ServiceInstanceListSupplier.class), stats, settings);
+    }
+
+    private void record(ServiceInstance instance, Duration latency) {
+        stats.onStart(instance);
+        stats.onComplete(instance, latency.toNanos(), false);
+    }
+
+    private void eject(ServiceInstance instance) {
+        for (int i = 0; i < settings.getEjection().getMinimumRequests(); i++) {
+            stats.onStart(instance);
+            stats.onComplete(instance, Duration.ofMillis(1).toNanos(), true);
+        }
+        assertThat(stats.get(instance).isEjected(System.nanoTime())).isTrue();
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "loan-service", "host-" + id, 8080, false);
+    }
+}
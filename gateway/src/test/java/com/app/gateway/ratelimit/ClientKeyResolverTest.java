@@ -0,0 +1,70 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientKeyResolverTest {
+
+    private final ClientKeyResolver resolver = new ClientKeyResolver(new RateLimitProperties());
+
+    @Test
+    void keysOnTheRemoteAddress() {
+        assertThat(resolve(exchange(request()))).isEqualTo("address:10.0.0.1|");
+    }
+
+    @Test
+    void clientHeaderIsOnlyAHintWithinTheAddress() {
+        MockServerWebExchange exchange = exchange(request().header("X-Client-Id", "mobile"));
+
+        assertThat(resolve(exchange)).isEqualTo("address:10.0.0.1|mobile");
+    }
+
+    @Test
+    void principalTakesPrecedenceOverTheAddress() {
+        Principal principal = () -> "alice";
+        ServerWebExchange exchange = exchange(request().header("X-Client-Id", "mobile")).mutate()
+                .principal(Mono.just(principal))
+                .build();
+
+        assertThat(resolve(exchange)).isEqualTo("user:alice|mobile");
+    }
+
+    @Test
+    void hintCannotForgeTheIdentity() {
+        MockServerWebExchange exchange = exchange(request().header("X-Client-Id", "x|address:10.0.0.2|" + "y".repeat(100)));
+
+        String key = resolve(exchange);
+
+        assertThat(key).startsWith("address:10.0.0.1|");
+        assertThat(key.lastIndexOf(ClientKeyResolver.HINT_SEPARATOR)).isEqualTo("address:10.0.0.1".length());
+        assertThat(key).hasSize("address:10.0.0.1|".length() + 64);
+    }
+
+    @Test
+    void requestWithoutIdentityIsNotKeyed() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/loans"));
+
+        assertThat(resolver.resolve(exchange).blockOptional()).isEmpty();
+    }
+
+    private String resolve(ServerWebExchange exchange) {
+        return resolver.resolve(exchange).block();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request() {
+        return MockServerHttpRequest.get("/api/loans").remoteAddress(new InetSocketAddress("10.0.0.1", 50_000));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
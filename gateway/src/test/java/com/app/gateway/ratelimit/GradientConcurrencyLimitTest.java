@@ -0,0 +1,89 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long FAST = 10_000_000L;
+    private static final long SLOW = 50_000_000L;
+
+    private final ConcurrencyLimitProperties settings = new ConcurrencyLimitProperties();
+
+    @Test
+    void admitsRequestsUpToTheLimit() {
+        settings.setInitialLimit(3);
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(3);
+
+        limit.release();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyStaysSteady() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSuccess(FAST, (int) limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(settings.getInitialLimit() * 2);
+    }
+
+    @Test
+    void shrinksOnceLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+        for (int i = 0; i < 100; i++) {
+            limit.onSuccess(FAST, 0);
+        }
+
+        for (int i = 0; i < 30; i++) {
+            limit.onSuccess(SLOW, (int) limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isLessThan(settings.getInitialLimit() / 2.0);
+    }
+
+    @Test
+    void ignoresSamplesTakenAtLowUtilisation() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSuccess(FAST, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(settings.getInitialLimit());
+    }
+
+    @Test
+    void backsOffWhenRequestsAreDropped() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+
+        limit.onDropped();
+
+        assertThat(limit.getLimit()).isEqualTo(settings.getInitialLimit() * settings.getBackoffRatio());
+    }
+
+    @Test
+    void staysWithinItsBounds() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(settings);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDropped();
+        }
+        assertThat(limit.getLimit()).isEqualTo(settings.getMinLimit());
+
+        for (int i = 0; i < 2_000; i++) {
+            limit.onSuccess(FAST, (int) limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isEqualTo(settings.getMaxLimit());
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenBucketStoreTest {
+
+    private final InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(new RateLimitProperties());
+
+    @Test
+    void newBucketAllowsABurstUpToItsCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(consume("client").allowed()).isTrue();
+        }
+
+        TokenBucketStore.Consumption denied = consume("client");
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.remaining()).isZero();
+        assertThat(denied.retryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void bucketsAreIndependent() {
+        for (int i = 0; i < 5; i++) {
+            consume("client");
+        }
+
+        assertThat(consume("client").allowed()).isFalse();
+        assertThat(consume("other").allowed()).isTrue();
+    }
+
+    @Test
+    void emptyBucketRefillsOverTime() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            consume("client");
+        }
+        assertThat(consume("client").allowed()).isFalse();
+
+        // 10 tokens per second, so one is back after 100ms
+        Thread.sleep(150);
+
+        assertThat(consume("client").allowed()).isTrue();
+    }
+
+    @Test
+    void refillStopsAtTheCapacity() throws InterruptedException {
+        consume("client");
+
+        Thread.sleep(300);
+
+        assertThat(consume("client").remaining()).isEqualTo(4);
+    }
+
+    private TokenBucketStore.Consumption consume(String key) {
+        return store.tryConsume(key, 5, 10, 1).block();
+    }
+}
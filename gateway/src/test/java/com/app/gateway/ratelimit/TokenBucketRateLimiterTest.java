@@ -0,0 +1,91 @@
+package com.app.gateway.ratelimit;
+
+import com.app.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenBucketRateLimiterTest {
+
+    private static final String ROUTE = "loan-service";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        limiter = new TokenBucketRateLimiter(new InMemoryTokenBucketStore(new RateLimitProperties()),
+                mock(ConfigurationService.class), beans.getBeanProvider(MeterRegistry.class));
+
+        TokenBucketRateLimiter.Config config = new TokenBucketRateLimiter.Config();
+        config.setClientCapacity(2);
+        config.setClientRefillRate(0.001);
+        config.setIdentityCapacity(5);
+        config.setIdentityRefillRate(0.001);
+        config.setRouteCapacity(100);
+        config.setRouteRefillRate(0.001);
+        limiter.getConfig().put(ROUTE, config);
+    }
+
+    @Test
+    void clientIsLimitedWithinItsIdentity() {
+        assertThat(isAllowed("address:10.0.0.1|mobile")).isTrue();
+        assertThat(isAllowed("address:10.0.0.1|mobile")).isTrue();
+        assertThat(isAllowed("address:10.0.0.1|mobile")).isFalse();
+
+        assertThat(isAllowed("address:10.0.0.1|web")).isTrue();
+        assertThat(meterRegistry.counter("gateway.requests.rate.limited", "route", ROUTE, "scope", "client").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rotatingTheClientHintDoesNotRaiseTheLimit() {
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (isAllowed("address:10.0.0.1|client-" + i)) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(5);
+        assertThat(meterRegistry.counter("gateway.requests.rate.limited", "route", ROUTE, "scope", "identity").count())
+                .isEqualTo(15);
+    }
+
+    @Test
+    void identitiesAreLimitedIndependently() {
+        for (int i = 0; i < 5; i++) {
+            isAllowed("address:10.0.0.1|client-" + i);
+        }
+
+        assertThat(isAllowed("address:10.0.0.1|")).isFalse();
+        assertThat(isAllowed("address:10.0.0.2|")).isTrue();
+        assertThat(isAllowed("user:alice|")).isTrue();
+    }
+
+    @Test
+    void deniedResponseTellsWhenToRetry() {
+        isAllowed("user:alice|");
+        isAllowed("user:alice|");
+
+        RateLimiter.Response response = limiter.isAllowed(ROUTE, "user:alice|").block();
+
+        assertThat(response.isAllowed()).isFalse();
+        assertThat(response.getHeaders()).containsEntry("X-RateLimit-Remaining", "0")
+                .containsKey("Retry-After");
+    }
+
+    private boolean isAllowed(String id) {
+        return limiter.isAllowed(ROUTE, id).block().isAllowed();
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.loadtest;
+
+import com.app.customer_service.notification.EmailMessage;
+import com.app.customer_service.notification.EmailProvider;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-JVM stand-in for the email relay of the customer service. Delivered verification
+ * codes are handed to the scenario waiting for them, so scenarios verify with the code
+ * from the email like a real customer instead of reading it from the registration response.
+ * Selected with {@code notification.email.provider=capture}.
+ */
+public class CapturingEmailProvider implements EmailProvider {
+
+    private static final Pattern CODE = Pattern.compile("verification code is (\\S+)");
+
+    private final ConcurrentMap<String, Sinks.One<String>> codes = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "capture";
+    }
+
+    @Override
+    public Mono<Void> send(List<EmailMessage> batch) {
+        return Mono.fromRunnable(() -> batch.forEach(message -> {
+            Matcher matcher = CODE.matcher(message.body());
+            if (matcher.find()) {
+                sink(message.to()).tryEmitValue(matcher.group(1));
+            }
+        }));
+    }
+
+    /**
+     * Wait for the verification code sent to the given address.
+     *
+     * @param email   the recipient address
+     * @param timeout how long to wait for the email
+     * @return Mono of the code, or a TimeoutException if no email arrived in time
+     */
+    public Mono<String> awaitCode(String email, Duration timeout) {
+        return sink(email).asMono()
+                .timeout(timeout)
+                .doFinally(signal -> codes.remove(email));
+    }
+
+    private Sinks.One<String> sink(String email) {
+        return codes.computeIfAbsent(email, key -> Sinks.one());
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Throwaway Postgres and RabbitMQ brokers for one run, started with Testcontainers.
+ * The database is initialised with the same schema script as the docker-compose stack.
+ */
+public class Infrastructure implements AutoCloseable {
+
+    private static final String DATABASE = "digital_banking_db";
+
+    private static final Logger log = LoggerFactory.getLogger(Infrastructure.class);
+
+    private final PostgreSQLContainer<?> postgres;
+    private final RabbitMQContainer rabbitmq;
+
+    public Infrastructure(LoadTestProperties properties) {
+        Path initScript = Path.of(properties.getInitScript()).toAbsolutePath();
+        if (!Files.isRegularFile(initScript)) {
+            throw new IllegalArgumentException("Schema script not found: " + initScript);
+        }
+        this.postgres = new PostgreSQLContainer<>(DockerImageName.parse(properties.getPostgresImage())
+                .asCompatibleSubstituteFor("postgres"))
+                .withDatabaseName(DATABASE)
+                .withCopyFileToContainer(MountableFile.forHostPath(initScript),
+                        "/docker-entrypoint-initdb.d/init.sql")
+                .withCommand("postgres", "-c", "max_connections=300");
+        this.rabbitmq = new RabbitMQContainer(DockerImageName.parse(properties.getRabbitmqImage())
+                .asCompatibleSubstituteFor("rabbitmq"));
+    }
+
+    public void start() {
+        log.info("Starting Postgres and RabbitMQ containers");
+        postgres.start();
+        rabbitmq.start();
+        log.info("Infrastructure ready: Postgres={}:{}, RabbitMQ={}:{}", postgres.getHost(),
+                postgres.getFirstMappedPort(), rabbitmq.getHost(), rabbitmq.getAmqpPort());
+    }
+
+    public String r2dbcUrl() {
+        return "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + DATABASE;
+    }
+
+    public String databaseUsername() {
+        return postgres.getUsername();
+    }
+
+    public String databasePassword() {
+        return postgres.getPassword();
+    }
+
+    public String rabbitHost() {
+        return rabbitmq.getHost();
+    }
+
+    public int rabbitPort() {
+        return rabbitmq.getAmqpPort();
+    }
+
+    public String rabbitUsername() {
+        return rabbitmq.getAdminUsername();
+    }
+
+    public String rabbitPassword() {
+        return rabbitmq.getAdminPassword();
+    }
+
+    @Override
+    public void close() {
+        rabbitmq.stop();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,163 @@
+package com.app.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per {@link Stage}.
+ * <p>
+ * Latencies are recorded in microseconds into HdrHistogram recorders, which any thread may
+ * write to. Interval snapshots are taken by a single reporting thread and added to the totals
+ * of the run, so the final report and the interval lines cover the same samples.
+ */
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Stage, StageStats> stages = new EnumMap<>(Stage.class);
+    private final LongAdder dropped = new LongAdder();
+    private final long startedAt = System.nanoTime();
+    private long lastSnapshotAt = startedAt;
+
+    public LatencyReport() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageStats());
+        }
+    }
+
+    /**
+     * Record a successful stage.
+     *
+     * @param stage     the stage
+     * @param startedAt System.nanoTime() at which the stage started or was due to start
+     */
+    public void record(Stage stage, long startedAt) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+        stages.get(stage).recorder.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Record a failed stage; the scenario ends with it.
+     *
+     * @param stage the stage
+     * @param error the failure
+     */
+    public void recordError(Stage stage, Throwable error) {
+        stages.get(stage).errors.computeIfAbsent(describe(error), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Count an arrival that was not started because too many scenarios were in flight.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Take the samples recorded since the last call, add them to the totals and print one line per stage.
+     *
+     * @param out      where to print
+     * @param inFlight the number of scenarios currently running
+     */
+    public synchronized void printInterval(PrintStream out, int inFlight) {
+        long now = System.nanoTime();
+        double seconds = (now - lastSnapshotAt) / 1e9;
+        lastSnapshotAt = now;
+
+        out.printf("[%5ds] in-flight=%d dropped=%d%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - startedAt), inFlight, dropped.sum());
+        stages.forEach((stage, stats) -> {
+            Histogram interval = stats.snapshot();
+            if (interval.getTotalCount() > 0) {
+                out.printf("        %-18s %8.1f/s  p50=%8.1fms  p99=%8.1fms  max=%8.1fms%n", stage.getLabel(),
+                        interval.getTotalCount() / seconds, millis(interval.getValueAtPercentile(50)),
+                        millis(interval.getValueAtPercentile(99)), millis(interval.getMaxValue()));
+            }
+        });
+    }
+
+    /**
+     * Print the totals of the run and write one HdrHistogram percentile distribution per stage.
+     *
+     * @param out       where to print the summary
+     * @param directory where to write summary.txt and the .hgrm files
+     * @param elapsed   the duration of the run
+     * @throws IOException if the report files cannot be written
+     */
+    public synchronized void printSummary(PrintStream out, Path directory, Duration elapsed) throws IOException {
+        stages.values().forEach(StageStats::snapshot);
+        Files.createDirectories(directory);
+
+        try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+            for (PrintStream target : new PrintStream[]{out, file}) {
+                printTotals(target, elapsed);
+            }
+        }
+        for (Map.Entry<Stage, StageStats> entry : stages.entrySet()) {
+            Path hgrm = directory.resolve(entry.getKey().getLabel() + ".hgrm");
+            try (PrintStream file = new PrintStream(Files.newOutputStream(hgrm))) {
+                entry.getValue().total.outputPercentileDistribution(file, MICROS_PER_MILLI);
+            }
+        }
+        out.printf("Histograms written to %s%n", directory.toAbsolutePath());
+    }
+
+    private void printTotals(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%nRun of %.1fs, %d arrivals dropped%n", seconds, dropped.sum());
+        out.printf("%-18s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "stage", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        stages.forEach((stage, stats) -> {
+            Histogram total = stats.total;
+            out.printf("%-18s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", stage.getLabel(),
+                    total.getTotalCount(), stats.errorCount(), total.getTotalCount() / seconds,
+                    millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue()));
+        });
+        stages.forEach((stage, stats) -> new TreeMap<>(stats.errors).forEach((error, count) ->
+                out.printf("  %s error: %s x%d%n", stage.getLabel(), error, count.sum())));
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getMessage();
+        return error.getClass().getSimpleName() + (message != null ? " " + message.lines().findFirst().orElse("") : "");
+    }
+
+    private static class StageStats {
+
+        private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private Histogram interval;
+
+        Histogram snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * End-to-end load test of the customer, loan and account services.
+ * <p>
+ * Starts Postgres and RabbitMQ containers, boots the three services in this JVM, runs the
+ * configured load phases and prints latency percentiles and throughput per stage. Settings are
+ * passed as arguments, for example:
+ * <pre>
+ * ./gradlew :loadtest:run --args="--loadtest.phases[0].rate=20 --loadtest.phases[0].duration=2m
+ *     --loadtest.phases[1].rate=50 --loadtest.phases[1].duration=2m --loadtest.arrivals=constant
+ *     --loadtest.service-properties.[spring.r2dbc.pool.max-size]=40"
+ * </pre>
+ * Requires a Docker daemon for the containers.
+ */
+public class LoadTestApplication {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties properties = new Binder(ConfigurationPropertySources.from(
+                new SimpleCommandLinePropertySource(args)))
+                .bindOrCreate("loadtest", Bindable.of(LoadTestProperties.class));
+
+        try (Infrastructure infrastructure = new Infrastructure(properties);
+             ServiceCluster cluster = new ServiceCluster(properties, infrastructure)) {
+            infrastructure.start();
+            cluster.start();
+
+            LatencyReport report = new LatencyReport();
+            ScenarioDriver driver = new ScenarioDriver(properties, cluster, report);
+            log.info("Services started, running load");
+            long start = System.nanoTime();
+            driver.run().block();
+
+            report.printSummary(System.out, Path.of(properties.getReportDirectory()),
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
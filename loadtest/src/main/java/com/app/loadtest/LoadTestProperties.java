@@ -0,0 +1,259 @@
+package com.app.loadtest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, bound from {@code --loadtest.*} command line arguments.
+ */
+public class LoadTestProperties {
+
+    /**
+     * Load phases run one after the other. Defaults to a single phase of 10 scenarios per second for one minute.
+     */
+    private List<Phase> phases = new ArrayList<>(List.of(new Phase(10, Duration.ofMinutes(1))));
+
+    /**
+     * How scenario starts are spaced within a phase.
+     */
+    private Arrivals arrivals = Arrivals.POISSON;
+
+    /**
+     * Maximum number of scenarios in flight; arrivals beyond it are counted as dropped instead of queued.
+     */
+    private int maxInFlight = 5000;
+
+    /**
+     * How long a scenario waits for the verification email and for its account to be created.
+     */
+    private Duration stageTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How often a scenario checks whether its account has been created.
+     */
+    private Duration pollInterval = Duration.ofMillis(25);
+
+    /**
+     * How often interval latencies and throughput are printed while the test runs.
+     */
+    private Duration reportInterval = Duration.ofSeconds(10);
+
+    /**
+     * Directory the per-stage histograms are written to, relative to the working directory.
+     */
+    private String reportDirectory = "build/loadtest";
+
+    private BigDecimal loanAmount = new BigDecimal("5000.00");
+
+    private int tenureMonths = 12;
+
+    private BigDecimal fundAmount = new BigDecimal("1000.00");
+
+    private int customerPort = 19001;
+
+    private int loanPort = 19002;
+
+    private int accountPort = 19003;
+
+    private String postgresImage = "postgres:15";
+
+    private String rabbitmqImage = "rabbitmq:3-management";
+
+    /**
+     * Schema script run when the database container starts.
+     */
+    private String initScript = "db/init.sql";
+
+    /**
+     * Extra properties passed to all three services, e.g. pool sizes. They win over the harness defaults.
+     */
+    private Map<String, String> serviceProperties = new LinkedHashMap<>();
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    public void setPhases(List<Phase> phases) {
+        this.phases = phases;
+    }
+
+    public Arrivals getArrivals() {
+        return arrivals;
+    }
+
+    public void setArrivals(Arrivals arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Duration getStageTimeout() {
+        return stageTimeout;
+    }
+
+    public void setStageTimeout(Duration stageTimeout) {
+        this.stageTimeout = stageTimeout;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(Duration reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    public String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    public void setReportDirectory(String reportDirectory) {
+        this.reportDirectory = reportDirectory;
+    }
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public int getTenureMonths() {
+        return tenureMonths;
+    }
+
+    public void setTenureMonths(int tenureMonths) {
+        this.tenureMonths = tenureMonths;
+    }
+
+    public BigDecimal getFundAmount() {
+        return fundAmount;
+    }
+
+    public void setFundAmount(BigDecimal fundAmount) {
+        this.fundAmount = fundAmount;
+    }
+
+    public int getCustomerPort() {
+        return customerPort;
+    }
+
+    public void setCustomerPort(int customerPort) {
+        this.customerPort = customerPort;
+    }
+
+    public int getLoanPort() {
+        return loanPort;
+    }
+
+    public void setLoanPort(int loanPort) {
+        this.loanPort = loanPort;
+    }
+
+    public int getAccountPort() {
+        return accountPort;
+    }
+
+    public void setAccountPort(int accountPort) {
+        this.accountPort = accountPort;
+    }
+
+    public String getPostgresImage() {
+        return postgresImage;
+    }
+
+    public void setPostgresImage(String postgresImage) {
+        this.postgresImage = postgresImage;
+    }
+
+    public String getRabbitmqImage() {
+        return rabbitmqImage;
+    }
+
+    public void setRabbitmqImage(String rabbitmqImage) {
+        this.rabbitmqImage = rabbitmqImage;
+    }
+
+    public String getInitScript() {
+        return initScript;
+    }
+
+    public void setInitScript(String initScript) {
+        this.initScript = initScript;
+    }
+
+    public Map<String, String> getServiceProperties() {
+        return serviceProperties;
+    }
+
+    public void setServiceProperties(Map<String, String> serviceProperties) {
+        this.serviceProperties = serviceProperties;
+    }
+
+    public enum Arrivals {
+        /**
+         * Scenarios start at evenly spaced times.
+         */
+        CONSTANT,
+        /**
+         * Scenarios start at exponentially distributed gaps, like independent users.
+         */
+        POISSON
+    }
+
+    /**
+     * A period with a fixed arrival rate.
+     */
+    public static class Phase {
+
+        /**
+         * Scenarios started per second.
+         */
+        private double rate;
+
+        private Duration duration;
+
+        public Phase() {
+        }
+
+        public Phase(double rate, Duration duration) {
+            this.rate = rate;
+            this.duration = duration;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+    }
+}
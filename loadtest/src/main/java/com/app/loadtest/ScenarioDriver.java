@@ -0,0 +1,207 @@
+package com.app.loadtest;
+
+import com.app.account_service.dto.FundAccountRequest;
+import com.app.account_service.entity.Account;
+import com.app.account_service.repository.AccountRepository;
+import com.app.customer_service.dto.CustomerDto;
+import com.app.loan_service.dto.LoanApplicationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the onboarding scenario against the {@link ServiceCluster} with an open workload model.
+ * <p>
+ * Scenarios start on a precomputed schedule of arrival times, independent of how many are still
+ * running, so a slow system builds up a backlog instead of quietly slowing the load down. The first
+ * stage and the scenario total are timed from the intended arrival time, which keeps scheduling delay
+ * in the numbers instead of hiding it (coordinated omission). Each scenario registers a customer,
+ * verifies it with the emailed code, waits for the account, applies for a loan and funds the account.
+ */
+public class ScenarioDriver {
+
+    private static final String PASSWORD = "Load-test-password-1";
+
+    private static final Logger log = LoggerFactory.getLogger(ScenarioDriver.class);
+
+    private final LoadTestProperties properties;
+    private final CapturingEmailProvider emailProvider;
+    private final AccountRepository accountRepository;
+    private final LatencyReport report;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient customers;
+    private final WebClient loans;
+    private final WebClient accounts;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ScenarioDriver(LoadTestProperties properties, ServiceCluster cluster, LatencyReport report) {
+        this.properties = properties;
+        this.emailProvider = cluster.emailProvider();
+        this.accountRepository = cluster.accountServiceBean(AccountRepository.class);
+        this.report = report;
+
+        // Enough connections for the target concurrency; waiting for one counts towards the latency
+        this.connectionProvider = ConnectionProvider.builder("loadtest")
+                .maxConnections(Math.max(properties.getMaxInFlight(), 1))
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.getStageTimeout())
+                .build();
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)));
+        this.customers = builder.clone().baseUrl("http://localhost:" + properties.getCustomerPort()).build();
+        this.loans = builder.clone().baseUrl("http://localhost:" + properties.getLoanPort()).build();
+        this.accounts = builder.clone().baseUrl("http://localhost:" + properties.getAccountPort()).build();
+    }
+
+    /**
+     * Run all load phases and wait for the started scenarios to finish.
+     *
+     * @return Mono that completes when the last scenario has ended
+     */
+    public Mono<Void> run() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Disposable reporter = Flux.interval(properties.getReportInterval())
+                    .subscribe(tick -> report.printInterval(System.out, inFlight.get()));
+
+            return arrivals(start)
+                    .flatMap(this::admit, Integer.MAX_VALUE)
+                    .doFinally(signal -> {
+                        reporter.dispose();
+                        connectionProvider.dispose();
+                    })
+                    .then();
+        });
+    }
+
+    private Mono<Void> admit(long intendedStart) {
+        if (inFlight.incrementAndGet() > properties.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            report.recordDropped();
+            return Mono.empty();
+        }
+        return scenario(intendedStart)
+                .onErrorResume(error -> Mono.empty())
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private Mono<Void> scenario(long intendedStart) {
+        CustomerDto customer = newCustomer(sequence.incrementAndGet());
+        Duration timeout = properties.getStageTimeout();
+
+        return timed(Stage.REGISTER, intendedStart, post(customers, "/customers/register", customer, CustomerDto.class))
+                .flatMap(registered -> timed(Stage.VERIFICATION_EMAIL,
+                        emailProvider.awaitCode(customer.getEmail(), timeout)))
+                .flatMap(code -> {
+                    customer.setVerificationCode(code);
+                    return timed(Stage.VERIFY, post(customers, "/customers/verify", customer, CustomerDto.class));
+                })
+                .flatMap(verified -> timed(Stage.ACCOUNT_CREATION, awaitAccount(verified.getId())))
+                // The services address accounts by the ID of the owning customer
+                .flatMap(account -> timed(Stage.LOAN_APPLY, post(loans, "/loans/apply",
+                                new LoanApplicationRequest(account.getCustomerId(), properties.getLoanAmount(),
+                                        properties.getTenureMonths()), String.class))
+                        .then(timed(Stage.FUND, post(accounts, "/accounts/fund",
+                                new FundAccountRequest(account.getCustomerId(), properties.getFundAmount()),
+                                String.class))))
+                .doOnSuccess(ignored -> report.record(Stage.SCENARIO, intendedStart))
+                .doOnError(error -> log.debug("Scenario for {} failed", customer.getEmail(), error))
+                .then();
+    }
+
+    private Mono<Account> awaitAccount(UUID customerId) {
+        return Mono.defer(() -> accountRepository.findByCustomerId(customerId))
+                .repeatWhenEmpty(attempts -> attempts.delayElements(properties.getPollInterval()))
+                .timeout(properties.getStageTimeout());
+    }
+
+    private <T> Mono<T> post(WebClient client, String path, Object body, Class<T> responseType) {
+        return client.post()
+                .uri(path)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(responseType)
+                .timeout(properties.getStageTimeout());
+    }
+
+    private <T> Mono<T> timed(Stage stage, Mono<T> step) {
+        return Mono.defer(() -> timed(stage, System.nanoTime(), step));
+    }
+
+    private <T> Mono<T> timed(Stage stage, long startedAt, Mono<T> step) {
+        return step
+                .doOnSuccess(ignored -> report.record(stage, startedAt))
+                .doOnError(error -> report.recordError(stage, error));
+    }
+
+    /**
+     * Arrival times as System.nanoTime() values, emitted when they are due.
+     */
+    private Flux<Long> arrivals(long start) {
+        Flux<Long> offsets = Flux.empty();
+        long phaseStart = 0;
+        for (LoadTestProperties.Phase phase : properties.getPhases()) {
+            log.info("Phase: {} scenarios/s for {} ({} arrivals)", phase.getRate(), phase.getDuration(),
+                    properties.getArrivals());
+            offsets = offsets.concatWith(phaseArrivals(phaseStart, phase));
+            phaseStart += phase.getDuration().toNanos();
+        }
+        return offsets.concatMap(offset -> {
+            long due = start + offset;
+            long wait = due - System.nanoTime();
+            return wait > 0 ? Mono.delay(Duration.ofNanos(wait)).thenReturn(due) : Mono.just(due);
+        });
+    }
+
+    private Flux<Long> phaseArrivals(long phaseStart, LoadTestProperties.Phase phase) {
+        if (phase.getRate() <= 0) {
+            return Flux.empty();
+        }
+        long phaseEnd = phaseStart + phase.getDuration().toNanos();
+        double meanGap = 1e9 / phase.getRate();
+        return Flux.generate(() -> phaseStart, (next, sink) -> {
+            if (next >= phaseEnd) {
+                sink.complete();
+                return next;
+            }
+            sink.next(next);
+            return next + gap(meanGap);
+        });
+    }
+
+    private long gap(double meanGap) {
+        return switch (properties.getArrivals()) {
+            case CONSTANT -> Math.round(meanGap);
+            case POISSON -> Math.round(-meanGap * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+        };
+    }
+
+    private CustomerDto newCustomer(long number) {
+        String suffix = runId + "-" + number;
+        CustomerDto customer = new CustomerDto();
+        customer.setFirstName("Load");
+        customer.setLastName("Test " + number);
+        customer.setIdentityNumber("LT-" + suffix);
+        customer.setPhoneNumber(String.format("+2547%08d", number % 100_000_000));
+        customer.setEmail("load-" + suffix + "@loadtest.local");
+        customer.setDob(LocalDate.of(1990, 1, 1).plusDays(number % 3650));
+        customer.setHashPassword(PASSWORD);
+        return customer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.loadtest;
+
+import com.app.account_service.AccountServiceApplication;
+import com.app.customer_service.CustomerServiceApplication;
+import com.app.loan_service.LoanServiceApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The customer, loan and account services running in this JVM, each in its own application
+ * context with its own configuration file and HTTP port, connected to the {@link Infrastructure}.
+ * Service discovery and trace export are switched off; the customer service delivers emails
+ * to a {@link CapturingEmailProvider}.
+ */
+public class ServiceCluster implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceCluster.class);
+
+    private final LoadTestProperties properties;
+    private final Infrastructure infrastructure;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    private ConfigurableApplicationContext customerContext;
+    private ConfigurableApplicationContext accountContext;
+
+    public ServiceCluster(LoadTestProperties properties, Infrastructure infrastructure) {
+        this.properties = properties;
+        this.infrastructure = infrastructure;
+    }
+
+    public void start() {
+        // Account first, so its queues exist before the other services publish
+        accountContext = boot("account-service", properties.getAccountPort(), Map.of(),
+                AccountServiceApplication.class);
+        boot("loan-service", properties.getLoanPort(),
+                Map.of("core.banking.base-url", "http://localhost:" + properties.getLoanPort() + "/api/v1/core"),
+                LoanServiceApplication.class);
+        customerContext = boot("customer-service", properties.getCustomerPort(),
+                Map.of("notification.email.provider", "capture",
+                        // The stand-in relay has no sending quota
+                        "notification.email.rate-per-second", "100000",
+                        "notification.email.burst", "100000"),
+                CustomerServiceApplication.class, CapturingEmailProvider.class);
+    }
+
+    public CapturingEmailProvider emailProvider() {
+        return customerContext.getBean(CapturingEmailProvider.class);
+    }
+
+    public <T> T accountServiceBean(Class<T> type) {
+        return accountContext.getBean(type);
+    }
+
+    private ConfigurableApplicationContext boot(String name, int port, Map<String, String> serviceDefaults,
+                                                Class<?>... sources) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("spring.config.name", name);
+        settings.put("server.port", String.valueOf(port));
+        settings.put("spring.r2dbc.url", infrastructure.r2dbcUrl());
+        settings.put("spring.r2dbc.username", infrastructure.databaseUsername());
+        settings.put("spring.r2dbc.password", infrastructure.databasePassword());
+        settings.put("spring.rabbitmq.host", infrastructure.rabbitHost());
+        settings.put("spring.rabbitmq.port", String.valueOf(infrastructure.rabbitPort()));
+        settings.put("spring.rabbitmq.username", infrastructure.rabbitUsername());
+        settings.put("spring.rabbitmq.password", infrastructure.rabbitPassword());
+        settings.put("rabbitmq.host", infrastructure.rabbitHost());
+        settings.put("rabbitmq.port", String.valueOf(infrastructure.rabbitPort()));
+        settings.put("rabbitmq.username", infrastructure.rabbitUsername());
+        settings.put("rabbitmq.password", infrastructure.rabbitPassword());
+        settings.put("eureka.client.enabled", "false");
+        settings.put("spring.flyway.enabled", "false");
+        settings.put("spring.jmx.enabled", "false");
+        settings.put("spring.main.banner-mode", "off");
+        // Per-request INFO logging would dominate the measured latencies
+        settings.put("logging.level.com.app", "WARN");
+        settings.put("management.tracing.enabled", "false");
+        settings.put("management.otlp.tracing.export.enabled", "false");
+        settings.putAll(serviceDefaults);
+        settings.putAll(properties.getServiceProperties());
+
+        // Passed as command line arguments so they take precedence over the configuration file
+        String[] args = settings.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+
+        log.info("Starting {} on port {}", name, port);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(sources)
+                .registerShutdownHook(false)
+                .run(args);
+        contexts.add(context);
+        return context;
+    }
+
+    @Override
+    public void close() {
+        // Reverse start order: publishers stop before the consumer
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.loadtest;
+
+/**
+ * Steps of the onboarding scenario, in execution order, plus the scenario as a whole.
+ */
+public enum Stage {
+    /**
+     * POST /customers/register, timed from the intended arrival time of the scenario.
+     */
+    REGISTER("register"),
+    /**
+     * From the registration response until the verification email is delivered.
+     */
+    VERIFICATION_EMAIL("verification_email"),
+    /**
+     * POST /customers/verify with the code from the email.
+     */
+    VERIFY("verify"),
+    /**
+     * From the verification response until the account service has created the account.
+     */
+    ACCOUNT_CREATION("account_creation"),
+    /**
+     * POST /loans/apply.
+     */
+    LOAN_APPLY("loan_apply"),
+    /**
+     * POST /accounts/fund.
+     */
+    FUND("fund"),
+    /**
+     * All of the above, timed from the intended arrival time.
+     */
+    SCENARIO("scenario");
+
+    private final String label;
+
+    Stage(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,160 @@
+package com.app.loan_service.client;
+
+import com.app.loan_service.config.CoreBankingProperties;
+import com.app.loan_service.dto.LoanApplicationRequest;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Reactive client of the core banking system.
+ * <p>
+ * Calls run on a dedicated, bounded Reactor Netty connection pool and each attempt has
+ * its own timeout. Idempotent calls are hedged: if the first attempt is slower than the
+ * configured percentile of recent latencies, a second attempt is sent and whichever
+ * answers first wins. Every attempt, hedged or not, takes a bulkhead permit, and the
+ * whole call is guarded by a circuit breaker, so a slow core system is cut off instead
+ * of tying up loan-service connections and threads.
+ */
+@Component
+public class CoreBankingClient {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(CoreBankingClient.class);
+
+    private final CoreBankingProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final LatencyWindow latencies;
+    private final Counter hedgedCalls;
+
+    public CoreBankingClient(WebClient.Builder webClientBuilder, CoreBankingProperties properties,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+
+        CoreBankingProperties.Pool pool = properties.getPool();
+        this.connectionProvider = ConnectionProvider.builder("core-banking")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getMaxIdleTime())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getTimeout());
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        CoreBankingProperties.Breaker breaker = properties.getCircuitBreaker();
+        this.circuitBreaker = CircuitBreaker.of("core-banking", CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(breaker.getSlowCallDuration())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitInOpenState())
+                // Rejected requests say nothing about the health of the core system
+                .recordException(error -> !(error instanceof WebClientResponseException response
+                        && response.getStatusCode().is4xxClientError()))
+                .build());
+        this.circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("Core banking circuit breaker: {}",
+                        event.getStateTransition()));
+        this.bulkhead = Bulkhead.of("core-banking", BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        this.latencies = new LatencyWindow(properties.getHedge().getWindowSize(),
+                properties.getHedge().getPercentile());
+        this.hedgedCalls = Counter.builder("core.banking.hedged.calls")
+                .description("Core banking calls for which a hedged second attempt was sent")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @PreDestroy
+    void stop() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Ask the core banking system for the repayment schedule of a loan application.
+     *
+     * @param request the loan application
+     * @return Mono of the schedule summary returned by the core system
+     */
+    public Mono<String> getLoanSchedule(LoanApplicationRequest request) {
+        return hedged(() -> webClient.post()
+                .uri("/loans/schedule")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    /**
+     * Run an idempotent call with hedging, bulkhead and circuit breaker.
+     */
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        Mono<T> primary = attempt(call);
+        Duration delay = hedgeDelay();
+        Mono<T> result = delay == null
+                ? primary
+                : Mono.firstWithSignal(primary, Mono.delay(delay)
+                        .doOnNext(tick -> hedgedCalls.increment())
+                        .then(attempt(call)));
+        return result.transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private <T> Mono<T> attempt(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return call.get()
+                            .timeout(properties.getTimeout())
+                            .doOnSuccess(ignored -> latencies.record(System.nanoTime() - start));
+                })
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * @return the delay before a hedged attempt, or null if hedging is off
+     */
+    private Duration hedgeDelay() {
+        CoreBankingProperties.Hedge hedge = properties.getHedge();
+        if (!hedge.isEnabled()) {
+            return null;
+        }
+        long percentile = latencies.percentileNanos();
+        if (percentile < 0) {
+            return hedge.getMaxDelay();
+        }
+        long nanos = Math.max(hedge.getMinDelay().toNanos(), Math.min(hedge.getMaxDelay().toNanos(), percentile));
+        return Duration.ofNanos(nanos);
+    }
+}
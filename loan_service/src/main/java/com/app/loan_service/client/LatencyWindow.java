@@ -0,0 +1,53 @@
+package com.app.loan_service.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window over the most recent call latencies, used to derive the hedging delay.
+ * <p>
+ * Samples are written lock-free into a ring buffer. The percentile is recomputed from a
+ * sorted copy of the buffer only every {@code size / 10} samples, so reading it is cheap.
+ */
+class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final AtomicInteger count = new AtomicInteger();
+    private final double percentile;
+    private final int recomputeEvery;
+    private volatile long cachedNanos = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, size / 10);
+    }
+
+    void record(long nanos) {
+        int index = count.getAndIncrement();
+        samples.set(Math.floorMod(index, samples.length()), nanos);
+        if ((index + 1) % recomputeEvery == 0) {
+            // A negative index means the counter wrapped around, the buffer is full by then
+            int filled = index < 0 || index + 1 >= samples.length() ? samples.length() : index + 1;
+            cachedNanos = compute(filled);
+        }
+    }
+
+    /**
+     * @return the latency percentile in nanoseconds, or -1 until enough samples are recorded
+     */
+    long percentileNanos() {
+        return cachedNanos;
+    }
+
+    private long compute(int filled) {
+        long[] sorted = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * filled) - 1;
+        return sorted[Math.max(0, Math.min(filled - 1, rank))];
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.loan_service.config;
+
+import com.app.loan_service.shared.Money;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reads {@link Money} amounts from JSON in banking.loan.currency; the amounts carry none.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module moneyModule(LoanProperties loanProperties) {
+        return Money.jacksonModule(loanProperties.getCurrency());
+    }
+}
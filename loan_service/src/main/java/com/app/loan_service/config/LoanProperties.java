@@ -1,9 +1,12 @@
 package com.app.loan_service.config;
 
+import com.app.loan_service.shared.AmortizationMethod;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "banking.loan")
@@ -11,6 +14,10 @@ public class LoanProperties {
     private double minFundLimit;
     private double minAmount;
     private double maxAmount;
+    private BigDecimal interestRate = BigDecimal.TEN;
+    private AmortizationMethod amortizationMethod = AmortizationMethod.ANNUITY;
+    private int listingPageSize = 500;
+    private String currency = "KES";
 
     public double getMinFundLimit() {
         return minFundLimit;
@@ -35,4 +42,36 @@ public class LoanProperties {
     public void setMaxAmount(double maxAmount) {
         this.maxAmount = maxAmount;
     }
+
+    public BigDecimal getInterestRate() {
+        return interestRate;
+    }
+
+    public void setInterestRate(BigDecimal interestRate) {
+        this.interestRate = interestRate;
+    }
+
+    public AmortizationMethod getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(AmortizationMethod amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
+
+    public int getListingPageSize() {
+        return listingPageSize;
+    }
+
+    public void setListingPageSize(int listingPageSize) {
+        this.listingPageSize = listingPageSize;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
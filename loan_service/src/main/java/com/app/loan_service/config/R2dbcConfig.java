@@ -0,0 +1,55 @@
+package com.app.loan_service.config;
+
+import com.app.loan_service.shared.Money;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Maps {@link Money} properties to NUMERIC(15,2) columns.
+ * Amount columns carry no currency, so read values are in banking.loan.currency.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    private final LoanProperties loanProperties;
+
+    public R2dbcConfig(LoanProperties loanProperties) {
+        this.loanProperties = loanProperties;
+    }
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE,
+                List.of(new MoneyWritingConverter(), new MoneyReadingConverter(loanProperties.getCurrency())));
+    }
+
+    @WritingConverter
+    static class MoneyWritingConverter implements Converter<Money, BigDecimal> {
+        @Override
+        public BigDecimal convert(Money source) {
+            return source.toBigDecimal();
+        }
+    }
+
+    @ReadingConverter
+    static class MoneyReadingConverter implements Converter<BigDecimal, Money> {
+        private final String currency;
+
+        MoneyReadingConverter(String currency) {
+            this.currency = currency;
+        }
+
+        @Override
+        public Money convert(BigDecimal source) {
+            return Money.of(source, currency);
+        }
+    }
+}
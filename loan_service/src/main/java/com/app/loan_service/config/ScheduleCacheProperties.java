@@ -0,0 +1,40 @@
+package com.app.loan_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the in-memory cache of calculated loan schedules.
+ */
+@Component
+@ConfigurationProperties(prefix = "banking.loan.schedule-cache")
+public class ScheduleCacheProperties {
+
+    /**
+     * Maximum number of schedules kept in memory.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a schedule is kept in memory after it was calculated.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -1,19 +1,30 @@
 package com.app.loan_service.controller;
 
 import com.app.loan_service.dto.LoanApplicationRequest;
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.entity.Loan;
 import com.app.loan_service.service.LoanService;
+import com.app.loan_service.shared.AmortizationMethod;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/loans")
@@ -34,6 +45,28 @@ public class LoanController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/{id}/schedule")
+    public Mono<ResponseEntity<LoanScheduleResponse>> schedule(@PathVariable UUID id,
+                                                               @RequestParam(required = false) AmortizationMethod method) {
+        return loanService.getLoanSchedule(id, method)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream the loans of an account as NDJSON, oldest first. To continue an interrupted or
+     * limited listing, pass the ID of the last loan received as after.
+     * Without a limit, all loans of the account are streamed.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Loan> list(@RequestParam UUID accountId,
+                           @RequestParam(required = false) UUID after,
+                           @RequestParam(required = false) Long limit) {
+        if (limit != null && limit < 1) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return loanService.streamLoans(accountId, after, limit != null ? limit : Long.MAX_VALUE);
+    }
+
     private <T> void validate(T dto) {
         Set<ConstraintViolation<T>> violations = validator.validate(dto);
         if (!violations.isEmpty()) {
@@ -1,5 +1,6 @@
 package com.app.loan_service.entity;
 
+import com.app.loan_service.shared.Money;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Table;
@@ -21,7 +22,7 @@ public class Loan {
     private UUID accountId;
 
     @Column("amount")
-    private Double amount;
+    private Money amount;
 
     @Column("tenure")
     private Integer tenure;  // in months
@@ -51,11 +52,11 @@ public class Loan {
         this.accountId = accountId;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -0,0 +1,125 @@
+package com.app.loan_service.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event waiting in the transactional outbox.
+ * Written in the same transaction as the state change that caused it and
+ * published to RabbitMQ later by the outbox relay.
+ */
+@Table("outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @Column("source")
+    private String source;
+
+    @Column("event_type")
+    private String eventType;
+
+    @Column("payload")
+    private String payload;
+
+    /**
+     * W3C traceparent of the request that wrote the event, so the publish joins its trace.
+     */
+    @Column("trace_parent")
+    private String traceParent;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("published_at")
+    private LocalDateTime publishedAt;
+
+    /**
+     * Set when the event can never be published, e.g. because its payload is unreadable.
+     */
+    @Column("failed_at")
+    private LocalDateTime failedAt;
+
+    /**
+     * End of the claim of the relay currently publishing the event.
+     */
+    @Column("claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getTraceParent() {
+        return traceParent;
+    }
+
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
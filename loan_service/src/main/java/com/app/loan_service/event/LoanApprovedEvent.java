@@ -1,5 +1,6 @@
 package com.app.loan_service.event;
 
+import com.app.loan_service.shared.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,7 @@ import java.util.UUID;
 public class LoanApprovedEvent {
     private UUID loanId;
     private UUID accountId;
-    private double amount;
+    private Money amount;
 
     public UUID getLoanId() {
         return loanId;
@@ -30,11 +31,11 @@ public class LoanApprovedEvent {
         this.accountId = accountId;
     }
 
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
@@ -0,0 +1,219 @@
+package com.app.loan_service.messaging;
+
+import com.app.loan_service.config.RabbitMQProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking RabbitMQ publisher that sends events in batches with publisher confirms.
+ * <p>
+ * Events are queued in a bounded buffer and sent in batches on a single channel off the
+ * event loop. The Mono returned by {@link #publish(Object, String)} completes when the broker
+ * confirms the message and fails if it is nacked, times out or cannot be queued.
+ * Requires {@code spring.rabbitmq.publisher-confirm-type: correlated}.
+ * <p>
+ * Every event is published in a producer span that continues the trace of the request
+ * that caused it; the span context travels to the consumer in the message headers.
+ */
+@Component
+public class BatchingEventPublisher {
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private static final Logger log = LoggerFactory
+            .getLogger(BatchingEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQProperties properties;
+    private final DistributionSummary batchSize;
+    private final Timer confirmLatency;
+    private final Tracer tracer;
+    private final Propagator propagator;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private Sinks.Many<PendingEvent> events;
+    private Disposable sender;
+
+    public BatchingEventPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties,
+                                  ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<Tracer> tracer,
+                                  ObjectProvider<Propagator> propagator) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.batchSize = DistributionSummary.builder("rabbitmq.publisher.batch.size")
+                .description("Number of events sent per publisher batch")
+                .register(registry);
+        this.confirmLatency = Timer.builder("rabbitmq.publisher.confirm.latency")
+                .description("Time from queueing an event until the broker confirms it")
+                .publishPercentileHistogram()
+                .register(registry);
+        registry.gauge("rabbitmq.publisher.in.flight", inFlight);
+    }
+
+    @PostConstruct
+    void start() {
+        RabbitMQProperties.Publisher settings = properties.getPublisher();
+        events = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<PendingEvent>get(settings.getQueueCapacity()).get());
+        sender = events.asFlux()
+                .bufferTimeout(settings.getBatchSize(), settings.getMaxBatchDelay(), true)
+                .flatMap(this::sendBatch, settings.getMaxInFlightBatches())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        events.tryEmitComplete();
+        sender.dispose();
+    }
+
+    /**
+     * Queue an event for publishing to the configured exchange and routing key.
+     *
+     * @param event       the event to publish
+     * @param traceParent W3C traceparent of the request that caused the event; null starts a new trace
+     * @return Mono that completes once the broker has confirmed the message
+     */
+    public Mono<Void> publish(Object event, String traceParent) {
+        return Mono.create(sink -> {
+            Span span = startSpan(traceParent);
+            PendingEvent pending = new PendingEvent(event, new CorrelationData(), sink, System.nanoTime(),
+                    span, headers(span));
+            // Counted before emitting: the sender may confirm and decrement it right away
+            inFlight.incrementAndGet();
+            Sinks.EmitResult result = emit(pending);
+            if (result.isFailure()) {
+                inFlight.decrementAndGet();
+                log.warn("Publisher queue rejected event: {}, Reason={}", event, result);
+                IllegalStateException error = new IllegalStateException(result == Sinks.EmitResult.FAIL_OVERFLOW
+                        ? "Event publisher is overloaded, please retry"
+                        : "Event publisher is shut down");
+                span.error(error).end();
+                sink.error(error);
+            }
+        });
+    }
+
+    private Sinks.EmitResult emit(PendingEvent pending) {
+        Sinks.EmitResult result;
+        while ((result = events.tryEmitNext(pending)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            // Another caller is emitting right now; that only takes a few instructions
+            Thread.onSpinWait();
+        }
+        return result;
+    }
+
+    private Span startSpan(String traceParent) {
+        Span.Builder builder = traceParent == null
+                ? tracer.spanBuilder()
+                : propagator.extract(Map.of(TRACEPARENT, traceParent), Map::get);
+        return builder.name("publish " + properties.getExchange())
+                .kind(Span.Kind.PRODUCER)
+                .remoteServiceName("rabbitmq")
+                .tag("messaging.destination.name", properties.getExchange())
+                .start();
+    }
+
+    private Map<String, String> headers(Span span) {
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(span.context(), headers, Map::put);
+        return headers;
+    }
+
+    /**
+     * Adds the trace headers and the send time, which lets consumers measure how long
+     * a message waited in the broker.
+     */
+    private static MessagePostProcessor stamp(PendingEvent pending) {
+        return message -> {
+            MessageProperties messageProperties = message.getMessageProperties();
+            messageProperties.setTimestamp(new Date());
+            pending.headers().forEach(messageProperties::setHeader);
+            return message;
+        };
+    }
+
+    /**
+     * Send a batch on one channel, then wait for the confirms of all its messages.
+     */
+    private Mono<Void> sendBatch(List<PendingEvent> batch) {
+        batchSize.record(batch.size());
+        return Mono.fromCallable(() -> rabbitTemplate.invoke(operations -> {
+                    for (PendingEvent pending : batch) {
+                        try {
+                            operations.convertAndSend(properties.getExchange(), properties.getRoutingKey(),
+                                    pending.event(), stamp(pending), pending.correlation());
+                        } catch (AmqpException e) {
+                            pending.correlation().getFuture().completeExceptionally(e);
+                        }
+                    }
+                    return batch;
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(error -> {
+                    log.error("Failed to send batch of {} events", batch.size(), error);
+                    batch.forEach(pending -> pending.correlation().getFuture().completeExceptionally(error));
+                    return Mono.just(batch);
+                })
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(this::awaitConfirm)
+                .then();
+    }
+
+    private Mono<Void> awaitConfirm(PendingEvent pending) {
+        return Mono.fromFuture(pending.correlation().getFuture())
+                .timeout(properties.getPublisher().getConfirmTimeout())
+                .flatMap(confirm -> confirm.isAck()
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Broker rejected event: " + confirm.getReason())))
+                .doOnSuccess(ignored -> pending.sink().success())
+                .onErrorResume(error -> {
+                    log.error("Event not confirmed: {}", pending.event(), error);
+                    pending.span().error(error);
+                    pending.sink().error(error);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    pending.span().end();
+                    inFlight.decrementAndGet();
+                    confirmLatency.record(System.nanoTime() - pending.queuedAt(), TimeUnit.NANOSECONDS);
+                });
+    }
+
+    private record PendingEvent(Object event, CorrelationData correlation, MonoSink<Void> sink, long queuedAt,
+                                Span span, Map<String, String> headers) {
+    }
+}
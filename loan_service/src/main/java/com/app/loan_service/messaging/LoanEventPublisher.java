@@ -1,33 +1,32 @@
 package com.app.loan_service.messaging;
 
-import com.app.loan_service.config.RabbitMQProperties;
 import com.app.loan_service.event.LoanApprovedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 public class LoanEventPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final RabbitMQProperties properties;
+    private final BatchingEventPublisher batchingEventPublisher;
 
     private static final Logger log = LoggerFactory
             .getLogger(LoanEventPublisher.class);
 
-    public LoanEventPublisher(RabbitTemplate rabbitTemplate, RabbitMQProperties properties) {
-        this.rabbitTemplate = rabbitTemplate;
-        this.properties = properties;
+    public LoanEventPublisher(BatchingEventPublisher batchingEventPublisher) {
+        this.batchingEventPublisher = batchingEventPublisher;
     }
 
-    public void publishLoanApprovedEvent(LoanApprovedEvent event) {
-        rabbitTemplate.convertAndSend(
-                properties.getExchange(),
-                properties.getRoutingKey(),
-                event
-        );
-        log.info("Loan approved event published: {}", event);
+    /**
+     * Publish a loan approved event to the Account Service.
+     *
+     * @param event       the event to publish
+     * @param traceParent W3C traceparent of the request that caused the event, may be null
+     * @return Mono that completes once the broker has confirmed the event
+     */
+    public Mono<Void> publishLoanApprovedEvent(LoanApprovedEvent event, String traceParent) {
+        return batchingEventPublisher.publish(event, traceParent)
+                .doOnSuccess(ignored -> log.info("Loan approved event published: {}", event));
     }
 }
-
@@ -0,0 +1,97 @@
+package com.app.loan_service.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the transactional outbox of this service and exposes its backlog as the gauges
+ * outbox.pending, the number of unpublished events, and outbox.lag, the age of the oldest
+ * one. A growing lag means the relay no longer keeps up, or the broker is unavailable.
+ * The gauge outbox.failed counts events the relay gave up on, which need a closer look.
+ */
+@Component
+public class OutboxLagMonitor {
+
+    private static final String BACKLOG_SQL =
+            "SELECT count(*) FILTER (WHERE failed_at IS NULL) AS pending, " +
+            "count(*) FILTER (WHERE failed_at IS NOT NULL) AS failed, " +
+            "COALESCE(EXTRACT(EPOCH FROM LOCALTIMESTAMP - min(created_at) FILTER (WHERE failed_at IS NULL)), 0)" +
+            "::float8 AS lag " +
+            "FROM outbox_events WHERE source = $1 AND published_at IS NULL";
+
+    private static final Logger log = LoggerFactory
+            .getLogger(OutboxLagMonitor.class);
+
+    private final DatabaseClient databaseClient;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${spring.application.name}")
+    private String source;
+
+    @Value("${banking.metrics.lag-poll-interval:15s}")
+    private Duration pollInterval;
+
+    private Disposable poller;
+
+    public OutboxLagMonitor(DatabaseClient databaseClient, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.databaseClient = databaseClient;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(registry);
+        Gauge.builder("outbox.failed", failed, AtomicLong::get)
+                .description("Outbox events that can never be published")
+                .register(registry);
+        Gauge.builder("outbox.lag", lagMillis, millis -> millis.get() / 1000d)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        poller = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> poll()
+                        .onErrorResume(error -> {
+                            log.warn("Outbox backlog poll failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.dispose();
+    }
+
+    private Mono<Void> poll() {
+        return databaseClient.sql(BACKLOG_SQL)
+                .bind(0, source)
+                .map(row -> {
+                    pending.set(row.get("pending", Long.class));
+                    failed.set(row.get("failed", Long.class));
+                    lagMillis.set(Math.round(row.get("lag", Double.class) * 1000));
+                    return true;
+                })
+                .one()
+                .then();
+    }
+}
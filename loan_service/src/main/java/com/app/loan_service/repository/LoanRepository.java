@@ -1,9 +1,37 @@
 package com.app.loan_service.repository;
 
 import com.app.loan_service.entity.Loan;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
 
 @Repository
-public interface LoanRepository extends R2dbcRepository<Loan, Long> {
+public interface LoanRepository extends R2dbcRepository<Loan, UUID> {
+
+    /**
+     * First keyset page of the loans of an account, oldest first.
+     *
+     * @param accountId the account ID
+     * @param limit     the maximum number of loans
+     * @return Flux of loans ordered by creation time and ID
+     */
+    @Query("SELECT * FROM loans WHERE account_id = :accountId ORDER BY created_at, id LIMIT :limit")
+    Flux<Loan> findFirstPageByAccountId(UUID accountId, int limit);
+
+    /**
+     * Next keyset page of the loans of an account, continuing after the given loan.
+     * Empty if that loan does not exist.
+     *
+     * @param accountId the account ID
+     * @param after     the ID of the last loan of the previous page
+     * @param limit     the maximum number of loans
+     * @return Flux of loans ordered by creation time and ID
+     */
+    @Query("SELECT * FROM loans WHERE account_id = :accountId " +
+            "AND (created_at, id) > (SELECT created_at, id FROM loans WHERE id = :after) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<Loan> findPageByAccountIdAfter(UUID accountId, UUID after, int limit);
 }
@@ -0,0 +1,71 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.config.ScheduleCacheProperties;
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.shared.AmortizationMethod;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Bounded, expiring cache of loan schedules in front of the {@link LoanScheduleCalculator}.
+ * <p>
+ * Schedules only depend on amount, tenure, rate and method, so equal inputs share one
+ * cached response; in the key the amount is normalized to cents and the rate stripped
+ * of trailing zeros so that equal values always map to the same entry, while the schedule
+ * is calculated from the values as given. Cached responses are shared and must not be
+ * modified by callers. Hit and miss counts are exported as cache.* metrics tagged with
+ * cache=loan.schedule.
+ */
+@Component
+public class LoanScheduleCache {
+
+    private final LoanScheduleCalculator calculator;
+    private final Cache<ScheduleKey, LoanScheduleResponse> schedules;
+
+    public LoanScheduleCache(LoanScheduleCalculator calculator, ScheduleCacheProperties properties,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.calculator = calculator;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                schedules, "loan.schedule");
+    }
+
+    /**
+     * Return the schedule for the given inputs, calculating it on a miss.
+     *
+     * @param principal         the loan amount
+     * @param tenureMonths      the number of monthly installments
+     * @param annualRatePercent the nominal annual interest rate in percent
+     * @param method            the amortization method
+     * @return the shared LoanScheduleResponse for these inputs
+     */
+    public LoanScheduleResponse get(BigDecimal principal, int tenureMonths,
+                                    BigDecimal annualRatePercent, AmortizationMethod method) {
+        ScheduleKey key = new ScheduleKey(principal.setScale(2, RoundingMode.HALF_UP), tenureMonths,
+                annualRatePercent.stripTrailingZeros(), method);
+        return schedules.get(key, k -> calculator.calculate(k.principal(), tenureMonths, annualRatePercent, method));
+    }
+
+    /**
+     * Drop all cached schedules.
+     */
+    public void invalidateAll() {
+        schedules.invalidateAll();
+    }
+
+    private record ScheduleKey(BigDecimal principal, int tenureMonths, BigDecimal annualRatePercent,
+                               AmortizationMethod method) {
+    }
+}
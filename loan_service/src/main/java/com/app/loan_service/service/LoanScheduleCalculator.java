@@ -0,0 +1,139 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.dto.InstallmentDetail;
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.shared.AmortizationMethod;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process amortization engine for monthly loan schedules.
+ * <p>
+ * All amounts are rounded half-up to cents per installment, except equal shares of a
+ * total, which are rounded down; the last installment absorbs the rounding remainder so
+ * principal parts always add up to the loan amount and no installment is negative.
+ * Intermediate rates are kept at DECIMAL64 precision.
+ */
+@Component
+public class LoanScheduleCalculator {
+
+    private static final int SCALE = 2;
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final RoundingMode SHARE_ROUNDING = RoundingMode.DOWN;
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+
+    /**
+     * Calculate the full repayment schedule of a loan.
+     *
+     * @param principal         the loan amount
+     * @param tenureMonths      the number of monthly installments
+     * @param annualRatePercent the nominal annual interest rate in percent, e.g. 10 for 10%
+     * @param method            the amortization method
+     * @return LoanScheduleResponse with totals and one InstallmentDetail per month
+     */
+    public LoanScheduleResponse calculate(BigDecimal principal, int tenureMonths,
+                                          BigDecimal annualRatePercent, AmortizationMethod method) {
+        if (principal.signum() <= 0 || tenureMonths < 1 || annualRatePercent.signum() < 0) {
+            throw new IllegalArgumentException("Principal and tenure must be positive and the rate not negative");
+        }
+        BigDecimal amount = principal.setScale(SCALE, ROUNDING);
+        BigDecimal monthlyRate = annualRatePercent.divide(HUNDRED, PRECISION).divide(MONTHS_PER_YEAR, PRECISION);
+
+        List<InstallmentDetail> installments = switch (method) {
+            case FLAT -> flat(amount, tenureMonths, annualRatePercent);
+            case REDUCING_BALANCE -> reducingBalance(amount, tenureMonths, monthlyRate);
+            case ANNUITY -> annuity(amount, tenureMonths, monthlyRate);
+        };
+
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        for (InstallmentDetail installment : installments) {
+            totalInterest = totalInterest.add(installment.getInterestAmount());
+        }
+
+        return LoanScheduleResponse.builder()
+                .principalAmount(amount)
+                .interestRate(annualRatePercent)
+                .totalInterest(totalInterest)
+                .totalAmount(amount.add(totalInterest))
+                .monthlyPayment(installments.get(0).getTotalAmount())
+                .installments(installments)
+                .build();
+    }
+
+    private List<InstallmentDetail> flat(BigDecimal principal, int tenure, BigDecimal annualRatePercent) {
+        BigDecimal totalInterest = principal.multiply(annualRatePercent)
+                .multiply(BigDecimal.valueOf(tenure))
+                .divide(HUNDRED.multiply(MONTHS_PER_YEAR), SCALE, ROUNDING);
+        BigDecimal principalPart = principal.divide(BigDecimal.valueOf(tenure), SCALE, SHARE_ROUNDING);
+        BigDecimal interestPart = totalInterest.divide(BigDecimal.valueOf(tenure), SCALE, SHARE_ROUNDING);
+
+        List<InstallmentDetail> installments = new ArrayList<>(tenure);
+        BigDecimal balance = principal;
+        BigDecimal interestLeft = totalInterest;
+        for (int month = 1; month <= tenure; month++) {
+            boolean last = month == tenure;
+            BigDecimal principalPaid = last ? balance : principalPart;
+            BigDecimal interest = last ? interestLeft : interestPart;
+            balance = balance.subtract(principalPaid);
+            interestLeft = interestLeft.subtract(interest);
+            installments.add(installment(month, principalPaid, interest, balance));
+        }
+        return installments;
+    }
+
+    private List<InstallmentDetail> reducingBalance(BigDecimal principal, int tenure, BigDecimal monthlyRate) {
+        BigDecimal principalPart = principal.divide(BigDecimal.valueOf(tenure), SCALE, SHARE_ROUNDING);
+
+        List<InstallmentDetail> installments = new ArrayList<>(tenure);
+        BigDecimal balance = principal;
+        for (int month = 1; month <= tenure; month++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(SCALE, ROUNDING);
+            BigDecimal principalPaid = month == tenure ? balance : principalPart;
+            balance = balance.subtract(principalPaid);
+            installments.add(installment(month, principalPaid, interest, balance));
+        }
+        return installments;
+    }
+
+    private List<InstallmentDetail> annuity(BigDecimal principal, int tenure, BigDecimal monthlyRate) {
+        BigDecimal payment;
+        if (monthlyRate.signum() == 0) {
+            payment = principal.divide(BigDecimal.valueOf(tenure), SCALE, SHARE_ROUNDING);
+        } else {
+            // payment = P * r * (1 + r)^n / ((1 + r)^n - 1)
+            BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(tenure, PRECISION);
+            payment = principal.multiply(monthlyRate)
+                    .multiply(growth)
+                    .divide(growth.subtract(BigDecimal.ONE), SCALE, ROUNDING);
+        }
+
+        List<InstallmentDetail> installments = new ArrayList<>(tenure);
+        BigDecimal balance = principal;
+        for (int month = 1; month <= tenure; month++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(SCALE, ROUNDING);
+            // A rounded-up payment on a tiny loan may repay it before the last month
+            BigDecimal principalPaid = month == tenure ? balance : payment.subtract(interest).min(balance);
+            balance = balance.subtract(principalPaid);
+            installments.add(installment(month, principalPaid, interest, balance));
+        }
+        return installments;
+    }
+
+    private InstallmentDetail installment(int month, BigDecimal principalPaid, BigDecimal interest,
+                                          BigDecimal remainingBalance) {
+        return InstallmentDetail.builder()
+                .installmentNumber(month)
+                .principalAmount(principalPaid)
+                .interestAmount(interest)
+                .totalAmount(principalPaid.add(interest))
+                .remainingBalance(remainingBalance)
+                .build();
+    }
+}
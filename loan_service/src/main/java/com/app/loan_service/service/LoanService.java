@@ -1,39 +1,69 @@
 package com.app.loan_service.service;
 
+import com.app.loan_service.client.CoreBankingClient;
+import com.app.loan_service.config.CoreBankingProperties;
 import com.app.loan_service.config.LoanProperties;
 import com.app.loan_service.dto.LoanApplicationRequest;
+import com.app.loan_service.dto.LoanScheduleResponse;
 import com.app.loan_service.entity.Loan;
-import com.app.loan_service.messaging.LoanEventPublisher;
 import com.app.loan_service.repository.LoanRepository;
 import com.app.loan_service.event.LoanApprovedEvent;
+import com.app.loan_service.metrics.FlowMetrics;
+import com.app.loan_service.shared.AmortizationMethod;
+import com.app.loan_service.shared.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 @Slf4j
 @Service
 public class LoanService {
 
+    private static final String APPLY_FOR_LOAN = "apply_for_loan";
+
     private final LoanRepository loanRepository;
     private final LoanProperties loanProperties;
-    private final LoanEventPublisher loanEventPublisher;
+    private final OutboxService outboxService;
+    private final LoanScheduleCache scheduleCache;
+    private final CoreBankingClient coreBankingClient;
+    private final CoreBankingProperties coreBankingProperties;
+    private final TransactionalOperator transactionalOperator;
+    private final FlowMetrics flowMetrics;
 
     private static final Logger log = LoggerFactory
             .getLogger(LoanService.class);
 
-    public LoanService(LoanRepository loanRepository, LoanProperties loanProperties, LoanEventPublisher loanEventPublisher) {
+    public LoanService(LoanRepository loanRepository, LoanProperties loanProperties, OutboxService outboxService,
+                       LoanScheduleCache scheduleCache, CoreBankingClient coreBankingClient,
+                       CoreBankingProperties coreBankingProperties, TransactionalOperator transactionalOperator,
+                       FlowMetrics flowMetrics) {
         this.loanRepository = loanRepository;
         this.loanProperties = loanProperties;
-        this.loanEventPublisher = loanEventPublisher;
+        this.outboxService = outboxService;
+        this.scheduleCache = scheduleCache;
+        this.coreBankingClient = coreBankingClient;
+        this.coreBankingProperties = coreBankingProperties;
+        this.transactionalOperator = transactionalOperator;
+        this.flowMetrics = flowMetrics;
     }
 
     /**
      * Apply for a loan asynchronously.
+     * The LoanApprovedEvent is written to the outbox in the same transaction as the loan
+     * and published to the Account Service by the outbox relay. With
+     * core.banking.check-applications the application is first checked with the core
+     * banking system, outside any database transaction so a slow core system holds no
+     * connection, and declined if the core system rejects it.
      */
     public Mono<Loan> applyForLoan(LoanApplicationRequest request) {
         log.info("Starting loan application for accountId={}, amount={}",
@@ -42,28 +72,99 @@ public class LoanService {
         // Validate loan amount limits
         if (request.getLoanAmount().doubleValue() < loanProperties.getMinAmount() ||
                 request.getLoanAmount().doubleValue() > loanProperties.getMaxAmount()) {
-            return Mono.error(new ResponseStatusException(
+            return Mono.<Loan>error(new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     String.format("Loan amount must be between %.0f and %.0f",
                             loanProperties.getMinAmount(), loanProperties.getMaxAmount())
-            ));
+            )).transform(flowMetrics.timed(APPLY_FOR_LOAN));
         }
 
+        Mono<Loan> approval = Mono.defer(() -> approve(request)).as(transactionalOperator::transactional);
+        if (coreBankingProperties.isCheckApplications()) {
+            approval = coreBankingClient.getLoanSchedule(request)
+                    .doOnNext(schedule -> log.info("Core banking accepted loan application for accountId={}: {}",
+                            request.getAccountId(), schedule))
+                    .onErrorMap(this::coreBankingFailure)
+                    .then(approval);
+        }
+        return approval.transform(flowMetrics.timed(APPLY_FOR_LOAN));
+    }
+
+    private Mono<Loan> approve(LoanApplicationRequest request) {
         Loan loan = new Loan();
         loan.setAccountId(request.getAccountId());
-        loan.setAmount(request.getLoanAmount().doubleValue());
+        loan.setAmount(Money.of(request.getLoanAmount(), loanProperties.getCurrency()));
         loan.setTenure(request.getTenureMonths());
         loan.setStatus("APPROVED");
 
         return loanRepository.save(loan)
-                .doOnSuccess(savedLoan -> {
+                .flatMap(savedLoan -> {
                     log.info("Loan approved and saved: {}", savedLoan.getId());
-                    // Publish LoanApprovedEvent to Account Service via RabbitMQ
+                    // Queue LoanApprovedEvent for the Account Service
                     LoanApprovedEvent event = new LoanApprovedEvent();
                     event.setLoanId(savedLoan.getId());
                     event.setAccountId(savedLoan.getAccountId());
                     event.setAmount(savedLoan.getAmount());
-                    loanEventPublisher.publishLoanApprovedEvent(event);
+                    return outboxService.record(event)
+                            .thenReturn(savedLoan);
                 });
     }
+
+    /**
+     * A core banking rejection declines the application; any other failure, including a
+     * timeout, an open circuit breaker or a full bulkhead, means the applicant should retry.
+     */
+    private Throwable coreBankingFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            log.warn("Core banking rejected loan application: Status={}", response.getStatusCode());
+            return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Loan application was rejected by the core banking system");
+        }
+        log.error("Core banking call failed: {}", error.toString());
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Core banking system is unavailable, please retry");
+    }
+
+    /**
+     * Stream the loans of an account, oldest first.
+     * <p>
+     * Loans are read with keyset pagination on (created_at, id) in pages of
+     * banking.loan.listing-page-size; the next page is only queried once the previous one
+     * has been consumed, so memory stays bounded by one page.
+     *
+     * @param accountId the account ID
+     * @param after     continue after this loan, or null to start at the oldest loan
+     * @param limit     the maximum number of loans to return
+     * @return Flux of loans
+     */
+    public Flux<Loan> streamLoans(UUID accountId, UUID after, long limit) {
+        int size = (int) Math.min(loanProperties.getListingPageSize(), limit);
+        Flux<Loan> page = after == null
+                ? loanRepository.findFirstPageByAccountId(accountId, size)
+                : loanRepository.findPageByAccountIdAfter(accountId, after, size);
+        return page.collectList().flatMapMany(loans -> {
+            Flux<Loan> rows = Flux.fromIterable(loans);
+            if (loans.size() < size || loans.size() == limit) {
+                return rows;
+            }
+            UUID last = loans.get(loans.size() - 1).getId();
+            return rows.concatWith(Flux.defer(() -> streamLoans(accountId, last, limit - loans.size())));
+        });
+    }
+
+    /**
+     * Calculate the repayment schedule of a loan at the configured interest rate.
+     *
+     * @param loanId the loan ID
+     * @param method the amortization method, or null for the configured default
+     * @return Mono of LoanScheduleResponse, or a 404 error if the loan does not exist
+     */
+    public Mono<LoanScheduleResponse> getLoanSchedule(UUID loanId, AmortizationMethod method) {
+        AmortizationMethod resolved = method != null ? method : loanProperties.getAmortizationMethod();
+        return loanRepository.findById(loanId)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Loan not found: " + loanId)))
+                .map(loan -> scheduleCache.get(loan.getAmount().toBigDecimal(),
+                        loan.getTenure(), loanProperties.getInterestRate(), resolved));
+    }
 }
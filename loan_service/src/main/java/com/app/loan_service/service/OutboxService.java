@@ -0,0 +1,76 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.entity.OutboxEvent;
+import com.app.loan_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes events to the transactional outbox.
+ * Callers record events inside the transaction of the state change they describe,
+ * so an event is stored if and only if the change is committed.
+ * The trace context of the recording request is stored with the event.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    @Value("${spring.application.name}")
+    private String source;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                         ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
+
+    /**
+     * Store an event in the outbox for later publishing.
+     *
+     * @param event the event to store
+     * @return Mono of the stored OutboxEvent
+     */
+    public Mono<OutboxEvent> record(Object event) {
+        return Mono.fromCallable(() -> {
+                    OutboxEvent outboxEvent = new OutboxEvent();
+                    outboxEvent.setSource(source);
+                    outboxEvent.setEventType(event.getClass().getSimpleName());
+                    outboxEvent.setPayload(serialize(event));
+                    outboxEvent.setTraceParent(currentTraceParent());
+                    outboxEvent.setCreatedAt(LocalDateTime.now());
+                    return outboxEvent;
+                })
+                .flatMap(outboxEventRepository::save);
+    }
+
+    private String currentTraceParent() {
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context == null) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(context, headers, Map::put);
+        return headers.get("traceparent");
+    }
+
+    private String serialize(Object event) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+}
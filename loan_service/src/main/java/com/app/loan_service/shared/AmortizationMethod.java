@@ -0,0 +1,16 @@
+package com.app.loan_service.shared;
+
+public enum AmortizationMethod {
+    /**
+     * Interest charged on the original principal for the whole tenure, repaid in equal parts.
+     */
+    FLAT,
+    /**
+     * Equal principal parts, interest charged on the outstanding balance.
+     */
+    REDUCING_BALANCE,
+    /**
+     * Equal total installments, interest charged on the outstanding balance.
+     */
+    ANNUITY
+}
@@ -0,0 +1,166 @@
+package com.app.loan_service.shared;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable monetary amount held as a long number of minor units (cents) plus an
+ * ISO 4217 currency code. All arithmetic is exact integer arithmetic and overflow
+ * fails instead of wrapping.
+ * <p>
+ * On the wire an amount is a plain JSON number in major units, so payloads stay
+ * compatible with consumers that read it as a decimal. As the number carries no currency,
+ * reading amounts needs the {@link #jacksonModule(String)} of the configured currency.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * @param minorUnits the amount in minor units, e.g. 1050 for 10.50
+     * @param currency   the currency code
+     * @return the Money
+     */
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * @param amount   the amount in major units, with at most two decimal places
+     * @param currency the currency code
+     * @return the Money
+     * @throws ArithmeticException if the amount has more than two decimal places or does not fit
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, minorUnitsOf(other)), currency);
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, minorUnitsOf(other)), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isGreaterThanOrEqual(Money other) {
+        return minorUnits >= minorUnitsOf(other);
+    }
+
+    /**
+     * @return the amount in major units with a scale of two
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, minorUnitsOf(other));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + toBigDecimal().toPlainString();
+    }
+
+    private long minorUnitsOf(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+        return other.minorUnits;
+    }
+
+    static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    /**
+     * @param currency the currency of amounts read from JSON
+     * @return Jackson module that reads amounts in the currency
+     */
+    public static Module jacksonModule(String currency) {
+        return new SimpleModule("Money").addDeserializer(Money.class, new Deserializer(currency));
+    }
+
+    static class Deserializer extends JsonDeserializer<Money> {
+        private final String currency;
+
+        Deserializer(String currency) {
+            this.currency = Objects.requireNonNull(currency, "currency");
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BigDecimal amount = p.currentToken() == JsonToken.VALUE_STRING
+                    ? new BigDecimal(p.getText().trim())
+                    : p.getDecimalValue();
+            return Money.of(amount, currency);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.app.loan_service.client;
+
+import com.app.loan_service.config.CoreBankingProperties;
+import com.app.loan_service.controller.MockCoreBankingController;
+import com.app.loan_service.dto.LoanApplicationRequest;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the client against {@link MockCoreBankingController}, which answers after 500 ms.
+ */
+class CoreBankingClientTest {
+
+    private static AnnotationConfigApplicationContext context;
+    private static DisposableServer server;
+
+    private final CoreBankingProperties properties = new CoreBankingProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CoreBankingClient client;
+
+    @BeforeAll
+    static void startCoreBanking() {
+        context = new AnnotationConfigApplicationContext(MockCoreBanking.class);
+        server = HttpServer.create()
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopCoreBanking() {
+        server.disposeNow();
+        context.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties.setBaseUrl("http://localhost:" + server.port() + "/api/v1/core");
+        properties.getHedge().setEnabled(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+    }
+
+    @Test
+    void returnsTheScheduleOfTheCoreSystem() {
+        client = createClient();
+
+        StepVerifier.create(client.getLoanSchedule(application()))
+                .assertNext(schedule -> assertThat(schedule).startsWith("Loan approved").contains("12 months"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void slowCallTimesOut() {
+        properties.setTimeout(Duration.ofMillis(100));
+        client = createClient();
+
+        Duration elapsed = StepVerifier.create(client.getLoanSchedule(application()))
+                .expectError()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(elapsed).isLessThan(Duration.ofMillis(450));
+    }
+
+    @Test
+    void callsBeyondTheBulkheadAreRejected() {
+        properties.setMaxConcurrentCalls(1);
+        client = createClient();
+
+        Mono<String> first = client.getLoanSchedule(application()).cache();
+        first.subscribe(schedule -> { }, error -> { });
+
+        StepVerifier.create(client.getLoanSchedule(application()))
+                .expectError(BulkheadFullException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(first)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void circuitBreakerOpensAfterRepeatedFailures() {
+        properties.setTimeout(Duration.ofMillis(100));
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        client = createClient();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(client.getLoanSchedule(application()))
+                    .expectError()
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        StepVerifier.create(client.getLoanSchedule(application()))
+                .expectError(CallNotPermittedException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void slowCallIsHedged() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinDelay(Duration.ofMillis(50));
+        properties.getHedge().setMaxDelay(Duration.ofMillis(50));
+        client = createClient();
+
+        StepVerifier.create(client.getLoanSchedule(application()))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(meterRegistry.counter("core.banking.hedged.calls").count()).isEqualTo(1.0);
+    }
+
+    private CoreBankingClient createClient() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        return new CoreBankingClient(WebClient.builder(), properties, beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    private static LoanApplicationRequest application() {
+        return LoanApplicationRequest.builder()
+                .accountId(UUID.randomUUID())
+                .loanAmount(new BigDecimal("1000.00"))
+                .tenureMonths(12)
+                .build();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    @Import(MockCoreBankingController.class)
+    static class MockCoreBanking {
+    }
+}
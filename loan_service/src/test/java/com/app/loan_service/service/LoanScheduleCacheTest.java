@@ -0,0 +1,104 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.config.ScheduleCacheProperties;
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.shared.AmortizationMethod;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoanScheduleCacheTest {
+
+    private final LoanScheduleCalculator calculator = spy(new LoanScheduleCalculator());
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoanScheduleCache cache;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        cache = new LoanScheduleCache(calculator, new ScheduleCacheProperties(),
+                beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void equalInputsAreCalculatedOnce() {
+        LoanScheduleResponse first = cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"),
+                AmortizationMethod.ANNUITY);
+        LoanScheduleResponse second = cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"),
+                AmortizationMethod.ANNUITY);
+
+        assertThat(second).isSameAs(first);
+        verify(calculator, times(1)).calculate(any(), anyInt(), any(), any());
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void equalValuesWithDifferentScalesShareAnEntry() {
+        LoanScheduleResponse first = cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"),
+                AmortizationMethod.ANNUITY);
+
+        assertThat(cache.get(new BigDecimal("1000.00"), 12, new BigDecimal("10.0"), AmortizationMethod.ANNUITY))
+                .isSameAs(first);
+        assertThat(cache.get(new BigDecimal("1000.001"), 12, new BigDecimal("10.000"), AmortizationMethod.ANNUITY))
+                .isSameAs(first);
+        verify(calculator, times(1)).calculate(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void differentInputsAreCalculatedSeparately() {
+        LoanScheduleResponse schedule = cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"),
+                AmortizationMethod.ANNUITY);
+
+        assertThat(cache.get(new BigDecimal("2000"), 12, new BigDecimal("10"), AmortizationMethod.ANNUITY))
+                .isNotSameAs(schedule);
+        assertThat(cache.get(new BigDecimal("1000"), 24, new BigDecimal("10"), AmortizationMethod.ANNUITY))
+                .isNotSameAs(schedule);
+        assertThat(cache.get(new BigDecimal("1000"), 12, new BigDecimal("12"), AmortizationMethod.ANNUITY))
+                .isNotSameAs(schedule);
+        assertThat(cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"), AmortizationMethod.FLAT))
+                .isNotSameAs(schedule);
+        verify(calculator, times(5)).calculate(any(), anyInt(), any(), any());
+        assertThat(gets("miss")).isEqualTo(5);
+    }
+
+    @Test
+    void scheduleShowsTheRateAsGiven() {
+        LoanScheduleResponse schedule = cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"),
+                AmortizationMethod.ANNUITY);
+
+        // Not the normalized 1E+1 of the key
+        assertThat(schedule.getInterestRate().toString()).isEqualTo("10");
+    }
+
+    @Test
+    void invalidatedSchedulesAreCalculatedAgain() {
+        cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"), AmortizationMethod.ANNUITY);
+
+        cache.invalidateAll();
+        cache.get(new BigDecimal("1000"), 12, new BigDecimal("10"), AmortizationMethod.ANNUITY);
+
+        verify(calculator, times(2)).calculate(any(), anyInt(), any(), any());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "loan.schedule")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
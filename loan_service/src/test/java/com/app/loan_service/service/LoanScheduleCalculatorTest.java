@@ -0,0 +1,114 @@
+package com.app.loan_service.service;
+
+import com.app.loan_service.dto.InstallmentDetail;
+import com.app.loan_service.dto.LoanScheduleResponse;
+import com.app.loan_service.shared.AmortizationMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.offset;
+
+class LoanScheduleCalculatorTest {
+
+    private final LoanScheduleCalculator calculator = new LoanScheduleCalculator();
+
+    @ParameterizedTest
+    @EnumSource(AmortizationMethod.class)
+    void principalPartsAddUpToTheLoanAmount(AmortizationMethod method) {
+        for (String principal : List.of("1000.00", "200.00", "12345.67", "0.05", "999999.99")) {
+            for (int tenure : new int[]{1, 3, 7, 12, 36, 360}) {
+                LoanScheduleResponse schedule = calculator.calculate(new BigDecimal(principal), tenure,
+                        new BigDecimal("13.5"), method);
+
+                assertConsistent(schedule, new BigDecimal(principal), tenure);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(AmortizationMethod.class)
+    void zeroRateChargesNoInterest(AmortizationMethod method) {
+        LoanScheduleResponse schedule = calculator.calculate(new BigDecimal("1000.00"), 7, BigDecimal.ZERO, method);
+
+        assertConsistent(schedule, new BigDecimal("1000.00"), 7);
+        assertThat(schedule.getTotalInterest()).isEqualByComparingTo("0");
+        assertThat(schedule.getTotalAmount()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void flatInterestIsChargedOnTheOriginalPrincipal() {
+        LoanScheduleResponse schedule = calculator.calculate(new BigDecimal("1200.00"), 12,
+                new BigDecimal("10"), AmortizationMethod.FLAT);
+
+        assertThat(schedule.getTotalInterest()).isEqualByComparingTo("120.00");
+        assertThat(schedule.getMonthlyPayment()).isEqualByComparingTo("110.00");
+        assertThat(schedule.getInstallments()).allSatisfy(installment ->
+                assertThat(installment.getInterestAmount()).isEqualByComparingTo("10.00"));
+    }
+
+    @Test
+    void annuityInstallmentsAreEqualExceptTheLast() {
+        LoanScheduleResponse schedule = calculator.calculate(new BigDecimal("10000.00"), 12,
+                new BigDecimal("12"), AmortizationMethod.ANNUITY);
+
+        // P * r * (1 + r)^n / ((1 + r)^n - 1) with r = 1% and n = 12
+        assertThat(schedule.getMonthlyPayment()).isEqualByComparingTo("888.49");
+        List<InstallmentDetail> installments = schedule.getInstallments();
+        assertThat(installments.subList(0, 11)).allSatisfy(installment ->
+                assertThat(installment.getTotalAmount()).isEqualByComparingTo("888.49"));
+        assertThat(installments.get(11).getTotalAmount())
+                .isCloseTo(new BigDecimal("888.49"), offset(new BigDecimal("0.05")));
+    }
+
+    @Test
+    void reducingBalanceInterestFallsWithTheBalance() {
+        LoanScheduleResponse schedule = calculator.calculate(new BigDecimal("1200.00"), 12,
+                new BigDecimal("12"), AmortizationMethod.REDUCING_BALANCE);
+
+        List<InstallmentDetail> installments = schedule.getInstallments();
+        assertThat(installments.get(0).getInterestAmount()).isEqualByComparingTo("12.00");
+        assertThat(installments.get(11).getInterestAmount()).isEqualByComparingTo("1.00");
+        // 1% of 1200, 1100, ..., 100
+        assertThat(schedule.getTotalInterest()).isEqualByComparingTo("78.00");
+    }
+
+    @Test
+    void invalidTermsAreRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                calculator.calculate(BigDecimal.ZERO, 12, BigDecimal.TEN, AmortizationMethod.ANNUITY));
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                calculator.calculate(BigDecimal.TEN, 0, BigDecimal.TEN, AmortizationMethod.ANNUITY));
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                calculator.calculate(BigDecimal.TEN, 12, new BigDecimal("-1"), AmortizationMethod.ANNUITY));
+    }
+
+    private static void assertConsistent(LoanScheduleResponse schedule, BigDecimal principal, int tenure) {
+        List<InstallmentDetail> installments = schedule.getInstallments();
+        assertThat(installments).hasSize(tenure);
+
+        BigDecimal principalPaid = BigDecimal.ZERO;
+        BigDecimal interestPaid = BigDecimal.ZERO;
+        BigDecimal balance = principal;
+        for (InstallmentDetail installment : installments) {
+            assertThat(installment.getPrincipalAmount().signum()).isNotNegative();
+            assertThat(installment.getInterestAmount().signum()).isNotNegative();
+            assertThat(installment.getTotalAmount())
+                    .isEqualByComparingTo(installment.getPrincipalAmount().add(installment.getInterestAmount()));
+            balance = balance.subtract(installment.getPrincipalAmount());
+            assertThat(installment.getRemainingBalance()).isEqualByComparingTo(balance);
+            principalPaid = principalPaid.add(installment.getPrincipalAmount());
+            interestPaid = interestPaid.add(installment.getInterestAmount());
+        }
+
+        assertThat(principalPaid).isEqualByComparingTo(principal);
+        assertThat(balance).isEqualByComparingTo("0");
+        assertThat(schedule.getTotalInterest()).isEqualByComparingTo(interestPaid);
+        assertThat(schedule.getTotalAmount()).isEqualByComparingTo(principal.add(interestPaid));
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.loan_service.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(Money.jacksonModule("KES"));
+
+    @Test
+    void majorUnitsAreConvertedToCents() {
+        assertThat(Money.of(new BigDecimal("10.5"), "KES").getMinorUnits()).isEqualTo(1050);
+        assertThat(Money.of(new BigDecimal("10.500"), "KES").getMinorUnits()).isEqualTo(1050);
+        assertThat(Money.of(new BigDecimal("-0.01"), "KES").getMinorUnits()).isEqualTo(-1);
+        assertThat(Money.of(new BigDecimal("1E+3"), "KES").getMinorUnits()).isEqualTo(100_000);
+        assertThat(Money.ofMinor(1050, "KES").toBigDecimal()).isEqualTo(new BigDecimal("10.50"));
+    }
+
+    @Test
+    void fractionsOfACentAreRejectedInsteadOfRounded() {
+        assertThatExceptionOfType(ArithmeticException.class)
+                .isThrownBy(() -> Money.of(new BigDecimal("10.005"), "KES"));
+        assertThatExceptionOfType(ArithmeticException.class)
+                .isThrownBy(() -> Money.of(new BigDecimal("0.001"), "KES"));
+    }
+
+    @Test
+    void amountsBeyondTheRangeOfCentsAreRejected() {
+        BigDecimal largest = BigDecimal.valueOf(Long.MAX_VALUE, Money.SCALE);
+
+        assertThat(Money.of(largest, "KES").getMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        assertThatExceptionOfType(ArithmeticException.class)
+                .isThrownBy(() -> Money.of(largest.add(new BigDecimal("0.01")), "KES"));
+    }
+
+    @Test
+    void arithmeticFailsOnOverflowInsteadOfWrapping() {
+        Money largest = Money.ofMinor(Long.MAX_VALUE, "KES");
+        Money smallest = Money.ofMinor(Long.MIN_VALUE, "KES");
+        Money cent = Money.ofMinor(1, "KES");
+
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(() -> largest.plus(cent));
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(() -> smallest.minus(cent));
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(smallest::negate);
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Money total = Money.zero("KES");
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(new BigDecimal("0.10"), "KES"));
+        }
+
+        assertThat(total).isEqualTo(Money.of(BigDecimal.ONE, "KES"));
+        assertThat(total.minus(Money.of(new BigDecimal("1.01"), "KES")).signum()).isNegative();
+    }
+
+    @Test
+    void currenciesAreNotMixed() {
+        Money shillings = Money.ofMinor(100, "KES");
+        Money dollars = Money.ofMinor(100, "USD");
+
+        assertThat(shillings).isNotEqualTo(dollars);
+        assertThatIllegalArgumentException().isThrownBy(() -> shillings.plus(dollars));
+        assertThatIllegalArgumentException().isThrownBy(() -> shillings.compareTo(dollars));
+    }
+
+    @Test
+    void serializedAsAPlainNumberInMajorUnits() throws Exception {
+        assertThat(objectMapper.writeValueAsString(Money.ofMinor(1050, "KES"))).isEqualTo("10.50");
+
+        assertThat(objectMapper.readValue("10.5", Money.class)).isEqualTo(Money.ofMinor(1050, "KES"));
+        assertThat(objectMapper.readValue("\" 10.50 \"", Money.class)).isEqualTo(Money.ofMinor(1050, "KES"));
+    }
+
+    @Test
+    void readInTheCurrencyOfTheModule() throws Exception {
+        ObjectMapper dollars = new ObjectMapper().registerModule(Money.jacksonModule("USD"));
+
+        assertThat(dollars.readValue("10.5", Money.class)).isEqualTo(Money.ofMinor(1050, "USD"));
+    }
+}